@@ -0,0 +1,23 @@
+package com.udacity.hotel.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link com.udacity.hotel.service.CustomerService} over a {@link HotelDataset}.
+ *
+ * @author Ivan V. Zykov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    @Benchmark
+    public void addCustomer(HotelDataset dataset) {
+        dataset.customerService.addCustomer(dataset.newEmail(), "First", "Last");
+    }
+}
@@ -0,0 +1,225 @@
+package com.udacity.hotel.benchmark;
+
+import com.udacity.hotel.api.HotelResource;
+import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.BookingMode;
+import com.udacity.hotel.service.BookingPipeline;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.MappedReservationStore;
+import com.udacity.hotel.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic hotel shared by all benchmarks: fresh services filled with customers, rooms and reservations, and a
+ * fixed set of stays to search for. All random choices are seeded, so the same parameters give the same dataset.
+ * <p>Stays begin within a booking window which starts today and is long enough to hold the requested reservations.
+ * With {@link DateDistribution#SKEWED} both stays and rooms are concentrated at the start, as with a few popular
+ * rooms booked mostly for the coming weeks. Reservations which would overlap a booked stay are skipped, so a
+ * crowded skewed dataset may hold fewer reservations than requested.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+@State(Scope.Benchmark)
+public class HotelDataset {
+
+    /**
+     * How check-in days and rooms are chosen for generated stays.
+     */
+    public enum DateDistribution {
+        UNIFORM,
+        SKEWED
+    }
+
+    /**
+     * Where the reservation service keeps its reservations.
+     */
+    public enum Storage {
+        HEAP,
+        MAPPED
+    }
+
+    // Four times as many stays as the search cache holds, searched in turn, so searches measure the calendars
+    static final int QUERIES = 4096;
+
+    private static final long SEED = 42L;
+    private static final int MIN_WINDOW_DAYS = 365;
+    private static final int MAX_NIGHTS = 7;
+    private static final int ATTEMPTS_PER_RESERVATION = 20;
+
+    @Param({"100", "1000"})
+    public int rooms;
+
+    @Param({"10000"})
+    public int reservations;
+
+    @Param({"1000"})
+    public int customers;
+
+    @Param({"UNIFORM", "SKEWED"})
+    public DateDistribution distribution;
+
+    @Param({"HEAP"})
+    public Storage storage;
+
+    @Param({"LOCKING"})
+    public BookingMode bookingMode;
+
+    /**
+     * Capacity of the booking pipeline of {@link #hotelResource}, or 0 to book on the calling threads.
+     */
+    @Param({"0"})
+    public int pipelineCapacity;
+
+    CustomerService customerService;
+    ReservationService reservationService;
+    HotelResource hotelResource;
+    IRoom[] roomList;
+    Customer[] customerList;
+    LocalDate[] queryCheckIns;
+    LocalDate[] queryCheckOuts;
+
+    private final AtomicInteger nextFreeSlot = new AtomicInteger();
+    private final AtomicLong nextCustomer = new AtomicLong();
+    private MappedReservationStore mappedStore;
+    private BookingPipeline bookingPipeline;
+    private Path mappedFile;
+    private int today;
+    private int windowDays;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException, IOException {
+        resetSingleton(CustomerService.class);
+        resetSingleton(ReservationService.class);
+        var reservationFactory = new ReservationFactory();
+        customerService = CustomerService.getInstance();
+        if (storage == Storage.MAPPED) {
+            mappedFile = Files.createTempFile("reservations", ".bin");
+            mappedStore = MappedReservationStore.create(mappedFile, reservationFactory);
+            reservationService = ReservationService.getInstance(reservationFactory, mappedStore);
+        } else {
+            reservationService = ReservationService.getInstance(reservationFactory);
+        }
+        reservationService.setBookingMode(bookingMode);
+        if (pipelineCapacity > 0) {
+            bookingPipeline = BookingPipeline.start(reservationService, pipelineCapacity);
+        }
+        hotelResource = new HotelResource(customerService, reservationService, bookingPipeline);
+
+        today = (int) LocalDate.now().toEpochDay();
+        windowDays = Math.max(MIN_WINDOW_DAYS, reservations * (MAX_NIGHTS + 1) / rooms);
+        var random = new Random(SEED);
+
+        customerList = new Customer[customers];
+        for (int i = 0; i < customers; i++) {
+            customerService.addCustomer("customer" + i + "@hotel.com", "First" + i, "Last" + i);
+            customerList[i] = customerService.getCustomer("customer" + i + "@hotel.com");
+        }
+
+        roomList = new IRoom[rooms];
+        for (int i = 0; i < rooms; i++) {
+            RoomType roomType = i % 2 == 0 ? RoomType.SINGLE : RoomType.DOUBLE;
+            roomList[i] = new Room(String.valueOf(i + 1), 50.0D + i % 10 * 25.0D, roomType);
+            reservationService.addRoom(roomList[i]);
+        }
+
+        int booked = 0;
+        for (int attempt = 0; booked < reservations && attempt < reservations * ATTEMPTS_PER_RESERVATION;
+             attempt++) {
+            int checkIn = today + pick(random, windowDays);
+            int checkOut = checkIn + 1 + random.nextInt(MAX_NIGHTS);
+            try {
+                reservationService.reserveARoom(customerList[random.nextInt(customers)],
+                        roomList[pick(random, rooms)], dateOf(checkIn), dateOf(checkOut));
+                booked++;
+            } catch (IllegalArgumentException ex) {
+                // Overlaps a stay booked already, another one is tried
+            }
+        }
+
+        queryCheckIns = new LocalDate[QUERIES];
+        queryCheckOuts = new LocalDate[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int checkIn = today + pick(random, windowDays);
+            queryCheckIns[i] = dateOf(checkIn);
+            queryCheckOuts[i] = dateOf(checkIn + 1 + random.nextInt(MAX_NIGHTS));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (bookingPipeline != null) {
+            bookingPipeline.close();
+        }
+        if (mappedStore != null) {
+            mappedStore.close();
+            Files.deleteIfExists(mappedFile);
+        }
+    }
+
+    private int pick(Random random, int bound) {
+        if (distribution == DateDistribution.SKEWED) {
+            double uniform = random.nextDouble();
+            return (int) (bound * uniform * uniform * uniform);
+        }
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Books a one-night stay which never overlaps another one. Stays are placed after the booking window, room by
+     * room and night by night.
+     *
+     * @return  reservation newly created
+     */
+    Reservation reserveFreeNight() {
+        int slot = nextFreeSlot.getAndIncrement();
+        int night = freeNightOf(slot);
+        return reservationService.reserveARoom(customerList[slot % customers], roomList[slot % rooms],
+                dateOf(night), dateOf(night + 1));
+    }
+
+    /**
+     * Books a one-night stay which never overlaps another one through {@link #hotelResource}, asynchronously if it
+     * has a booking pipeline.
+     *
+     * @return  future of the reservation newly created
+     */
+    CompletableFuture<Reservation> bookFreeNight() {
+        int slot = nextFreeSlot.getAndIncrement();
+        int night = freeNightOf(slot);
+        return hotelResource.bookARoomAsync(customerList[slot % customers].getEmail(), roomList[slot % rooms],
+                dateOf(night), dateOf(night + 1));
+    }
+
+    private int freeNightOf(int slot) {
+        return today + windowDays + MAX_NIGHTS + slot / rooms;
+    }
+
+    /**
+     * Returns an email no customer was added with yet.
+     *
+     * @return  string, new email
+     */
+    String newEmail() {
+        return "new" + nextCustomer.getAndIncrement() + "@hotel.com";
+    }
+
+    private static LocalDate dateOf(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void resetSingleton(Class<?> singletonClass) throws ReflectiveOperationException {
+        Field instance = singletonClass.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+}
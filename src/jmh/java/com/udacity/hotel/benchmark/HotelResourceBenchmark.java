@@ -0,0 +1,39 @@
+package com.udacity.hotel.benchmark;
+
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link com.udacity.hotel.api.HotelResource} over a {@link HotelDataset}.
+ *
+ * @author Ivan V. Zykov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HotelResourceBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public Collection<IRoom> findARoom(HotelDataset dataset) {
+        int query = next++ & (HotelDataset.QUERIES - 1);
+        return dataset.hotelResource.findARoom(dataset.queryCheckIns[query], dataset.queryCheckOuts[query]);
+    }
+
+    /**
+     * Books from several threads at once, to compare booking on the calling threads with the booking pipeline.
+     */
+    @Benchmark
+    @Threads(8)
+    public Reservation bookARoom(HotelDataset dataset) {
+        return dataset.bookFreeNight().join();
+    }
+}
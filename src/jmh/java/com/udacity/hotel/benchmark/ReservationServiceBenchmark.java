@@ -0,0 +1,50 @@
+package com.udacity.hotel.benchmark;
+
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.service.OccupancyAnalytics;
+import com.udacity.hotel.service.OccupancyReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link com.udacity.hotel.service.ReservationService} over a {@link HotelDataset}.
+ *
+ * @author Ivan V. Zykov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReservationServiceBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public Collection<IRoom> findRooms(HotelDataset dataset) {
+        int query = next++ & (HotelDataset.QUERIES - 1);
+        return dataset.reservationService.findRooms(dataset.queryCheckIns[query], dataset.queryCheckOuts[query]);
+    }
+
+    @Benchmark
+    public Reservation reserveARoom(HotelDataset dataset) {
+        return dataset.reserveFreeNight();
+    }
+
+    @Benchmark
+    public Collection<Reservation> getCustomersReservation(HotelDataset dataset) {
+        int customer = next++ % dataset.customers;
+        return dataset.reservationService.getCustomersReservation(dataset.customerList[customer]);
+    }
+
+    @Benchmark
+    public OccupancyReport occupancyReport(HotelDataset dataset) {
+        LocalDate today = LocalDate.now();
+        return new OccupancyAnalytics(dataset.reservationService).report(today, today.plusYears(1), 50.0D);
+    }
+}
@@ -2,14 +2,28 @@ package com.udacity.hotel;
 
 import com.udacity.hotel.api.AdminResource;
 import com.udacity.hotel.api.HotelResource;
+import com.udacity.hotel.http.HotelHttpServer;
 import com.udacity.hotel.model.ReservationFactory;
+import com.udacity.hotel.persistence.PersistentState;
+import com.udacity.hotel.service.BookingMode;
+import com.udacity.hotel.service.BookingPipeline;
 import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.MappedReservationStore;
 import com.udacity.hotel.service.ReservationService;
 import com.udacity.hotel.ui.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
 import java.util.Scanner;
 
 /**
@@ -20,30 +34,139 @@ import java.util.Scanner;
  */
 public final class HotelApplication {
 
+    private static final String DATA_DIR_OPTION = "--data-dir";
+    private static final String SYNC_MILLIS_OPTION = "--sync-millis";
+    private static final String SNAPSHOT_MINUTES_OPTION = "--snapshot-minutes";
+    private static final String RESERVATION_FILE_OPTION = "--reservation-file";
+    private static final String BATCH_OPTION = "--batch";
+    private static final String STANDARD_INPUT = "-";
+    private static final String HTTP_PORT_OPTION = "--http-port";
+    private static final String BOOKING_MODE_OPTION = "--booking-mode";
+    private static final String BOOKING_PIPELINE_OPTION = "--booking-pipeline";
+    private static final long DEFAULT_SYNC_MILLIS = 50;
+    private static final long DEFAULT_SNAPSHOT_MINUTES = 10;
+
     /**
-     * Main method starting this app.
+     * Main method starting this app. Without arguments all data is kept in memory only. Supported arguments:
+     * <ul>
+     *     <li>{@code --data-dir <directory>} keeps all data in a snapshot and a write-ahead log in the directory and
+     *     restores it on start</li>
+     *     <li>{@code --sync-millis <milliseconds>} sets how often the log is forced to the disk, 50 by default</li>
+     *     <li>{@code --snapshot-minutes <minutes>} sets how often a snapshot is taken, 10 by default</li>
+     *     <li>{@code --reservation-file <file>} keeps reservations off the heap in the memory-mapped file, which is
+     *     emptied on start</li>
+     *     <li>{@code --batch <file>} executes the commands in the file, or in the standard input if the file is
+     *     {@code -}, instead of showing the menus, see {@link BatchCommandRunner}. The app exits with status 1 if
+     *     any command failed</li>
+     *     <li>{@code --http-port <port>} serves the JSON API of {@link HotelHttpServer} on the loopback address while
+     *     the menus or the batch run</li>
+     *     <li>{@code --booking-mode <locking|optimistic>} sets how a room is kept from being booked twice for the
+     *     same night, see {@link BookingMode}</li>
+     *     <li>{@code --booking-pipeline <capacity>} books rooms requested through the HTTP API on a single thread of
+     *     a {@link BookingPipeline} holding up to the supplied number of waiting requests</li>
+     * </ul>
      *
-     * @param args  string with arguments, but this app doesn't support any
+     * @param args          string array with arguments
+     * @throws IOException  if the data directory, the reservation file or the batch file can't be read or written
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Instantiate classes
+        ReservationFactory reservationFactory = new ReservationFactory();
+        String reservationFile = readOption(args, RESERVATION_FILE_OPTION);
+        MappedReservationStore reservationStore = reservationFile == null ? null :
+                MappedReservationStore.create(Path.of(reservationFile), reservationFactory);
         CustomerService customerService = CustomerService.getInstance();
-        ReservationService reservationService = ReservationService.getInstance(new ReservationFactory());
+        ReservationService reservationService = reservationStore == null ?
+                ReservationService.getInstance(reservationFactory) :
+                ReservationService.getInstance(reservationFactory, reservationStore);
+        String bookingMode = readOption(args, BOOKING_MODE_OPTION);
+        if (bookingMode != null) {
+            reservationService.setBookingMode(BookingMode.valueOf(bookingMode.toUpperCase(Locale.ROOT)));
+        }
+        PersistentState persistentState = openPersistentState(args, customerService, reservationService);
         AdminResource adminResource = new AdminResource(customerService, reservationService);
-        Scanner scanner = new Scanner(System.in);
+        BufferedConsolePrinter consolePrinter = BufferedConsolePrinter.ofStandardOutput();
+        // Prompts are flushed to the console before waiting for the answer
+        Scanner scanner = new Scanner(consolePrinter.flushingBefore(System.in));
         DateFormat simpleDateFormat = new SimpleDateFormat("MM/dd/yyyy");
-        ConsolePrinter consolePrinter = new ConsolePrinterImpl();
         AdminMenuService adminMenuService = new AdminMenuService(adminResource, scanner, consolePrinter);
         MenuManager adminMenuManager = new AdminMenuManager(scanner, adminMenuService, consolePrinter);
-        HotelResource hotelResource = new HotelResource(customerService,
-                reservationService);
-        Date now = new Date();
-        MainMenuService mainMenuService = new MainMenuService(now, hotelResource, scanner, simpleDateFormat,
+        String bookingPipelineCapacity = readOption(args, BOOKING_PIPELINE_OPTION);
+        BookingPipeline bookingPipeline = bookingPipelineCapacity == null ? null :
+                BookingPipeline.start(reservationService, Integer.parseInt(bookingPipelineCapacity));
+        HotelResource hotelResource = new HotelResource(customerService, reservationService, bookingPipeline);
+        LocalDate today = LocalDate.now();
+        MainMenuService mainMenuService = new MainMenuService(today, hotelResource, scanner, simpleDateFormat,
                 consolePrinter);
         MenuManager mainMenuManager = new MainMenuManager(adminMenuManager, mainMenuService, scanner,
                 consolePrinter);
 
         // Run the app
-        mainMenuManager.open();
+        String batchFile = readOption(args, BATCH_OPTION);
+        String httpPort = readOption(args, HTTP_PORT_OPTION);
+        HotelHttpServer httpServer = httpPort == null ? null : HotelHttpServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(httpPort)),
+                hotelResource, adminResource);
+        int failedCommands = 0;
+        try {
+            if (batchFile == null) {
+                mainMenuManager.open();
+            } else {
+                failedCommands = runBatch(batchFile, new BatchCommandRunner(hotelResource, adminResource,
+                        consolePrinter));
+            }
+        } finally {
+            if (httpServer != null) {
+                httpServer.close();
+            }
+            // Requests waiting in the pipeline are booked while the journal is still open
+            if (bookingPipeline != null) {
+                bookingPipeline.close();
+            }
+            consolePrinter.flush();
+            if (persistentState != null) {
+                persistentState.close();
+            }
+            if (reservationStore != null) {
+                reservationStore.close();
+            }
+        }
+        if (failedCommands > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int runBatch(String batchFile, BatchCommandRunner batchCommandRunner) throws IOException {
+        try (BufferedReader reader = batchFile.equals(STANDARD_INPUT) ?
+                new BufferedReader(new InputStreamReader(System.in)) :
+                Files.newBufferedReader(Path.of(batchFile))) {
+            return batchCommandRunner.run(reader);
+        }
+    }
+
+    private static PersistentState openPersistentState(String[] args, CustomerService customerService,
+                                                       ReservationService reservationService) throws IOException {
+        String dataDir = readOption(args, DATA_DIR_OPTION);
+        if (dataDir == null) {
+            return null;
+        }
+        String syncMillis = readOption(args, SYNC_MILLIS_OPTION);
+        Duration syncInterval = Duration.ofMillis(syncMillis == null ? DEFAULT_SYNC_MILLIS :
+                Long.parseLong(syncMillis));
+        String snapshotMinutes = readOption(args, SNAPSHOT_MINUTES_OPTION);
+        Duration snapshotInterval = Duration.ofMinutes(snapshotMinutes == null ? DEFAULT_SNAPSHOT_MINUTES :
+                Long.parseLong(snapshotMinutes));
+
+        return PersistentState.open(Path.of(dataDir), syncInterval, snapshotInterval, customerService,
+                reservationService);
+    }
+
+    private static String readOption(String[] args, String option) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(option)) {
+                return args[i + 1];
+            }
+        }
+        return null;
     }
 }
@@ -1,12 +1,24 @@
 package com.udacity.hotel.api;
 
+import com.udacity.hotel.metrics.MetricsRegistry;
+import com.udacity.hotel.metrics.Timer;
+import com.udacity.hotel.metrics.TimerSnapshot;
 import com.udacity.hotel.model.Customer;
 import com.udacity.hotel.model.IRoom;
 import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.model.Room;
+import com.udacity.hotel.model.RoomType;
 import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.OccupancyAnalytics;
+import com.udacity.hotel.service.OccupancyReport;
+import com.udacity.hotel.service.Page;
 import com.udacity.hotel.service.ReservationService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * API which serves as intermediary between the admin UI and the services.
@@ -15,8 +27,16 @@ import java.util.*;
  */
 public final class AdminResource {
 
+    private static final String ROOM_CSV_HEADER = "number,price,type";
+    private static final String CUSTOMER_CSV_HEADER = "email,firstName,lastName";
+
     private final CustomerService customerService;
     private final ReservationService reservationService;
+    private final OccupancyAnalytics occupancyAnalytics;
+    private final Timer addRoomTimer;
+    private final Timer importRoomsTimer;
+    private final Timer importCustomersTimer;
+    private final Timer occupancyReportTimer;
 
     /**
      * Constructor of this class.
@@ -29,6 +49,12 @@ public final class AdminResource {
                           ReservationService reservationService) {
         this.customerService = customerService;
         this.reservationService = reservationService;
+        this.occupancyAnalytics = new OccupancyAnalytics(reservationService);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.addRoomTimer = metrics.timer("admin_resource_add_room");
+        this.importRoomsTimer = metrics.timer("admin_resource_import_rooms");
+        this.importCustomersTimer = metrics.timer("admin_resource_import_customers");
+        this.occupancyReportTimer = metrics.timer("admin_resource_occupancy_report");
     }
 
     /**
@@ -42,26 +68,194 @@ public final class AdminResource {
     }
 
     /**
-     * Calls a service to record a collection of new rooms.
+     * Calls a service to record a collection of new rooms. Either all rooms are recorded or none of them.
      *
-     * @param rooms list of new rooms to record
+     * @param rooms                     list of new rooms to record
+     * @throws IllegalArgumentException if a room with the same number already exists or is supplied twice
      */
     public void addRoom(List<IRoom> rooms) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            reservationService.addRooms(rooms);
+            failed = false;
+        } finally {
+            addRoomTimer.record(start, failed);
+        }
+    }
+
+    /**
+     * Reads rooms from CSV lines {@code <number>,<price>,<SINGLE|DOUBLE>} and calls a service to record all of them.
+     * Empty lines, lines starting with {@code #} and a header line {@code number,price,type} are skipped. All lines
+     * are read and checked before any room is recorded, so either all rooms are recorded or none of them.
+     *
+     * @param csv                       bufferedReader to read CSV lines from
+     * @return                          int, number of rooms recorded
+     * @throws IOException              if the lines can't be read
+     * @throws IllegalArgumentException if a line is of wrong format or a room number is already recorded
+     */
+    public int importRooms(BufferedReader csv) throws IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int imported = readAndRecordRooms(csv);
+            failed = false;
+            return imported;
+        } finally {
+            importRoomsTimer.record(start, failed);
+        }
+    }
 
-        for (IRoom newRoom: rooms) {
-            reservationService.addRoom(newRoom);
+    private int readAndRecordRooms(BufferedReader csv) throws IOException {
+        List<IRoom> rooms = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = csv.readLine()) != null) {
+            lineNumber++;
+            String row = line.strip();
+            if (row.isEmpty() || row.startsWith("#") || lineNumber == 1 && row.equalsIgnoreCase(ROOM_CSV_HEADER)) {
+                continue;
+            }
+            String[] fields = row.split(",", -1);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Line " + lineNumber + " should have 3 fields");
+            }
+            try {
+                rooms.add(new Room(fields[0].strip(), Double.parseDouble(fields[1].strip()),
+                        RoomType.valueOf(fields[2].strip().toUpperCase(Locale.ROOT))));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + ex.getMessage(), ex);
+            }
         }
+        reservationService.addRooms(rooms);
+        return rooms.size();
     }
 
     /**
-     * Calls a service to get all recorded rooms.
+     * Reads customers from CSV lines {@code <email>,<firstName>,<lastName>} and calls a service to record them
+     * together. Empty lines, lines starting with {@code #} and a header line {@code email,firstName,lastName} are
+     * skipped. A row which is of wrong format or has an email already registered is reported in the result and
+     * the other rows are still imported.
+     *
+     * @param csv           bufferedReader to read CSV lines from
+     * @return              customerImportResult with the number of customers recorded and the rows not imported
+     * @throws IOException  if the lines can't be read
+     */
+    public CustomerImportResult importCustomers(BufferedReader csv) throws IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            CustomerImportResult result = readAndRecordCustomers(csv);
+            failed = false;
+            return result;
+        } finally {
+            importCustomersTimer.record(start, failed);
+        }
+    }
+
+    private CustomerImportResult readAndRecordCustomers(BufferedReader csv) throws IOException {
+        List<Customer> customers = new ArrayList<>();
+        List<Integer> customerLines = new ArrayList<>();
+        List<CustomerImportResult.RowFailure> failures = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = csv.readLine()) != null) {
+            lineNumber++;
+            String row = line.strip();
+            if (row.isEmpty() || row.startsWith("#") || lineNumber == 1 &&
+                    row.equalsIgnoreCase(CUSTOMER_CSV_HEADER)) {
+                continue;
+            }
+            String[] fields = row.split(",", -1);
+            if (fields.length != 3) {
+                failures.add(new CustomerImportResult.RowFailure(lineNumber, "Row should have 3 fields"));
+                continue;
+            }
+            try {
+                customers.add(new Customer(fields[1].strip(), fields[2].strip(), fields[0].strip()));
+                customerLines.add(lineNumber);
+            } catch (IllegalArgumentException ex) {
+                failures.add(new CustomerImportResult.RowFailure(lineNumber, ex.getMessage()));
+            }
+        }
+
+        int[] skipped = customerService.addCustomers(customers);
+        for (int position: skipped) {
+            failures.add(new CustomerImportResult.RowFailure(customerLines.get(position),
+                    "Customer with this email is already registered."));
+        }
+        failures.sort(Comparator.comparingInt(CustomerImportResult.RowFailure::line));
+        return new CustomerImportResult(customers.size() - skipped.length, failures);
+    }
+
+    /**
+     * Calls a service to compute the occupancy of the rooms for the nights from the first day of the period till the
+     * day before its end.
+     *
+     * @param from                      localDate of the first night of the period
+     * @param to                        localDate of the day after the last night of the period
+     * @param priceBandWidth            double, difference between the lowest and highest price of a price band
+     * @return                          occupancyReport of the period
+     * @throws IllegalArgumentException if the period holds no night or the width of price bands is not positive
+     */
+    public OccupancyReport getOccupancyReport(LocalDate from, LocalDate to, double priceBandWidth) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            OccupancyReport report = occupancyAnalytics.report(from, to, priceBandWidth);
+            failed = false;
+            return report;
+        } finally {
+            occupancyReportTimer.record(start, failed);
+        }
+    }
+
+    /**
+     * Returns the counters and latencies of the timed operations of the app.
+     *
+     * @return  list of timer snapshots, sorted by name
+     */
+    public List<TimerSnapshot> getMetrics() {
+        return MetricsRegistry.getInstance().snapshot();
+    }
+
+    /**
+     * Returns the counters and latencies of the timed operations of the app as text.
+     *
+     * @return  string in the Prometheus text exposition format, see {@link MetricsRegistry#dump()}
+     */
+    public String getMetricsDump() {
+        return MetricsRegistry.getInstance().dump();
+    }
+
+    /**
+     * Calls a service to get all recorded rooms. The returned collection is a read-only view which doesn't copy the
+     * rooms.
      *
      * @return collection of all recorded rooms
      */
     public Collection<IRoom> getAllRooms() {
+        return Collections.unmodifiableCollection(reservationService.getRooms().values());
+    }
+
+    /**
+     * Calls a service to get a page of the recorded rooms.
+     *
+     * @param cursor    int, {@link Page#FIRST} or the next cursor of the previous page
+     * @param limit     int, maximum number of rooms in the page
+     * @return          page of rooms in the order they were recorded
+     */
+    public Page<IRoom> getAllRooms(int cursor, int limit) {
+        return reservationService.getRooms(cursor, limit);
+    }
 
-        Map<String, IRoom> allRooms = reservationService.getRooms();
-        return new ArrayList<>(allRooms.values());
+    /**
+     * Calls a service to get a lazy stream of the rooms recorded so far.
+     *
+     * @return  stream of rooms in the order they were recorded
+     */
+    public Stream<IRoom> streamAllRooms() {
+        return reservationService.streamRooms();
     }
 
     /**
@@ -73,6 +267,26 @@ public final class AdminResource {
         return customerService.getAllCustomers();
     }
 
+    /**
+     * Calls a service to get a page of the customers.
+     *
+     * @param cursor    int, {@link Page#FIRST} or the next cursor of the previous page
+     * @param limit     int, maximum number of customers in the page
+     * @return          page of customers in the order they were registered
+     */
+    public Page<Customer> getAllCustomers(int cursor, int limit) {
+        return customerService.getCustomers(cursor, limit);
+    }
+
+    /**
+     * Calls a service to get a lazy stream of the customers registered so far.
+     *
+     * @return  stream of customers in the order they were registered
+     */
+    public Stream<Customer> streamAllCustomers() {
+        return customerService.streamCustomers();
+    }
+
     /**
      * Calls a service to get all recorded reservations
      *
@@ -81,4 +295,24 @@ public final class AdminResource {
     public Set<Reservation> getAllReservations() {
         return reservationService.getAllReservations();
     }
+
+    /**
+     * Calls a service to get a page of the recorded reservations.
+     *
+     * @param cursor    int, {@link Page#FIRST} or the next cursor of the previous page
+     * @param limit     int, maximum number of reservations in the page
+     * @return          page of reservations in the order they were recorded
+     */
+    public Page<Reservation> getAllReservations(int cursor, int limit) {
+        return reservationService.getReservations(cursor, limit);
+    }
+
+    /**
+     * Calls a service to get a lazy stream of the reservations recorded so far.
+     *
+     * @return  stream of reservations in the order they were recorded
+     */
+    public Stream<Reservation> streamAllReservations() {
+        return reservationService.streamReservations();
+    }
 }
@@ -0,0 +1,22 @@
+package com.udacity.hotel.api;
+
+import java.util.List;
+
+/**
+ * Outcome of importing customers with {@link AdminResource#importCustomers}.
+ *
+ * @param imported  int, number of customers recorded
+ * @param failures  list of the rows which were not imported, in the order they were read
+ * @author Ivan V. Zykov
+ */
+public record CustomerImportResult(int imported, List<RowFailure> failures) {
+
+    /**
+     * A row which was not imported.
+     *
+     * @param line      int, number of the line of the row, starting with 1
+     * @param message   string, why the row was not imported
+     */
+    public record RowFailure(int line, String message) {
+    }
+}
@@ -1,13 +1,19 @@
 package com.udacity.hotel.api;
 
+import com.udacity.hotel.metrics.MetricsRegistry;
+import com.udacity.hotel.metrics.Timer;
 import com.udacity.hotel.model.Customer;
 import com.udacity.hotel.model.IRoom;
 import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.model.RoomType;
+import com.udacity.hotel.service.Availability;
+import com.udacity.hotel.service.BookingPipeline;
 import com.udacity.hotel.service.CustomerService;
 import com.udacity.hotel.service.ReservationService;
 
+import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API which serves as intermediary between the customer UI and the services.
@@ -17,6 +23,13 @@ public final class HotelResource {
 
     private final CustomerService customerService;
     private final ReservationService reservationService;
+    private final BookingPipeline bookingPipeline;
+    private final Timer createACustomerTimer;
+    private final Timer bookARoomTimer;
+    private final Timer bookARoomAsyncTimer;
+    private final Timer getCustomersReservationsTimer;
+    private final Timer findARoomTimer;
+    private final Timer findAvailabilityTimer;
 
     /**
      * Constructor of this class.
@@ -27,8 +40,30 @@ public final class HotelResource {
      */
     public HotelResource(CustomerService customerService,
                           ReservationService reservationService) {
+        this(customerService, reservationService, null);
+    }
+
+    /**
+     * Constructor of this class which books rooms asynchronously through a pipeline.
+     *
+     * @param customerService       customerService object that handles {@link Customer}s
+     * @param reservationService    reservationService object that handles {@link IRoom}s and
+     *                              {@link Reservation}s
+     * @param bookingPipeline       bookingPipeline object that books rooms for {@link #bookARoomAsync}, or null to
+     *                              book them on the calling thread
+     */
+    public HotelResource(CustomerService customerService, ReservationService reservationService,
+                         BookingPipeline bookingPipeline) {
         this.customerService = customerService;
         this.reservationService = reservationService;
+        this.bookingPipeline = bookingPipeline;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.createACustomerTimer = metrics.timer("hotel_resource_create_a_customer");
+        this.bookARoomTimer = metrics.timer("hotel_resource_book_a_room");
+        this.bookARoomAsyncTimer = metrics.timer("hotel_resource_book_a_room_async");
+        this.getCustomersReservationsTimer = metrics.timer("hotel_resource_get_customers_reservations");
+        this.findARoomTimer = metrics.timer("hotel_resource_find_a_room");
+        this.findAvailabilityTimer = metrics.timer("hotel_resource_find_availability");
     }
 
     /**
@@ -49,7 +84,14 @@ public final class HotelResource {
      * @param lasName   string with customer's last name
      */
     public void createACustomer(String email, String firstName, String lasName) {
-        customerService.addCustomer(email, firstName, lasName);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            customerService.addCustomer(email, firstName, lasName);
+            failed = false;
+        } finally {
+            createACustomerTimer.record(start, failed);
+        }
     }
 
     /**
@@ -68,16 +110,51 @@ public final class HotelResource {
      *
      * @param customerEmail string with the email of the customer booking a room
      * @param room          iRoom object of the room to book
-     * @param checkInDate   date object of check-in
-     * @param checkOutDate  date object of check-out
+     * @param checkInDate   localDate of check-in
+     * @param checkOutDate  localDate of check-out
      * @return              reservation object as the result of booking
      */
-    public Reservation bookARoom(String customerEmail, IRoom room, Date checkInDate,
-                                 Date checkOutDate) {
+    public Reservation bookARoom(String customerEmail, IRoom room, LocalDate checkInDate,
+                                 LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Customer customer = getCustomer(customerEmail);
+            Reservation reservation = reservationService.reserveARoom(customer, room, checkInDate,
+                    checkOutDate);
+            failed = false;
+            return reservation;
+        } finally {
+            bookARoomTimer.record(start, failed);
+        }
+    }
 
-        Customer customer = getCustomer(customerEmail);
-        return reservationService.reserveARoom(customer, room, checkInDate,
-                checkOutDate);
+    /**
+     * Calls a service to get a {@link Customer} with the supplied email and submits a request to reserve a room for
+     * the acquired customer to the booking pipeline. Without a pipeline the room is reserved on the calling thread.
+     * The time until the future is completed, including the wait in the pipeline, is recorded.
+     *
+     * @param customerEmail string with the email of the customer booking a room
+     * @param room          iRoom object of the room to book
+     * @param checkInDate   localDate of check-in
+     * @param checkOutDate  localDate of check-out
+     * @return              future of the reservation, failed with the exception of the booking
+     */
+    public CompletableFuture<Reservation> bookARoomAsync(String customerEmail, IRoom room, LocalDate checkInDate,
+                                                         LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        CompletableFuture<Reservation> reservation;
+        if (bookingPipeline == null) {
+            try {
+                reservation = CompletableFuture.completedFuture(reservationService.reserveARoom(
+                        getCustomer(customerEmail), room, checkInDate, checkOutDate));
+            } catch (RuntimeException ex) {
+                reservation = CompletableFuture.failedFuture(ex);
+            }
+        } else {
+            reservation = bookingPipeline.submit(getCustomer(customerEmail), room, checkInDate, checkOutDate);
+        }
+        return reservation.whenComplete((result, ex) -> bookARoomAsyncTimer.record(start, ex != null));
     }
 
     /**
@@ -87,19 +164,79 @@ public final class HotelResource {
      * @return              collection of reservations recorded for the customer with supplied email
      */
     public Collection<Reservation> getCustomersReservations(String customerEmail) {
-
-        Customer customer = getCustomer(customerEmail);
-        return reservationService.getCustomersReservation(customer);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Customer customer = getCustomer(customerEmail);
+            Collection<Reservation> reservations = reservationService.getCustomersReservation(customer);
+            failed = false;
+            return reservations;
+        } finally {
+            getCustomersReservationsTimer.record(start, failed);
+        }
     }
 
     /**
      * Calls a service to find rooms available for booking for the supplied dates.
      *
-     * @param checkIn   date object of check-in
-     * @param checkOut  date object of check-out
+     * @param checkIn   localDate of check-in
+     * @param checkOut  localDate of check-out
      * @return          collection of rooms available for booking
      */
-    public Collection<IRoom> findARoom(Date checkIn, Date checkOut) {
-        return reservationService.findRooms(checkIn, checkOut);
+    public Collection<IRoom> findARoom(LocalDate checkIn, LocalDate checkOut) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Collection<IRoom> rooms = reservationService.findRooms(checkIn, checkOut);
+            failed = false;
+            return rooms;
+        } finally {
+            findARoomTimer.record(start, failed);
+        }
+    }
+
+    /**
+     * Calls a service to find rooms of the supplied type and up to the supplied price available for booking for the
+     * supplied dates.
+     *
+     * @param checkIn   localDate of check-in
+     * @param checkOut  localDate of check-out
+     * @param roomType  roomType of the rooms or null for rooms of any type
+     * @param maxPrice  double, maximum price of the rooms or null for rooms of any price
+     * @return          collection of matching rooms available for booking, cheapest first
+     */
+    public Collection<IRoom> findARoom(LocalDate checkIn, LocalDate checkOut, RoomType roomType, Double maxPrice) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Collection<IRoom> rooms = reservationService.findRooms(checkIn, checkOut, roomType, maxPrice);
+            failed = false;
+            return rooms;
+        } finally {
+            findARoomTimer.record(start, failed);
+        }
+    }
+
+    /**
+     * Calls a service to find rooms available for booking for the supplied dates and for alternative dates, each
+     * shifted by the supplied number of days from the previous ones.
+     *
+     * @param checkIn       localDate of check-in
+     * @param checkOut      localDate of check-out
+     * @param alternatives  int, number of alternative windows after the supplied dates
+     * @param shiftDays     int, days between check-ins of consecutive windows
+     * @return              availability of rooms in the supplied dates and the alternative windows
+     */
+    public Availability findAvailability(LocalDate checkIn, LocalDate checkOut, int alternatives, int shiftDays) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Availability availability = reservationService.findAvailability(checkIn, checkOut, alternatives,
+                    shiftDays);
+            failed = false;
+            return availability;
+        } finally {
+            findAvailabilityTimer.record(start, failed);
+        }
     }
 }
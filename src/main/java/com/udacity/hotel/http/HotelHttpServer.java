@@ -0,0 +1,349 @@
+package com.udacity.hotel.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.udacity.hotel.api.AdminResource;
+import com.udacity.hotel.api.HotelResource;
+import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.Page;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP server exposing {@link HotelResource} and {@link AdminResource} as a JSON API. Requests are served
+ * on a new virtual thread each when the JVM supports them, otherwise on a cached pool of platform threads.
+ * <p>Dates are written as {@code yyyy-MM-dd}. Request bodies are flat JSON objects. Endpoints:</p>
+ * <ul>
+ *     <li>{@code GET /rooms?checkIn=&checkOut=[&type=][&maxPrice=]} free rooms for the stay</li>
+ *     <li>{@code POST /customers} with {@code email}, {@code firstName} and {@code lastName} records a customer</li>
+ *     <li>{@code GET /customers/<email>} a customer</li>
+ *     <li>{@code GET /customers/<email>/reservations} reservations of a customer</li>
+ *     <li>{@code POST /reservations} with {@code email}, {@code room}, {@code checkIn} and {@code checkOut} books a
+ *     room</li>
+ *     <li>{@code GET /admin/customers}, {@code /admin/rooms} and {@code /admin/reservations} with optional
+ *     {@code cursor} and {@code limit} a page of all recorded objects, see {@link Page}</li>
+ *     <li>{@code POST /admin/rooms} with {@code number}, {@code price} and {@code type} records a room</li>
+ *     <li>{@code GET /admin/metrics} counters and latencies of the timed operations as Prometheus text</li>
+ * </ul>
+ * <p>Invalid requests are answered with status 400 and an object with an {@code error} message. Unknown paths are
+ * answered with status 404, and known ones requested with a method they don't support with status 405. Unexpected
+ * failures are logged and answered with status 500.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class HotelHttpServer implements Closeable {
+
+    static final int DEFAULT_PAGE_LIMIT = 100;
+    static final int MAX_PAGE_LIMIT = 10_000;
+
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final Set<String> ADMIN_RESOURCES = Set.of("customers", "rooms", "reservations", "metrics");
+    private static final Logger LOGGER = Logger.getLogger(HotelHttpServer.class.getName());
+
+    private final HotelResource hotelResource;
+    private final AdminResource adminResource;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private HotelHttpServer(HotelResource hotelResource, AdminResource adminResource, HttpServer server,
+                            ExecutorService executor) {
+        this.hotelResource = hotelResource;
+        this.adminResource = adminResource;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server listening on the supplied address.
+     *
+     * @param address       inetSocketAddress to listen on, port 0 picks a free port
+     * @param hotelResource hotelResource object of the API to services with functionality for customers
+     * @param adminResource adminResource object of the API to services with functionality for admin users
+     * @return              hotelHttpServer started
+     * @throws IOException  if the server can't listen on the address
+     */
+    public static HotelHttpServer start(InetSocketAddress address, HotelResource hotelResource,
+                                        AdminResource adminResource) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = newRequestExecutor();
+        var hotelHttpServer = new HotelHttpServer(hotelResource, adminResource, server, executor);
+        hotelHttpServer.route("rooms", hotelHttpServer::rooms);
+        hotelHttpServer.route("customers", hotelHttpServer::customers);
+        hotelHttpServer.route("reservations", hotelHttpServer::reservations);
+        hotelHttpServer.route("admin", hotelHttpServer::admin);
+        server.setExecutor(executor);
+        server.start();
+        return hotelHttpServer;
+    }
+
+    /**
+     * Returns an executor starting a virtual thread per task, or a cached thread pool if the JVM has no virtual
+     * threads. The factory method is looked up reflectively, so the app still compiles and runs on Java 17.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Returns the address the server listens on.
+     *
+     * @return  inetSocketAddress of this server
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops the server, waiting a moment for requests being served.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        Response route(HttpExchange exchange, List<String> path) throws IOException;
+    }
+
+    private record Response(int status, String contentType, String body) {
+
+        static final String JSON = "application/json; charset=utf-8";
+        static final String TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+        static Response ok(String json) {
+            return new Response(200, JSON, json);
+        }
+
+        static Response created(String json) {
+            return new Response(201, JSON, json);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, JSON, "{\"error\":" + Json.quote(message) + "}");
+        }
+    }
+
+    private void route(String root, Route route) {
+        server.createContext("/" + root, exchange -> serve(exchange, root, route));
+    }
+
+    private void serve(HttpExchange exchange, String root, Route route) throws IOException {
+        Response response;
+        try {
+            List<String> path = new ArrayList<>();
+            for (String segment: exchange.getRequestURI().getRawPath().split("/")) {
+                if (! segment.isEmpty()) {
+                    path.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+                }
+            }
+            // Contexts match by prefix, so /roomsX would be routed to /rooms
+            response = path.isEmpty() || ! path.get(0).equals(root) ? notFound() : route.route(exchange, path);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            response = Response.error(400, ex.getMessage());
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.SEVERE, "Failed to serve " + exchange.getRequestMethod() + " " +
+                    exchange.getRequestURI(), ex);
+            response = Response.error(500, "Internal error");
+        }
+
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", response.contentType());
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private Response rooms(HttpExchange exchange, List<String> path) {
+        if (path.size() != 1) {
+            return notFound();
+        }
+        if (! isGet(exchange)) {
+            return methodNotAllowed();
+        }
+        Map<String, String> query = query(exchange);
+        LocalDate checkIn = LocalDate.parse(required(query, "checkIn"));
+        LocalDate checkOut = LocalDate.parse(required(query, "checkOut"));
+        RoomType roomType = query.containsKey("type") ?
+                RoomType.valueOf(query.get("type").toUpperCase(Locale.ROOT)) : null;
+        Double maxPrice = query.containsKey("maxPrice") ? Double.valueOf(query.get("maxPrice")) : null;
+        Collection<IRoom> rooms = roomType == null && maxPrice == null ?
+                hotelResource.findARoom(checkIn, checkOut) :
+                hotelResource.findARoom(checkIn, checkOut, roomType, maxPrice);
+        return Response.ok(Json.array(rooms, HotelHttpServer::toJson));
+    }
+
+    private Response customers(HttpExchange exchange, List<String> path) throws IOException {
+        if (path.size() == 1) {
+            if (! isPost(exchange)) {
+                return methodNotAllowed();
+            }
+            Map<String, String> body = body(exchange);
+            String email = required(body, "email");
+            hotelResource.createACustomer(email, required(body, "firstName"), required(body, "lastName"));
+            return Response.created(toJson(hotelResource.getCustomer(email)));
+        }
+        boolean isCustomer = path.size() == 2;
+        boolean isReservations = path.size() == 3 && path.get(2).equals("reservations");
+        Customer customer = isCustomer || isReservations ? hotelResource.getCustomer(path.get(1)) : null;
+        if (customer == null) {
+            return notFound();
+        }
+        if (! isGet(exchange)) {
+            return methodNotAllowed();
+        }
+        if (isCustomer) {
+            return Response.ok(toJson(customer));
+        }
+        return Response.ok(Json.array(hotelResource.getCustomersReservations(path.get(1)),
+                HotelHttpServer::toJson));
+    }
+
+    private Response reservations(HttpExchange exchange, List<String> path) throws IOException {
+        if (path.size() != 1) {
+            return notFound();
+        }
+        if (! isPost(exchange)) {
+            return methodNotAllowed();
+        }
+        Map<String, String> body = body(exchange);
+        String email = required(body, "email");
+        if (hotelResource.getCustomer(email) == null) {
+            throw new IllegalArgumentException("No customer with email " + email);
+        }
+        IRoom room = hotelResource.getRoom(required(body, "room"));
+        CompletableFuture<Reservation> reservation = hotelResource.bookARoomAsync(email, room,
+                LocalDate.parse(required(body, "checkIn")), LocalDate.parse(required(body, "checkOut")));
+        try {
+            return Response.created(toJson(reservation.join()));
+        } catch (CompletionException ex) {
+            // Booking errors are reported as if the room was booked on this thread
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private Response admin(HttpExchange exchange, List<String> path) throws IOException {
+        if (path.size() != 2 || ! ADMIN_RESOURCES.contains(path.get(1))) {
+            return notFound();
+        }
+        if (path.get(1).equals("rooms") && isPost(exchange)) {
+            Map<String, String> body = body(exchange);
+            IRoom room = new Room(required(body, "number"), Double.valueOf(required(body, "price")),
+                    RoomType.valueOf(required(body, "type").toUpperCase(Locale.ROOT)));
+            adminResource.addRoom(List.of(room));
+            return Response.created(toJson(room));
+        }
+        if (! isGet(exchange)) {
+            return methodNotAllowed();
+        }
+        if (path.get(1).equals("metrics")) {
+            return new Response(200, Response.TEXT, adminResource.getMetricsDump());
+        }
+        Map<String, String> query = query(exchange);
+        int cursor = query.containsKey("cursor") ? Integer.parseInt(query.get("cursor")) : Page.FIRST;
+        int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : DEFAULT_PAGE_LIMIT;
+        if (limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Page should hold at most " + MAX_PAGE_LIMIT + " elements");
+        }
+        return switch (path.get(1)) {
+            case "customers" -> Response.ok(toJson(adminResource.getAllCustomers(cursor, limit),
+                    HotelHttpServer::toJson));
+            case "rooms" -> Response.ok(toJson(adminResource.getAllRooms(cursor, limit), HotelHttpServer::toJson));
+            case "reservations" -> Response.ok(toJson(adminResource.getAllReservations(cursor, limit),
+                    HotelHttpServer::toJson));
+            default -> notFound();
+        };
+    }
+
+    private static boolean isGet(HttpExchange exchange) {
+        return exchange.getRequestMethod().equals("GET");
+    }
+
+    private static boolean isPost(HttpExchange exchange) {
+        return exchange.getRequestMethod().equals("POST");
+    }
+
+    private static Response notFound() {
+        return Response.error(404, "Not found");
+    }
+
+    private static Response methodNotAllowed() {
+        return Response.error(405, "Method not allowed");
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter: query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static Map<String, String> body(HttpExchange exchange) throws IOException {
+        return Json.parseObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static String toJson(IRoom room) {
+        return "{\"number\":" + Json.quote(room.getRoomNumber()) + ",\"price\":" + room.getRoomPrice() +
+                ",\"type\":" + Json.quote(room.getRoomType().name()) + ",\"free\":" + room.isFree() + "}";
+    }
+
+    private static String toJson(Customer customer) {
+        return "{\"email\":" + Json.quote(customer.getEmail()) + ",\"firstName\":" +
+                Json.quote(customer.getFirstName()) + ",\"lastName\":" + Json.quote(customer.getLastName()) + "}";
+    }
+
+    private static String toJson(Reservation reservation) {
+        Customer customer = reservation.getCustomer();
+        return "{\"email\":" + Json.quote(customer == null ? null : customer.getEmail()) + ",\"room\":" +
+                Json.quote(reservation.getRoom().getRoomNumber()) + ",\"checkIn\":\"" +
+                reservation.getCheckInDate() + "\",\"checkOut\":\"" + reservation.getCheckOutDate() + "\"}";
+    }
+
+    private static <T> String toJson(Page<T> page, Function<? super T, String> toJson) {
+        return "{\"items\":" + Json.array(page.items(), toJson) + ",\"nextCursor\":" + page.nextCursor() +
+                ",\"hasNext\":" + page.hasNext() + "}";
+    }
+}
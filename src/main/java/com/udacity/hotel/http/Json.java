@@ -0,0 +1,194 @@
+package com.udacity.hotel.http;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Minimal JSON support for the HTTP API: writing strings and arrays, and reading flat objects whose values are
+ * strings, numbers, booleans or null.
+ *
+ * @author Ivan V. Zykov
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Returns the supplied text as a JSON string, with quotes and escapes.
+     *
+     * @param text  string to quote, or null
+     * @return      string of JSON
+     */
+    static String quote(String text) {
+        if (text == null) {
+            return "null";
+        }
+        StringBuilder result = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                case '\r' -> result.append("\\r");
+                case '\t' -> result.append("\\t");
+                default -> {
+                    if (c < ' ') {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+                }
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * Returns a JSON array of the supplied elements.
+     *
+     * @param elements  iterable over elements to write
+     * @param toJson    function returning the JSON of an element
+     * @param <T>       type of the elements
+     * @return          string of JSON
+     */
+    static <T> String array(Iterable<T> elements, Function<? super T, String> toJson) {
+        StringBuilder result = new StringBuilder("[");
+        for (T element: elements) {
+            if (result.length() > 1) {
+                result.append(',');
+            }
+            result.append(toJson.apply(element));
+        }
+        return result.append(']').toString();
+    }
+
+    /**
+     * Reads a JSON object whose values are not objects or arrays. Strings are unescaped, other values are kept as
+     * written, and fields with null values are left out.
+     *
+     * @param json                      string with a JSON object
+     * @return                          map of field names to values
+     * @throws IllegalArgumentException if the string is not such an object
+     */
+    static Map<String, String> parseObject(String json) {
+        return new Parser(json).object();
+    }
+
+    private static final class Parser {
+
+        private final String json;
+        private int position;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Map<String, String> object() {
+            Map<String, String> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+            } else {
+                do {
+                    String name = string();
+                    expect(':');
+                    String value = value();
+                    if (value != null) {
+                        fields.put(name, value);
+                    }
+                } while (next() == ',');
+                position--;
+                expect('}');
+            }
+            if (peek() != 0) {
+                throw malformed();
+            }
+            return fields;
+        }
+
+        private String value() {
+            char first = peek();
+            if (first == '"') {
+                return string();
+            }
+            if (first == '{' || first == '[') {
+                throw new IllegalArgumentException("Nested JSON values are not supported");
+            }
+            int start = position;
+            while (position < json.length() && "{}[],:\" \t\r\n".indexOf(json.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = json.substring(start, position);
+            if (literal.isEmpty()) {
+                throw malformed();
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder result = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return result.toString();
+                }
+                if (c != '\\') {
+                    result.append(c);
+                    continue;
+                }
+                if (position >= json.length()) {
+                    break;
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b' -> result.append('\b');
+                    case 'f' -> result.append('\f');
+                    case 'n' -> result.append('\n');
+                    case 'r' -> result.append('\r');
+                    case 't' -> result.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > json.length()) {
+                            throw malformed();
+                        }
+                        try {
+                            result.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw malformed();
+                        }
+                        position += 4;
+                    }
+                    default -> result.append(escaped);
+                }
+            }
+            throw malformed();
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw malformed();
+            }
+            position++;
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private char peek() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+            return position < json.length() ? json.charAt(position) : 0;
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed JSON at position " + position);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.udacity.hotel.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A singleton registry of the {@link Timer}s of the app, one per timed operation. Timers are meant to be looked up
+ * once, when the timed object is created, and kept in a field.
+ *
+ * @author Ivan V. Zykov
+ */
+public final class MetricsRegistry {
+
+    private static volatile MetricsRegistry instance;
+
+    private final Map<String, Timer> timers;
+
+    MetricsRegistry() {
+        this.timers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the instance of this singleton registry.
+     *
+     * @return  metricsRegistry of the app
+     */
+    public static MetricsRegistry getInstance() {
+        MetricsRegistry result = instance;
+        if (result == null) {
+            synchronized (MetricsRegistry.class) {
+                result = instance;
+                if (result == null) {
+                    result = new MetricsRegistry();
+                    instance = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the timer of the operation with the supplied name, creating it on first use.
+     *
+     * @param name  string, name of the operation made of lowercase letters, digits and underscores
+     * @return      timer of the operation
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Returns the counters of all timers, sorted by name.
+     *
+     * @return  list of timer snapshots
+     */
+    public List<TimerSnapshot> snapshot() {
+        List<TimerSnapshot> snapshots = new ArrayList<>(timers.size());
+        for (Timer timer: timers.values()) {
+            snapshots.add(timer.snapshot());
+        }
+        snapshots.sort((first, second) -> first.name().compareTo(second.name()));
+        return snapshots;
+    }
+
+    /**
+     * Returns the counters of all timers in the Prometheus text exposition format: a counter of calls and of
+     * failures, and a summary of latencies in seconds for every timer.
+     *
+     * @return  string, one sample per line
+     */
+    public String dump() {
+        StringBuilder result = new StringBuilder();
+        for (TimerSnapshot timer: snapshot()) {
+            String name = "hotel_" + timer.name();
+            result.append("# TYPE ").append(name).append("_calls_total counter\n")
+                    .append(name).append("_calls_total ").append(timer.calls()).append('\n')
+                    .append("# TYPE ").append(name).append("_failures_total counter\n")
+                    .append(name).append("_failures_total ").append(timer.failures()).append('\n')
+                    .append("# TYPE ").append(name).append("_seconds summary\n");
+            appendQuantile(result, name, "0.5", timer.p50Nanos());
+            appendQuantile(result, name, "0.9", timer.p90Nanos());
+            appendQuantile(result, name, "0.99", timer.p99Nanos());
+            result.append(name).append("_seconds_sum ").append(seconds(timer.totalNanos())).append('\n')
+                    .append(name).append("_seconds_count ").append(timer.calls()).append('\n')
+                    .append(name).append("_seconds_max ").append(seconds(timer.maxNanos())).append('\n');
+        }
+        return result.toString();
+    }
+
+    private static void appendQuantile(StringBuilder result, String name, String quantile, long nanos) {
+        result.append(name).append("_seconds{quantile=\"").append(quantile).append("\"} ").append(seconds(nanos))
+                .append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9D;
+    }
+}
@@ -0,0 +1,66 @@
+package com.udacity.hotel.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts calls of an operation, the calls which failed, and their latencies. Recording doesn't allocate and doesn't
+ * lock, so it's cheap enough for the hot paths:
+ * <pre>{@code
+ * long start = System.nanoTime();
+ * boolean failed = true;
+ * try {
+ *     ...
+ *     failed = false;
+ * } finally {
+ *     timer.record(start, failed);
+ * }
+ * }</pre>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class Timer {
+
+    private final String name;
+    private final LongAdder calls;
+    private final LongAdder failures;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+    private final LatencyHistogram histogram;
+
+    Timer(String name) {
+        this.name = name;
+        this.calls = new LongAdder();
+        this.failures = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Math::max, 0);
+        this.histogram = new LatencyHistogram();
+    }
+
+    /**
+     * Records a call which started at the supplied time and ends now.
+     *
+     * @param startNanos    long, value of {@link System#nanoTime()} when the call started
+     * @param failed        boolean, whether the call failed
+     */
+    public void record(long startNanos, boolean failed) {
+        long nanos = System.nanoTime() - startNanos;
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram.record(nanos);
+    }
+
+    /**
+     * Returns the counters of this timer. Calls recorded concurrently may be partially included.
+     *
+     * @return  timerSnapshot with the counters so far
+     */
+    public TimerSnapshot snapshot() {
+        return new TimerSnapshot(name, calls.sum(), failures.sum(), totalNanos.sum(), maxNanos.get(),
+                histogram.quantile(0.5D), histogram.quantile(0.9D), histogram.quantile(0.99D));
+    }
+}
@@ -0,0 +1,28 @@
+package com.udacity.hotel.metrics;
+
+/**
+ * Counters of a {@link Timer} at some moment. Latencies are in nanoseconds, quantiles are upper bounds of the
+ * histogram buckets they fall in.
+ *
+ * @param name          string, name of the timed operation
+ * @param calls         long, number of calls
+ * @param failures      long, number of calls which failed
+ * @param totalNanos    long, sum of the latencies of all calls
+ * @param maxNanos      long, highest latency
+ * @param p50Nanos      long, median latency
+ * @param p90Nanos      long, latency not exceeded by 90% of calls
+ * @param p99Nanos      long, latency not exceeded by 99% of calls
+ * @author Ivan V. Zykov
+ */
+public record TimerSnapshot(String name, long calls, long failures, long totalNanos, long maxNanos, long p50Nanos,
+                            long p90Nanos, long p99Nanos) {
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return  long, mean latency in nanoseconds or 0 if there were no calls
+     */
+    public long meanNanos() {
+        return calls == 0 ? 0 : totalNanos / calls;
+    }
+}
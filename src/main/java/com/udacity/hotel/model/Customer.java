@@ -10,9 +10,17 @@ import java.util.regex.Pattern;
  */
 public class Customer {
 
+    /**
+     * Id of a customer who was not registered by a service.
+     */
+    public static final int NO_ID = -1;
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^(.+)@(.+)[.](.+)$");
+
     private final String firstName;
     private final String email;
     private final String lastName;
+    private volatile int id = NO_ID;
 
     /**
      * Constructor of this class.
@@ -45,6 +53,24 @@ public class Customer {
         return email;
     }
 
+    /**
+     * Returns the dense id assigned to this customer when they were registered, or {@link #NO_ID} if they were not.
+     *
+     * @return  int, id of this customer
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Records the dense id assigned to this customer by the service which registered them.
+     *
+     * @param id    int, id of this customer
+     */
+    public void assignId(int id) {
+        this.id = id;
+    }
+
     /**
      * Returns basic data of this customer and formats its string representation.
      *
@@ -70,9 +96,7 @@ public class Customer {
         return email.hashCode();
     }
 
-    private boolean isValidEmail(String email) {
-        final String emailRegex = "^(.+)@(.+)[.](.+)$";
-        Pattern emailPattern = Pattern.compile(emailRegex);
-        return emailPattern.matcher(email).matches();
+    private static boolean isValidEmail(String email) {
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 }
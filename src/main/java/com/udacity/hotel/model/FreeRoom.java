@@ -17,6 +17,11 @@ public class FreeRoom extends Room {
         super(roomNumber, 0.0, roomType);
     }
 
+    @Override
+    public boolean isFree() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "Free of charge. " + super.toString();
@@ -6,5 +6,31 @@ package com.udacity.hotel.model;
  * @author Ivan V. Zykov
  */
 public interface IRoom {
+
+    /**
+     * Id of a room which was not recorded by a service.
+     */
+    int NO_ID = -1;
+
     String getRoomNumber();
+
+    Double getRoomPrice();
+
+    RoomType getRoomType();
+
+    boolean isFree();
+
+    /**
+     * Returns the dense id assigned to this room when it was recorded, or {@link #NO_ID} if it was not.
+     *
+     * @return  int, id of this room
+     */
+    int getId();
+
+    /**
+     * Records the dense id assigned to this room by the service which recorded it.
+     *
+     * @param id    int, id of this room
+     */
+    void assignId(int id);
 }
@@ -1,9 +1,11 @@
 package com.udacity.hotel.model;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * A reservation of a room for specific dates for a customer.
+ * <p>Dates are kept as the number of days since 1970-01-01, as bookings are made for whole nights. A reservation is
+ * immutable.</p>
  *
  * @author Ivan V. Zykov
  */
@@ -11,23 +13,22 @@ public class Reservation {
 
     private final Customer customer;
     private final IRoom room;
-    private final Date checkInDate;
-    private final Date checkOutDate;
+    private final int checkInDay;
+    private final int checkOutDay;
 
     /**
      * Constructor for this class.
      *
      * @param customer      customer who makes this reservation
      * @param room          iRoom which is reserved
-     * @param checkInDate   date of check in
-     * @param checkOutDate  date of check out
+     * @param checkInDay    int, epoch day of check in
+     * @param checkOutDay   int, epoch day of check out
      */
-    Reservation(Customer customer, IRoom room, Date checkInDate,
-                       Date checkOutDate) {
+    Reservation(Customer customer, IRoom room, int checkInDay, int checkOutDay) {
         this.customer = customer;
         this.room = room;
-        this.checkInDate = checkInDate;
-        this.checkOutDate = checkOutDate;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
     }
 
     public Customer getCustomer() {
@@ -38,12 +39,20 @@ public class Reservation {
         return room;
     }
 
-    public Date getCheckInDate() {
-        return checkInDate;
+    public LocalDate getCheckInDate() {
+        return LocalDate.ofEpochDay(checkInDay);
     }
 
-    public Date getCheckOutDate() {
-        return checkOutDate;
+    public LocalDate getCheckOutDate() {
+        return LocalDate.ofEpochDay(checkOutDay);
+    }
+
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    public int getCheckOutDay() {
+        return checkOutDay;
     }
 
     /**
@@ -56,7 +65,7 @@ public class Reservation {
         return "Reservation for " + System.lineSeparator() +
                 customer + System.lineSeparator() +
                 room + System.lineSeparator() +
-                "Dates: " + checkInDate + " - " + checkOutDate + ".";
+                "Dates: " + getCheckInDate() + " - " + getCheckOutDate() + ".";
     }
 
     @Override
@@ -70,14 +79,8 @@ public class Reservation {
         // Compare rooms
         boolean roomsEquals = (room == null && other.getRoom() == null) ||
                 (room != null && room.equals(other.getRoom()));
-        // Compare check-in
-        boolean checkInEquals = (checkInDate == null && other.getCheckInDate() == null)
-                || (checkInDate != null && checkInDate.equals(other.getCheckInDate()));
-        // Compare check-out
-        boolean checkOutEquals = (checkOutDate == null && other.getCheckOutDate() == null)
-                || (checkOutDate != null && checkOutDate.equals(other.getCheckOutDate()));
 
-        return roomsEquals && checkInEquals && checkOutEquals;
+        return roomsEquals && checkInDay == other.checkInDay && checkOutDay == other.checkOutDay;
     }
 
     @Override
@@ -86,12 +89,8 @@ public class Reservation {
         if (room != null) {
             result = 31 * result + room.hashCode();
         }
-        if (checkInDate != null) {
-            result = 31 * result + checkInDate.hashCode();
-        }
-        if (checkOutDate != null) {
-            result = 31 * result + checkOutDate.hashCode();
-        }
+        result = 31 * result + checkInDay;
+        result = 31 * result + checkOutDay;
         return result;
     }
 }
@@ -1,6 +1,6 @@
 package com.udacity.hotel.model;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * Instantiates {@link Reservation} class.
@@ -8,7 +8,12 @@ import java.util.Date;
  * @author Ivan V. Zykov
  */
 public final class ReservationFactory {
-    public Reservation create(Customer customer, IRoom room, Date checkIn, Date checkOut) {
-        return new Reservation(customer, room, checkIn, checkOut);
+    public Reservation create(Customer customer, IRoom room, LocalDate checkIn, LocalDate checkOut) {
+        return new Reservation(customer, room, Math.toIntExact(checkIn.toEpochDay()),
+                Math.toIntExact(checkOut.toEpochDay()));
+    }
+
+    public Reservation create(Customer customer, IRoom room, int checkInDay, int checkOutDay) {
+        return new Reservation(customer, room, checkInDay, checkOutDay);
     }
 }
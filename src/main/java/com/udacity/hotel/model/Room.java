@@ -10,6 +10,7 @@ public class Room implements IRoom {
     private final String roomNumber;
     private final Double roomPrice;
     private final RoomType roomType;
+    private volatile int id = NO_ID;
 
     /**
      * Constructor for this class.
@@ -29,6 +30,31 @@ public class Room implements IRoom {
         return roomNumber;
     }
 
+    @Override
+    public Double getRoomPrice() {
+        return roomPrice;
+    }
+
+    @Override
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    @Override
+    public boolean isFree() {
+        return false;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public void assignId(int id) {
+        this.id = id;
+    }
+
     /**
      * Includes basic data about the room and formats its string representation.
      *
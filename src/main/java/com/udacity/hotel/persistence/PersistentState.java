@@ -0,0 +1,118 @@
+package com.udacity.hotel.persistence;
+
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.Journal;
+import com.udacity.hotel.service.ReservationService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the contents of the services in a data directory as a {@link StateSnapshot} and a {@link WriteAheadLog}
+ * of the changes made since it was taken.
+ * <p>On opening, the snapshot is restored and the log is replayed on top of it. Afterwards every change is appended
+ * to the log, and a new snapshot is taken in the background periodically. Before a snapshot is taken, the log is
+ * rolled over to a new segment, and the older segments are deleted once the snapshot is written. Bookings go on while
+ * the snapshot is written, and restart time depends on the size of the snapshot rather than on the whole history.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class PersistentState implements Closeable {
+
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private final Path directory;
+    private final WriteAheadLog writeAheadLog;
+    private final CustomerService customerService;
+    private final ReservationService reservationService;
+    private final ScheduledExecutorService snapshotter;
+
+    private PersistentState(Path directory, WriteAheadLog writeAheadLog, CustomerService customerService,
+                            ReservationService reservationService) {
+        this.directory = directory;
+        this.writeAheadLog = writeAheadLog;
+        this.customerService = customerService;
+        this.reservationService = reservationService;
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "state-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Restores the state kept in the supplied directory into the supplied services and starts recording their
+     * changes there.
+     *
+     * @param directory             path to the data directory, created if it doesn't exist
+     * @param syncInterval          duration between forcing the log to the disk
+     * @param snapshotInterval      duration between taking snapshots
+     * @param customerService       customerService to restore and record customers
+     * @param reservationService    reservationService to restore and record rooms and reservations
+     * @return                      persistentState which records all changes from now on
+     * @throws IOException          if the data directory can't be read
+     */
+    public static PersistentState open(Path directory, Duration syncInterval, Duration snapshotInterval,
+                                       CustomerService customerService, ReservationService reservationService)
+            throws IOException {
+        Files.createDirectories(directory);
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            StateSnapshot.restore(snapshotFile, customerService, reservationService);
+        }
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, syncInterval);
+        writeAheadLog.replay(customerService, reservationService);
+        customerService.setJournal(writeAheadLog);
+        reservationService.setJournal(writeAheadLog);
+
+        var persistentState = new PersistentState(directory, writeAheadLog, customerService, reservationService);
+        long intervalMillis = Math.max(snapshotInterval.toMillis(), 1);
+        persistentState.snapshotter.scheduleWithFixedDelay(persistentState::takeSnapshotQuietly, intervalMillis,
+                intervalMillis, TimeUnit.MILLISECONDS);
+        return persistentState;
+    }
+
+    /**
+     * Writes a new snapshot of the services and deletes the log segments it covers.
+     *
+     * @throws IOException  if the snapshot can't be written or the log can't be rolled over
+     */
+    public synchronized void takeSnapshot() throws IOException {
+        // The log is cut only between changes, so those in the older segments are all applied by now
+        long firstUncoveredSegment = writeAheadLog.rollOver();
+        StateSnapshot.write(directory.resolve(SNAPSHOT_FILE), customerService, reservationService);
+        writeAheadLog.deleteSegmentsBefore(firstUncoveredSegment);
+    }
+
+    private void takeSnapshotQuietly() {
+        try {
+            takeSnapshot();
+        } catch (IOException ex) {
+            // The log still holds all changes, the snapshot will be retried next time
+        }
+    }
+
+    /**
+     * Stops taking snapshots, detaches the log from the services and closes it.
+     *
+     * @throws IOException  if the last changes can't be written to the log
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        customerService.setJournal(Journal.NONE);
+        reservationService.setJournal(Journal.NONE);
+        writeAheadLog.close();
+    }
+}
@@ -0,0 +1,228 @@
+package com.udacity.hotel.persistence;
+
+import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.ReservationService;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact columnar binary file with the full contents of {@link CustomerService} and {@link ReservationService}.
+ * <p>The file holds a table of rooms, a table of customers and a table of reservations. Each table is written column
+ * by column, and reservations refer to rooms and customers by their row in the tables, so a reservation takes only
+ * four ints. The file ends with a CRC32 checksum of its contents.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+final class StateSnapshot {
+
+    private static final int MAGIC = 0x484F544C;
+    private static final int VERSION = 2;
+    private static final int NO_CUSTOMER = -1;
+
+    private StateSnapshot() {
+    }
+
+    /**
+     * Writes the current contents of the supplied services to the supplied file. The services may be changed
+     * concurrently, in that case the snapshot includes at least all changes made before this call. The file is
+     * replaced atomically once it's completely written.
+     *
+     * @param file                  path to the snapshot file
+     * @param customerService       customerService to take customers from
+     * @param reservationService    reservationService to take rooms and reservations from
+     * @throws IOException          if the file can't be written or a reservation is for a customer not registered
+     */
+    static void write(Path file, CustomerService customerService, ReservationService reservationService)
+            throws IOException {
+        // Reservations are taken first, so that rooms and customers taken afterwards include all they refer to. Rows
+        // are in the order of recording, so rooms and customers are restored with the same ids.
+        List<Reservation> reservations = new ArrayList<>(reservationService.getAllReservations());
+        List<IRoom> rooms = reservationService.streamRooms().toList();
+        List<Customer> customers = customerService.streamCustomers().toList();
+        Map<String, Integer> roomRows = new HashMap<>();
+        for (IRoom room: rooms) {
+            roomRows.put(room.getRoomNumber(), roomRows.size());
+        }
+        Map<String, Integer> customerRows = new HashMap<>();
+        for (Customer customer: customers) {
+            customerRows.put(customer.getEmail(), customerRows.size());
+        }
+        int[] reservationRooms = new int[reservations.size()];
+        int[] reservationCustomers = new int[reservations.size()];
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            // Only recorded rooms can be reserved
+            reservationRooms[i] = roomRows.get(reservation.getRoom().getRoomNumber());
+            Customer customer = reservation.getCustomer();
+            if (customer == null) {
+                reservationCustomers[i] = NO_CUSTOMER;
+            } else {
+                Integer customerRow = customerRows.get(customer.getEmail());
+                if (customerRow == null) {
+                    throw new IOException("Reservation of room " + reservation.getRoom().getRoomNumber() +
+                            " is for customer " + customer.getEmail() + " who is not registered");
+                }
+                reservationCustomers[i] = customerRow;
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOutput = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOutput),
+                    new CRC32());
+            DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+
+            output.writeInt(rooms.size());
+            for (IRoom room: rooms) {
+                output.writeUTF(room.getRoomNumber());
+            }
+            for (IRoom room: rooms) {
+                output.writeDouble(room.getRoomPrice());
+            }
+            for (IRoom room: rooms) {
+                output.writeByte(room.getRoomType().ordinal());
+            }
+            for (IRoom room: rooms) {
+                output.writeBoolean(room.isFree());
+            }
+
+            output.writeInt(customers.size());
+            for (Customer customer: customers) {
+                output.writeUTF(customer.getEmail());
+            }
+            for (Customer customer: customers) {
+                output.writeUTF(customer.getFirstName());
+            }
+            for (Customer customer: customers) {
+                output.writeUTF(customer.getLastName());
+            }
+
+            output.writeInt(reservations.size());
+            for (int roomRow: reservationRooms) {
+                output.writeInt(roomRow);
+            }
+            for (int customerRow: reservationCustomers) {
+                output.writeInt(customerRow);
+            }
+            for (Reservation reservation: reservations) {
+                output.writeInt(reservation.getCheckInDay());
+            }
+            for (Reservation reservation: reservations) {
+                output.writeInt(reservation.getCheckOutDay());
+            }
+
+            output.flush();
+            long checksum = checked.getChecksum().getValue();
+            output.writeLong(checksum);
+            output.flush();
+            fileOutput.getFD().sync();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Records all rooms, customers and reservations from the supplied file in the supplied services, which are
+     * expected to be empty. Nothing is recorded if the file is damaged.
+     *
+     * @param file                  path to the snapshot file
+     * @param customerService       customerService to record customers in
+     * @param reservationService    reservationService to record rooms and reservations in
+     * @throws IOException          if the file can't be read or is damaged
+     */
+    static void restore(Path file, CustomerService customerService, ReservationService reservationService)
+            throws IOException {
+        try (InputStream fileInput = Files.newInputStream(file)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileInput), new CRC32());
+            DataInputStream input = new DataInputStream(checked);
+            if (input.readInt() != MAGIC) {
+                throw new IOException("File " + file + " is not a snapshot");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Snapshot " + file + " is of unknown version " + version);
+            }
+
+            int roomCount = input.readInt();
+            String[] roomNumbers = new String[roomCount];
+            double[] prices = new double[roomCount];
+            byte[] roomTypes = new byte[roomCount];
+            boolean[] isFree = new boolean[roomCount];
+            for (int i = 0; i < roomCount; i++) {
+                roomNumbers[i] = input.readUTF();
+            }
+            for (int i = 0; i < roomCount; i++) {
+                prices[i] = input.readDouble();
+            }
+            input.readFully(roomTypes);
+            for (int i = 0; i < roomCount; i++) {
+                isFree[i] = input.readBoolean();
+            }
+
+            int customerCount = input.readInt();
+            String[] emails = new String[customerCount];
+            String[] firstNames = new String[customerCount];
+            String[] lastNames = new String[customerCount];
+            for (int i = 0; i < customerCount; i++) {
+                emails[i] = input.readUTF();
+            }
+            for (int i = 0; i < customerCount; i++) {
+                firstNames[i] = input.readUTF();
+            }
+            for (int i = 0; i < customerCount; i++) {
+                lastNames[i] = input.readUTF();
+            }
+
+            int reservationCount = input.readInt();
+            int[] roomRows = new int[reservationCount];
+            int[] customerRows = new int[reservationCount];
+            LocalDate[] checkIns = new LocalDate[reservationCount];
+            LocalDate[] checkOuts = new LocalDate[reservationCount];
+            for (int i = 0; i < reservationCount; i++) {
+                roomRows[i] = input.readInt();
+            }
+            for (int i = 0; i < reservationCount; i++) {
+                customerRows[i] = input.readInt();
+            }
+            for (int i = 0; i < reservationCount; i++) {
+                checkIns[i] = LocalDate.ofEpochDay(input.readInt());
+            }
+            for (int i = 0; i < reservationCount; i++) {
+                checkOuts[i] = LocalDate.ofEpochDay(input.readInt());
+            }
+
+            long checksum = checked.getChecksum().getValue();
+            if (input.readLong() != checksum) {
+                throw new IOException("Snapshot " + file + " is damaged");
+            }
+
+            IRoom[] rooms = new IRoom[roomCount];
+            for (int i = 0; i < roomCount; i++) {
+                RoomType roomType = RoomType.values()[roomTypes[i]];
+                rooms[i] = isFree[i] ? new FreeRoom(roomNumbers[i], roomType) :
+                        new Room(roomNumbers[i], prices[i], roomType);
+            }
+            reservationService.addRooms(Arrays.asList(rooms));
+            List<Customer> customers = new ArrayList<>(customerCount);
+            for (int i = 0; i < customerCount; i++) {
+                customers.add(new Customer(firstNames[i], lastNames[i], emails[i]));
+            }
+            customerService.addCustomers(customers);
+            for (int i = 0; i < reservationCount; i++) {
+                Customer customer = customerRows[i] == NO_CUSTOMER ? null :
+                        customerService.getCustomer(emails[customerRows[i]]);
+                reservationService.reserveARoom(customer, rooms[roomRows[i]], checkIns[i], checkOuts[i]);
+            }
+        }
+    }
+}
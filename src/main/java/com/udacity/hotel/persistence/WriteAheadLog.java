@@ -0,0 +1,500 @@
+package com.udacity.hotel.persistence;
+
+import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.Journal;
+import com.udacity.hotel.service.ReservationService;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of all customers, rooms and reservations recorded by the services, so that they survive a restart.
+ * <p>Every change is encoded as a compact binary record: its length, a type byte, the fields and a CRC32 checksum.
+ * Records are collected in memory and written to the file together with a single fsync once per sync interval
+ * (group commit), so booking doesn't wait for the disk. Changes made within the last interval before a crash may be
+ * lost.</p>
+ * <p>The log is a sequence of numbered segment files in one directory. Records are appended to the last segment,
+ * and a new segment can be started with {@link #rollOver()}, so that older segments can be deleted once a
+ * {@link StateSnapshot} covers them.</p>
+ * <p>The lock of this log is held only while a record is encoded and appended. Changes are applied outside it, under
+ * the shared side of a read-write lock whose exclusive side is taken to roll the log over, so changes are applied in
+ * parallel and the log is still never cut between a record and its change.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class WriteAheadLog implements Journal, Closeable {
+
+    static final byte CUSTOMER_ADDED = 1;
+    static final byte ROOM_ADDED = 2;
+    static final byte ROOM_RESERVED = 4;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final Object fileLock;
+    private final ReadWriteLock cutLock;
+    private FileChannel channel;
+    private long segmentNumber;
+    private final ScheduledExecutorService syncer;
+    private final ByteArrayOutputStream record;
+    private final DataOutputStream recordData;
+    private final CRC32 checksum;
+    private ByteArrayOutputStream pending;
+    private volatile IOException syncFailure;
+
+    private WriteAheadLog(Path directory, long segmentNumber, Duration syncInterval) throws IOException {
+        this.directory = directory;
+        this.fileLock = new Object();
+        this.cutLock = new ReentrantReadWriteLock();
+        this.segmentNumber = segmentNumber;
+        this.channel = openSegment(segmentNumber);
+        this.record = new ByteArrayOutputStream();
+        this.recordData = new DataOutputStream(record);
+        this.checksum = new CRC32();
+        this.pending = new ByteArrayOutputStream();
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-ahead-log-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(syncInterval.toMillis(), 1);
+        syncer.scheduleWithFixedDelay(this::syncQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the log in the supplied directory. New records are appended to the last existing segment, or to a new
+     * one if there are no segments yet.
+     *
+     * @param directory     path to the directory with the log segments
+     * @param syncInterval  duration between writing collected records to the disk
+     * @return              writeAheadLog ready for replaying and appending
+     * @throws IOException  if the directory can't be read or the segment can't be opened
+     */
+    public static WriteAheadLog open(Path directory, Duration syncInterval) throws IOException {
+        List<Long> segmentNumbers = listSegments(directory);
+        long lastSegment = segmentNumbers.isEmpty() ? 1 : segmentNumbers.get(segmentNumbers.size() - 1);
+        return new WriteAheadLog(directory, lastSegment, syncInterval);
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segmentNumbers = new ArrayList<>();
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment: segments) {
+                String name = segment.getFileName().toString();
+                segmentNumbers.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        segmentNumbers.sort(null);
+        return segmentNumbers;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel segment = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.position(segment.size());
+        return segment;
+    }
+
+    /**
+     * Records every change from all segments of the log in the supplied services. Changes already recorded in the
+     * services are skipped, so replaying is safe on top of a restored snapshot. A torn record at the end of the last
+     * segment, left by a crash during writing, is cut off. Must be called before this log is set as the services'
+     * journal.
+     *
+     * @param customerService       customerService to record customers in
+     * @param reservationService    reservationService to record rooms and reservations in
+     * @throws IOException          if the log can't be read or a change from it can't be recorded
+     */
+    public void replay(CustomerService customerService, ReservationService reservationService)
+            throws IOException {
+        synchronized (fileLock) {
+            var replay = new Replay(customerService, reservationService);
+            for (long number: listSegments(directory)) {
+                if (number == segmentNumber) {
+                    long validLength = replaySegment(channel, replay);
+                    channel.truncate(validLength);
+                    channel.position(validLength);
+                } else {
+                    try (FileChannel segment = FileChannel.open(segmentPath(number), StandardOpenOption.READ)) {
+                        replaySegment(segment, replay);
+                    }
+                }
+            }
+            replay.addPendingRooms();
+        }
+    }
+
+    /**
+     * Applies all valid records of the supplied segment and returns the length of the valid part.
+     */
+    private long replaySegment(FileChannel segment, Replay replay) throws IOException {
+        long validLength = 0;
+        segment.position(0);
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(segment)));
+        CRC32 recordChecksum = new CRC32();
+        while (true) {
+            byte[] payload;
+            try {
+                int length = input.readInt();
+                if (length <= 0 || length > segment.size() - validLength) {
+                    break;
+                }
+                payload = new byte[length];
+                input.readFully(payload);
+                recordChecksum.reset();
+                recordChecksum.update(payload);
+                if (input.readInt() != (int) recordChecksum.getValue()) {
+                    break;
+                }
+            } catch (EOFException ex) {
+                break;
+            }
+            replay.apply(new DataInputStream(new ByteArrayInputStream(payload)));
+            validLength += Integer.BYTES + payload.length + Integer.BYTES;
+        }
+        return validLength;
+    }
+
+    /**
+     * Changes read from the log being recorded in the services. Consecutive rooms are recorded together, so
+     * replaying doesn't reindex the rooms for every one of them.
+     */
+    private static final class Replay {
+
+        private final CustomerService customerService;
+        private final ReservationService reservationService;
+        private final Map<String, IRoom> pendingRooms;
+        private Set<Stay> staysWithoutCustomer;
+
+        Replay(CustomerService customerService, ReservationService reservationService) {
+            this.customerService = customerService;
+            this.reservationService = reservationService;
+            this.pendingRooms = new LinkedHashMap<>();
+        }
+
+        void apply(DataInputStream payload) throws IOException {
+            // Changes already recorded, for example restored from a snapshot, are skipped
+            byte type = payload.readByte();
+            if (type != ROOM_ADDED) {
+                addPendingRooms();
+            }
+            switch (type) {
+                case CUSTOMER_ADDED -> {
+                    String email = payload.readUTF();
+                    String firstName = payload.readUTF();
+                    String lastName = payload.readUTF();
+                    if (customerService.getCustomer(email) == null) {
+                        customerService.addCustomer(email, firstName, lastName);
+                    }
+                }
+                case ROOM_ADDED -> {
+                    IRoom room = readRoom(payload);
+                    if (! reservationService.getRooms().containsKey(room.getRoomNumber())) {
+                        pendingRooms.putIfAbsent(room.getRoomNumber(), room);
+                    }
+                }
+                case ROOM_RESERVED -> {
+                    String email = payload.readUTF();
+                    String roomNumber = payload.readUTF();
+                    LocalDate checkIn = LocalDate.ofEpochDay(payload.readInt());
+                    LocalDate checkOut = LocalDate.ofEpochDay(payload.readInt());
+                    applyReservation(email, roomNumber, checkIn, checkOut);
+                }
+                default -> throw new IOException("Unknown record type " + type + " in the write-ahead log");
+            }
+        }
+
+        /**
+         * Records the rooms read since the last other change, all at once.
+         */
+        void addPendingRooms() {
+            if (! pendingRooms.isEmpty()) {
+                reservationService.addRooms(pendingRooms.values());
+                pendingRooms.clear();
+            }
+        }
+
+        /**
+         * Records a reservation read from the log unless it's already recorded.
+         *
+         * @throws IOException  if the reservation refers to a customer or room not recorded before it, or conflicts
+         *                      with another reservation
+         */
+        private void applyReservation(String email, String roomNumber, LocalDate checkIn, LocalDate checkOut)
+                throws IOException {
+            Customer customer = null;
+            if (! email.isEmpty()) {
+                customer = customerService.getCustomer(email);
+                if (customer == null) {
+                    throw new IOException("Reservation of room " + roomNumber + " in the write-ahead log is for " +
+                            "customer " + email + " who is not recorded");
+                }
+            }
+            IRoom room = reservationService.getRooms().get(roomNumber);
+            if (room == null) {
+                throw new IOException("Reservation in the write-ahead log is for room " + roomNumber +
+                        " which is not recorded");
+            }
+            var stay = new Stay(roomNumber, checkIn, checkOut);
+            if (customer == null ? staysWithoutCustomer().contains(stay) : isReserved(customer, stay)) {
+                return;
+            }
+            try {
+                reservationService.reserveARoom(customer, room, checkIn, checkOut);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Reservation of room " + roomNumber + " from " + checkIn + " till " +
+                        checkOut + " in the write-ahead log can't be replayed", ex);
+            }
+        }
+
+        /**
+         * Checks the reservations of the customer, found by the customer's index rather than among all reservations.
+         */
+        private boolean isReserved(Customer customer, Stay stay) {
+            for (Reservation reservation: reservationService.getCustomersReservation(customer)) {
+                if (stay.equals(Stay.of(reservation))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the stays reserved without a customer before replaying, collected once for the whole log. The log
+         * holds a stay only once, so those it adds need not be collected.
+         */
+        private Set<Stay> staysWithoutCustomer() {
+            if (staysWithoutCustomer == null) {
+                staysWithoutCustomer = new HashSet<>();
+                reservationService.streamReservations()
+                        .filter(reservation -> reservation.getCustomer() == null)
+                        .forEach(reservation -> staysWithoutCustomer.add(Stay.of(reservation)));
+            }
+            return staysWithoutCustomer;
+        }
+    }
+
+    /**
+     * Room and dates which identify a reservation in the log.
+     */
+    private record Stay(String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+
+        static Stay of(Reservation reservation) {
+            return new Stay(reservation.getRoom().getRoomNumber(), reservation.getCheckInDate(),
+                    reservation.getCheckOutDate());
+        }
+    }
+
+    private static IRoom readRoom(DataInput input) throws IOException {
+        String roomNumber = input.readUTF();
+        double price = input.readDouble();
+        RoomType roomType = RoomType.values()[input.readByte()];
+        boolean isFree = input.readBoolean();
+        return isFree ? new FreeRoom(roomNumber, roomType) : new Room(roomNumber, price, roomType);
+    }
+
+    @Override
+    public synchronized void customerAdded(Customer customer) {
+        try {
+            recordData.writeByte(CUSTOMER_ADDED);
+            recordData.writeUTF(customer.getEmail());
+            recordData.writeUTF(customer.getFirstName());
+            recordData.writeUTF(customer.getLastName());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        appendRecord();
+    }
+
+    @Override
+    public synchronized void roomAdded(IRoom room) {
+        try {
+            recordData.writeByte(ROOM_ADDED);
+            recordData.writeUTF(room.getRoomNumber());
+            recordData.writeDouble(room.getRoomPrice());
+            recordData.writeByte(room.getRoomType().ordinal());
+            recordData.writeBoolean(room.isFree());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        appendRecord();
+    }
+
+    @Override
+    public synchronized void roomReserved(Reservation reservation) {
+        try {
+            recordData.writeByte(ROOM_RESERVED);
+            Customer customer = reservation.getCustomer();
+            recordData.writeUTF(customer == null ? "" : customer.getEmail());
+            recordData.writeUTF(reservation.getRoom().getRoomNumber());
+            recordData.writeInt(reservation.getCheckInDay());
+            recordData.writeInt(reservation.getCheckOutDay());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        appendRecord();
+    }
+
+    /**
+     * Runs the supplied change so that the log is not rolled over between appending the records of the change and
+     * applying it. Changes don't wait for each other, only for a roll-over in progress.
+     *
+     * @param change                runnable appending records to this log and applying the change
+     * @throws UncheckedIOException if an earlier sync failed, before the change is run
+     */
+    @Override
+    public void record(Runnable change) {
+        cutLock.readLock().lock();
+        try {
+            if (syncFailure != null) {
+                throw new UncheckedIOException("Write-ahead log can't be written", syncFailure);
+            }
+            change.run();
+        } finally {
+            cutLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Frames the record collected so far with its length and checksum and adds it to the records waiting for the
+     * next sync.
+     */
+    private void appendRecord() {
+        checksum.reset();
+        checksum.update(record.toByteArray());
+        DataOutputStream pendingData = new DataOutputStream(pending);
+        try {
+            pendingData.writeInt(record.size());
+            record.writeTo(pendingData);
+            pendingData.writeInt((int) checksum.getValue());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            record.reset();
+        }
+    }
+
+    /**
+     * Writes all collected records to the last segment and forces them to the disk.
+     *
+     * @throws IOException  if writing fails
+     */
+    public void sync() throws IOException {
+        synchronized (fileLock) {
+            write(takePending());
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Writes all collected records to the last segment and starts a new segment for the following records. All
+     * changes recorded in the services before this call are in segments older than the returned one.
+     *
+     * @return              long, number of the new segment
+     * @throws IOException  if writing fails or the new segment can't be created
+     */
+    public long rollOver() throws IOException {
+        synchronized (fileLock) {
+            // Changes being recorded are applied before the cut, and the following ones wait for it
+            cutLock.writeLock().lock();
+            try {
+                write(takePending());
+                channel.force(false);
+                FileChannel next = openSegment(segmentNumber + 1);
+                channel.close();
+                channel = next;
+                segmentNumber++;
+                return segmentNumber;
+            } finally {
+                cutLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Deletes all segments older than the supplied one.
+     *
+     * @param number        long, number of the oldest segment to keep
+     * @throws IOException  if a segment can't be deleted
+     */
+    public void deleteSegmentsBefore(long number) throws IOException {
+        for (long older: listSegments(directory)) {
+            if (older < number) {
+                Files.deleteIfExists(segmentPath(older));
+            }
+        }
+    }
+
+    private synchronized ByteArrayOutputStream takePending() throws IOException {
+        if (syncFailure != null) {
+            throw syncFailure;
+        }
+        ByteArrayOutputStream toWrite = pending;
+        pending = new ByteArrayOutputStream(Math.max(toWrite.size(), 32));
+        return toWrite;
+    }
+
+    private void write(ByteArrayOutputStream records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException ex) {
+            synchronized (this) {
+                if (syncFailure == null) {
+                    syncFailure = ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops syncing in the background, writes all collected records and closes the file.
+     *
+     * @throws IOException  if the last records can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (fileLock) {
+            try {
+                sync();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.udacity.hotel.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Growing list of elements in the order they were appended. Elements are never removed, so a position once returned
+ * always addresses the same element. Appending is synchronized, reading is safe concurrently and sees a consistent
+ * prefix of the list.
+ *
+ * @param <T>   type of the elements
+ * @author Ivan V. Zykov
+ */
+final class AppendOnlyList<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile Object[] elements;
+    private volatile int size;
+
+    AppendOnlyList() {
+        this.elements = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends the supplied element at the end of this list.
+     *
+     * @param element   element to append
+     */
+    synchronized void append(T element) {
+        Object[] current = elements;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            elements = current;
+        }
+        current[size] = element;
+        size = size + 1;
+    }
+
+    /**
+     * Appends the supplied elements at the end of this list in their iteration order, growing the list only once.
+     *
+     * @param newElements   collection of elements to append
+     */
+    synchronized void appendAll(Collection<? extends T> newElements) {
+        Object[] current = elements;
+        int newSize = size + newElements.size();
+        if (newSize > current.length) {
+            current = Arrays.copyOf(current, Math.max(newSize, current.length * 2));
+        }
+        int position = size;
+        for (T element: newElements) {
+            current[position++] = element;
+        }
+        elements = current;
+        size = newSize;
+    }
+
+    /**
+     * Returns the element at the supplied position.
+     *
+     * @param position  int, position of the element, less than {@link #size()}
+     * @return          element at the position
+     */
+    @SuppressWarnings("unchecked")
+    T get(int position) {
+        return (T) elements[position];
+    }
+
+    /**
+     * Returns the number of elements appended so far.
+     *
+     * @return  int, number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a page of the elements appended so far.
+     *
+     * @param cursor    int, position of the first element of the page
+     * @param limit     int, maximum number of elements in the page
+     * @return          page of elements
+     */
+    Page<T> page(int cursor, int limit) {
+        return Page.slice(this::get, size, cursor, limit);
+    }
+
+    /**
+     * Returns a lazy stream of the elements appended before this call.
+     *
+     * @return  stream of elements in the order they were appended
+     */
+    Stream<T> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+}
@@ -0,0 +1,41 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.IRoom;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rooms free for each of several windows of a stay: the requested dates followed by alternatives shifted later,
+ * as found by {@link ReservationService#findAvailability}.
+ *
+ * @param windows   list of windows, the requested dates first and then in the order of their dates
+ * @author Ivan V. Zykov
+ */
+public record Availability(List<Window> windows) {
+
+    /**
+     * Returns the earliest window in which any room is free.
+     *
+     * @return  optional with the window, empty if no room is free in any window
+     */
+    public Optional<Window> firstAvailable() {
+        for (Window window: windows) {
+            if (! window.rooms().isEmpty()) {
+                return Optional.of(window);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Dates of a stay with the rooms free for all of its nights.
+     *
+     * @param checkIn   localDate of check-in
+     * @param checkOut  localDate of check-out
+     * @param rooms     list of rooms free for the stay, read-only
+     */
+    public record Window(LocalDate checkIn, LocalDate checkOut, List<IRoom> rooms) {
+    }
+}
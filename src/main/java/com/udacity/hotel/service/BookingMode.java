@@ -0,0 +1,23 @@
+package com.udacity.hotel.service;
+
+/**
+ * How {@link ReservationService#reserveARoom} keeps a room from being booked twice for the same night.
+ *
+ * @author Ivan V. Zykov
+ */
+public enum BookingMode {
+
+    /**
+     * A booking holds the lock of the room's stripe, so bookings of rooms in the same stripe wait for each other.
+     */
+    LOCKING,
+
+    /**
+     * A booking takes no stripe lock. It swaps in a new version of the room's calendar with a compare-and-set, and
+     * retries if another booking of the room got in first and the stay is still free, or fails at once if it's not.
+     * It then waits until the bookings of the room swapped in before it are recorded, so that the journal keeps
+     * their order. Recording still synchronizes on the reservation store, the index of customers' reservations and
+     * the journal, as in the other mode.
+     */
+    OPTIMISTIC
+}
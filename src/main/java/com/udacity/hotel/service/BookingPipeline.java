@@ -0,0 +1,197 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.Customer;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+
+import java.io.Closeable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Books rooms on a single sequencer thread, so that many threads booking at once don't contend on the
+ * {@link ReservationService}.
+ * <p>Requests are put into a bounded ring buffer, and a caller waits only if it's full. The sequencer takes all
+ * requests waiting, up to a batch at a time, and books them as one unit with {@link ReservationService#reserveAll}:
+ * a calendar swap per room, a single journal record and a single invalidation of cached searches, without stripe
+ * locks. The outcome of conflicting requests is decided by the order they were submitted in alone. Each caller gets
+ * a future completed by the sequencer with the reservation or with the exception of the booking. Dependent stages not
+ * run asynchronously run on the sequencer, so they should be short.</p>
+ * <p>If booking a batch throws, the pipeline fails the futures of the batch and of every request waiting, and closes,
+ * so that no caller waits for a booking that would never be made.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class BookingPipeline implements Closeable {
+
+    private static final int MAX_BATCH = 256;
+    private static final BookingRequest STOP = new BookingRequest(null, null, null, null, null);
+
+    private final ReservationService reservationService;
+    private final BlockingQueue<BookingRequest> requests;
+    private final ReadWriteLock closeLock;
+    private final Thread sequencer;
+    private boolean closed;
+    private volatile Throwable failure;
+
+    private BookingPipeline(ReservationService reservationService, int capacity) {
+        this.reservationService = reservationService;
+        this.requests = new ArrayBlockingQueue<>(capacity);
+        this.closeLock = new ReentrantReadWriteLock();
+        this.sequencer = new Thread(this::run, "booking-sequencer");
+        this.sequencer.setDaemon(true);
+    }
+
+    /**
+     * Creates a pipeline and starts its sequencer thread.
+     *
+     * @param reservationService        reservationService to book rooms with
+     * @param capacity                  int, number of requests which may wait for the sequencer
+     * @return                          bookingPipeline accepting requests
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public static BookingPipeline start(ReservationService reservationService, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of the booking pipeline should be positive");
+        }
+        BookingPipeline pipeline = new BookingPipeline(reservationService, capacity);
+        pipeline.sequencer.start();
+        return pipeline;
+    }
+
+    /**
+     * Submits a request to reserve the supplied room, waiting while the ring buffer is full.
+     *
+     * @param customer      customer for whom the reservation is made
+     * @param room          iRoom which is reserved
+     * @param checkInDate   localDate of check-in
+     * @param checkOutDate  localDate of check-out
+     * @return              future of the reservation, failed as {@link ReservationService#reserveARoom} would
+     *                      throw, or with an {@link IllegalStateException} if this pipeline is closed or failed
+     */
+    public CompletableFuture<Reservation> submit(Customer customer, IRoom room, LocalDate checkInDate,
+                                                 LocalDate checkOutDate) {
+        var result = new CompletableFuture<Reservation>();
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                Throwable cause = failure;
+                result.completeExceptionally(cause == null ? new IllegalStateException("Booking pipeline is closed") :
+                        new IllegalStateException("Booking pipeline failed", cause));
+            } else {
+                requests.put(new BookingRequest(customer, room, checkInDate, checkOutDate, result));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(ex);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Stops accepting requests, waits until the requests submitted before are booked and stops the sequencer. Returns
+     * at once if the pipeline already failed.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        // The requests submitted are booked before returning, even if this thread is interrupted
+        boolean interrupted = false;
+        boolean stopSubmitted = false;
+        while (! stopSubmitted && sequencer.isAlive()) {
+            try {
+                // A sequencer which failed meanwhile no longer takes requests
+                stopSubmitted = requests.offer(STOP, 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        while (sequencer.isAlive()) {
+            try {
+                sequencer.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<BookingRequest> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(requests.take());
+            } catch (InterruptedException ex) {
+                // Only close() stops the sequencer
+                continue;
+            }
+            requests.drainTo(batch, MAX_BATCH - 1);
+            int stop = batch.indexOf(STOP);
+            try {
+                reservationService.reserveAll(stop < 0 ? batch : batch.subList(0, stop));
+            } catch (Throwable ex) {
+                fail(batch, ex);
+                return;
+            }
+            if (stop >= 0) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Fails the requests of the batch which could not be booked and every request submitted until this pipeline is
+     * closed, then closes it.
+     */
+    private void fail(List<BookingRequest> batch, Throwable cause) {
+        failure = cause;
+        var exception = new IllegalStateException("Booking pipeline failed", cause);
+        // Callers waiting for space in the ring buffer hold the read lock, so it's drained till the write lock is taken
+        boolean locked = false;
+        while (! locked) {
+            failAll(batch, exception);
+            batch.clear();
+            requests.drainTo(batch);
+            try {
+                locked = closeLock.writeLock().tryLock(10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                // Only close() stops the sequencer
+            }
+        }
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        requests.drainTo(batch);
+        failAll(batch, exception);
+    }
+
+    private static void failAll(List<BookingRequest> batch, Throwable exception) {
+        for (BookingRequest request: batch) {
+            if (request != STOP) {
+                request.result().completeExceptionally(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.Customer;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Request to reserve a room, booked in a batch by {@link ReservationService#reserveAll(java.util.List)}.
+ *
+ * @param customer      customer for whom the reservation is made
+ * @param room          iRoom which is reserved
+ * @param checkInDate   localDate of check-in
+ * @param checkOutDate  localDate of check-out
+ * @param result        completableFuture completed with the reservation or with the exception of the booking
+ * @author Ivan V. Zykov
+ */
+record BookingRequest(Customer customer, IRoom room, LocalDate checkInDate, LocalDate checkOutDate,
+                      CompletableFuture<Reservation> result) {
+}
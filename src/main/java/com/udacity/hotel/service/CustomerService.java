@@ -1,22 +1,37 @@
 package com.udacity.hotel.service;
 
+import com.udacity.hotel.metrics.MetricsRegistry;
+import com.udacity.hotel.metrics.Timer;
 import com.udacity.hotel.model.Customer;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
- * A singleton service to keep track of {@link Customer}s, record new and retrieve existing ones.
+ * A singleton service to keep track of {@link Customer}s, record new and retrieve existing ones. The service is safe
+ * to use from multiple threads.
  *
  * @author Ivan V. Zykov
  */
 public final class CustomerService {
 
-    private static CustomerService instance;
+    private static volatile CustomerService instance;
 
     private final Map<String, Customer> customers;
+    private final AppendOnlyList<Customer> customersInOrder;
+    private final Object customersLock;
+    private final Timer addCustomerTimer;
+    private final Timer addCustomersTimer;
+    private volatile Journal journal;
 
     private CustomerService() {
-        this.customers = new HashMap<>();
+        this.customers = new ConcurrentHashMap<>();
+        this.customersInOrder = new AppendOnlyList<>();
+        this.customersLock = new Object();
+        this.journal = Journal.NONE;
+        this.addCustomerTimer = MetricsRegistry.getInstance().timer("customer_service_add_customer");
+        this.addCustomersTimer = MetricsRegistry.getInstance().timer("customer_service_add_customers");
     }
 
     /**
@@ -25,15 +40,32 @@ public final class CustomerService {
      * @return      customerService representing this service
      */
     public static CustomerService getInstance() {
-        if (instance == null) {
-            instance = new CustomerService();
+        CustomerService result = instance;
+        if (result == null) {
+            synchronized (CustomerService.class) {
+                result = instance;
+                if (result == null) {
+                    result = new CustomerService();
+                    instance = result;
+                }
+            }
         }
 
-        return instance;
+        return result;
     }
 
     /**
-     * Creates a new {@link Customer} and records it if no customer already recorded with the provided email.
+     * Sets the journal which receives every customer recorded from now on.
+     *
+     * @param journal   journal to report new customers to
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Creates a new {@link Customer} and records it if no customer already recorded with the provided email. The
+     * customer is assigned the next dense id, see {@link #getCustomer(int)}.
      *
      * @param email                     string, email of the customer
      * @param firstName                 string, first name of the customer
@@ -41,13 +73,82 @@ public final class CustomerService {
      * @throws IllegalArgumentException if a customer with the supplied email was already recorded
      */
     public void addCustomer(String email, String firstName, String lastName) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            recordCustomer(email, firstName, lastName);
+            failed = false;
+        } finally {
+            addCustomerTimer.record(start, failed);
+        }
+    }
+
+    private void recordCustomer(String email, String firstName, String lastName) {
         Customer newCustomer = new Customer(firstName, lastName, email);
-        if (customers.containsKey(email)) {
-            throw new IllegalArgumentException("Customer with this email is " +
-                    "already registered.");
-        } else {
-            customers.put(email, newCustomer);
+        synchronized (customersLock) {
+            if (customers.containsKey(email)) {
+                throw new IllegalArgumentException("Customer with this email is " +
+                        "already registered.");
+            }
+            // The customer is journaled before anyone can book for them
+            Journal currentJournal = journal;
+            currentJournal.record(() -> {
+                currentJournal.customerAdded(newCustomer);
+                newCustomer.assignId(customersInOrder.size());
+                customers.put(email, newCustomer);
+                customersInOrder.append(newCustomer);
+            });
+        }
+    }
+
+    /**
+     * Records every supplied customer whose email is not registered yet. The customers are put into the storage
+     * together, so the storage grows at most once for the whole batch. A customer whose email is already registered,
+     * or repeats the email of an earlier customer of the batch, is skipped without an exception. Customers recorded
+     * are assigned the next dense ids in the order of the list.
+     *
+     * @param newCustomers  list of customers to record
+     * @return              int array with positions in the supplied list of the customers skipped, ascending
+     */
+    public int[] addCustomers(List<Customer> newCustomers) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int[] skipped = recordCustomers(newCustomers);
+            failed = false;
+            return skipped;
+        } finally {
+            addCustomersTimer.record(start, failed);
+        }
+    }
+
+    private int[] recordCustomers(List<Customer> newCustomers) {
+        Map<String, Customer> batch = new HashMap<>((int) (newCustomers.size() / 0.75F) + 1);
+        List<Customer> added = new ArrayList<>(newCustomers.size());
+        int[] skipped = new int[newCustomers.size()];
+        int skippedCount = 0;
+        synchronized (customersLock) {
+            for (int i = 0; i < newCustomers.size(); i++) {
+                Customer customer = newCustomers.get(i);
+                if (customers.containsKey(customer.getEmail()) ||
+                        batch.putIfAbsent(customer.getEmail(), customer) != null) {
+                    skipped[skippedCount++] = i;
+                } else {
+                    added.add(customer);
+                }
+            }
+            Journal currentJournal = journal;
+            currentJournal.record(() -> {
+                int id = customersInOrder.size();
+                for (Customer customer: added) {
+                    currentJournal.customerAdded(customer);
+                    customer.assignId(id++);
+                }
+                customers.putAll(batch);
+                customersInOrder.appendAll(added);
+            });
         }
+        return Arrays.copyOf(skipped, skippedCount);
     }
 
     /**
@@ -57,11 +158,22 @@ public final class CustomerService {
      * @return              customer identified by provided email
      */
     public Customer getCustomer(String customerEmail) {
-        if (this.customers.containsKey(customerEmail)) {
-            return this.customers.get(customerEmail);
-        }
+        return this.customers.get(customerEmail);
+    }
 
-        return null;
+    /**
+     * Returns the customer registered with the supplied id. Ids are assigned densely in the order of registering,
+     * so the customer is read from an array without hashing the email.
+     *
+     * @param customerId                int, id of the customer
+     * @return                          customer with the supplied id
+     * @throws IllegalArgumentException if no customer is registered with the supplied id
+     */
+    public Customer getCustomer(int customerId) {
+        if (customerId < 0 || customerId >= customersInOrder.size()) {
+            throw new IllegalArgumentException("There is no customer with id " + customerId);
+        }
+        return customersInOrder.get(customerId);
     }
 
     /**
@@ -72,4 +184,25 @@ public final class CustomerService {
     public Collection<Customer> getAllCustomers() {
         return customers.values();
     }
+
+    /**
+     * Returns a page of the customers in the order they were registered.
+     *
+     * @param cursor                    int, {@link Page#FIRST} or the next cursor of the previous page
+     * @param limit                     int, maximum number of customers in the page
+     * @return                          page of customers
+     * @throws IllegalArgumentException if the cursor is negative or the limit is not positive
+     */
+    public Page<Customer> getCustomers(int cursor, int limit) {
+        return customersInOrder.page(cursor, limit);
+    }
+
+    /**
+     * Returns a lazy stream of the customers registered before this call, in the order they were registered.
+     *
+     * @return  stream of customers
+     */
+    public Stream<Customer> streamCustomers() {
+        return customersInOrder.stream();
+    }
 }
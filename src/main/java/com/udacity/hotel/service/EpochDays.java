@@ -0,0 +1,42 @@
+package com.udacity.hotel.service;
+
+import java.time.LocalDate;
+
+/**
+ * Converts dates to the number of days since 1970-01-01. Bookings are made for whole nights, so day numbers are
+ * enough to compare stays.
+ *
+ * @author Ivan V. Zykov
+ */
+final class EpochDays {
+
+    static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private EpochDays() {
+    }
+
+    /**
+     * Returns the day number of the supplied date. Dates are limited to years of four digits, so that day numbers
+     * can be added and subtracted without overflow.
+     *
+     * @param date                      localDate to convert
+     * @return                          int, number of days since the epoch
+     * @throws IllegalArgumentException if the date is before year 1 or after year 9999
+     */
+    static int of(LocalDate date) {
+        if (date.isBefore(MIN_DATE) || date.isAfter(MAX_DATE)) {
+            throw new IllegalArgumentException("Date " + date + " should be between " + MIN_DATE + " and " + MAX_DATE);
+        }
+        return (int) date.toEpochDay();
+    }
+
+    /**
+     * Returns the day number of today in the default time zone.
+     *
+     * @return  int, number of days since the epoch
+     */
+    static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+}
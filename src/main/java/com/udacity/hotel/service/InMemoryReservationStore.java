@@ -0,0 +1,73 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.Customer;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.model.ReservationFactory;
+
+import java.util.Arrays;
+
+/**
+ * Default {@link ReservationStore} which keeps reservations on the heap in arrays that grow as needed.
+ * <p>Reservations are not kept as objects. Every reservation takes one slot in each of three arrays: its room, its
+ * customer, and its check-in and check-out packed into a long. That's 16 bytes per reservation with compressed
+ * references instead of a reservation object and a reference to it, and there is no long-lived object per
+ * reservation for the garbage collector to trace. Reading a reservation creates a new short-lived object.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+final class InMemoryReservationStore implements ReservationStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReservationFactory reservationFactory;
+    private volatile Columns columns;
+    private volatile int size;
+
+    InMemoryReservationStore(ReservationFactory reservationFactory) {
+        this.reservationFactory = reservationFactory;
+        this.columns = new Columns(new IRoom[INITIAL_CAPACITY], new Customer[INITIAL_CAPACITY],
+                new long[INITIAL_CAPACITY]);
+    }
+
+    @Override
+    public synchronized int append(Reservation reservation, int customerIndex) {
+        int position = size;
+        Columns current = columns;
+        if (position == current.stays.length) {
+            current = current.grow();
+            columns = current;
+        }
+        current.rooms[position] = reservation.getRoom();
+        current.customers[position] = reservation.getCustomer();
+        current.stays[position] = (long) reservation.getCheckInDay() << Integer.SIZE |
+                Integer.toUnsignedLong(reservation.getCheckOutDay());
+        size = position + 1;
+        return position;
+    }
+
+    @Override
+    public Reservation get(int position) {
+        Columns current = columns;
+        long stay = current.stays[position];
+        return reservationFactory.create(current.customers[position], current.rooms[position],
+                (int) (stay >> Integer.SIZE), (int) stay);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Arrays with the fields of reservations, replaced together when they grow.
+     */
+    private record Columns(IRoom[] rooms, Customer[] customers, long[] stays) {
+
+        Columns grow() {
+            int capacity = stays.length * 2;
+            return new Columns(Arrays.copyOf(rooms, capacity), Arrays.copyOf(customers, capacity),
+                    Arrays.copyOf(stays, capacity));
+        }
+    }
+}
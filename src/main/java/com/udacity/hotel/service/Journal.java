@@ -0,0 +1,67 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.Customer;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+
+/**
+ * Receives every change recorded by the services, for example to persist it.
+ * <p>A change is reported before it's visible to other threads, so a change which depends on an earlier one, like a
+ * reservation of a room just added, is always reported after it. Reporting and applying a change both take place
+ * within {@link #record(Runnable)}.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public interface Journal {
+
+    /**
+     * Journal that ignores all changes, used when the app runs in memory only.
+     */
+    Journal NONE = new Journal() {
+        @Override
+        public void customerAdded(Customer customer) {
+        }
+
+        @Override
+        public void roomAdded(IRoom room) {
+        }
+
+        @Override
+        public void roomReserved(Reservation reservation) {
+        }
+    };
+
+    /**
+     * Runs the supplied action, which reports a change to this journal and then applies it. The journal is never cut,
+     * for example to take a snapshot, between reporting the change and applying it. A journal which can't take any
+     * more changes throws before running the action, so the change is not applied either. By default the action is
+     * just run.
+     *
+     * @param change    runnable reporting and applying a change
+     */
+    default void record(Runnable change) {
+        change.run();
+    }
+
+    /**
+     * Called before a new customer is recorded.
+     *
+     * @param customer  customer recorded
+     */
+    void customerAdded(Customer customer);
+
+    /**
+     * Called before a new room is recorded.
+     *
+     * @param room  iRoom recorded
+     */
+    void roomAdded(IRoom room);
+
+    /**
+     * Called before a new reservation is recorded. Reservations of the same room are reported in the order the room's
+     * calendar accepted them, in either {@link BookingMode}.
+     *
+     * @param reservation   reservation recorded
+     */
+    void roomReserved(Reservation reservation);
+}
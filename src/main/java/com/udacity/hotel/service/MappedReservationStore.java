@@ -0,0 +1,146 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.Customer;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.model.ReservationFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@link ReservationStore} which keeps reservations off the heap in a memory-mapped file.
+ * <p>Every reservation is a fixed-width record of four ints: room id, customer index, and epoch days of check-in
+ * and check-out. Rooms are written under the ids the service assigned to them and customers under the indexes it
+ * assigned to their reservations, so no lookup by room number or email is needed. A reservation takes 16 bytes in
+ * the file instead of an object graph on the heap, and reading a record takes its fields directly from the
+ * mapping.</p>
+ * <p>The file is working storage only. It's emptied when the store is created, and durability is left to the
+ * write-ahead log.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class MappedReservationStore implements ReservationStore, Closeable {
+
+    private static final int RECORD_BYTES = 4 * Integer.BYTES;
+    private static final int RECORDS_PER_REGION = 1 << 22;
+    private static final long REGION_BYTES = (long) RECORDS_PER_REGION * RECORD_BYTES;
+    private static final int NO_CUSTOMER = -1;
+
+    private final FileChannel channel;
+    private final ReservationFactory reservationFactory;
+    private final Dictionary<IRoom> rooms;
+    private final Dictionary<Customer> customers;
+    private volatile MappedByteBuffer[] regions;
+    private volatile int size;
+
+    private MappedReservationStore(FileChannel channel, ReservationFactory reservationFactory) {
+        this.channel = channel;
+        this.reservationFactory = reservationFactory;
+        this.rooms = new Dictionary<>();
+        this.customers = new Dictionary<>();
+        this.regions = new MappedByteBuffer[0];
+    }
+
+    /**
+     * Creates an empty store in the supplied file, replacing its contents.
+     *
+     * @param file                  path to the file to map
+     * @param reservationFactory    reservationFactory to materialize reservations with
+     * @return                      mappedReservationStore with no reservations
+     * @throws IOException          if the file can't be opened
+     */
+    public static MappedReservationStore create(Path file, ReservationFactory reservationFactory)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new MappedReservationStore(channel, reservationFactory);
+    }
+
+    @Override
+    public synchronized int append(Reservation reservation, int customerIndex) {
+        int position = size;
+        int regionIndex = position / RECORDS_PER_REGION;
+        MappedByteBuffer[] current = regions;
+        if (regionIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[regionIndex] = mapRegion(regionIndex);
+            regions = current;
+        }
+
+        IRoom room = reservation.getRoom();
+        rooms.put(room.getId(), room);
+        if (customerIndex >= 0) {
+            customers.put(customerIndex, reservation.getCustomer());
+        }
+        int offset = (position % RECORDS_PER_REGION) * RECORD_BYTES;
+        MappedByteBuffer region = current[regionIndex];
+        region.putInt(offset, room.getId());
+        region.putInt(offset + Integer.BYTES, customerIndex >= 0 ? customerIndex : NO_CUSTOMER);
+        region.putInt(offset + 2 * Integer.BYTES, reservation.getCheckInDay());
+        region.putInt(offset + 3 * Integer.BYTES, reservation.getCheckOutDay());
+        size = position + 1;
+        return position;
+    }
+
+    private MappedByteBuffer mapRegion(int regionIndex) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, regionIndex * REGION_BYTES, REGION_BYTES);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Reservation file can't be extended", ex);
+        }
+    }
+
+    @Override
+    public Reservation get(int position) {
+        MappedByteBuffer region = regions[position / RECORDS_PER_REGION];
+        int offset = (position % RECORDS_PER_REGION) * RECORD_BYTES;
+        int customerId = region.getInt(offset + Integer.BYTES);
+        return reservationFactory.create(
+                customerId == NO_CUSTOMER ? null : customers.get(customerId),
+                rooms.get(region.getInt(offset)),
+                region.getInt(offset + 2 * Integer.BYTES),
+                region.getInt(offset + 3 * Integer.BYTES));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Growing array of values indexed by dense ids. Adding must be synchronized by the caller, reading is safe
+     * concurrently.
+     */
+    private static final class Dictionary<T> {
+
+        private volatile Object[] values = new Object[16];
+
+        void put(int id, T value) {
+            Object[] current = values;
+            if (id < current.length && current[id] != null) {
+                return;
+            }
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+            }
+            current[id] = value;
+            values = current;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int id) {
+            return (T) values[id];
+        }
+    }
+}
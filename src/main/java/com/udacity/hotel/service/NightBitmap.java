@@ -0,0 +1,118 @@
+package com.udacity.hotel.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compact bitset of booked nights of a single room over a fixed horizon of about two years. Each bit
+ * stands for one night, so checking a stay of up to two months touches one or two 64-bit words.
+ *
+ * @author Ivan V. Zykov
+ */
+final class NightBitmap {
+
+    /**
+     * Number of nights covered by a bitmap, two years rounded up to whole words.
+     */
+    static final int HORIZON_DAYS = 12 * Long.SIZE;
+
+    private final int firstDay;
+    private final long[] words;
+
+    /**
+     * Constructor of this class creating a bitmap with no nights booked.
+     *
+     * @param firstDay  int, epoch day of the first night covered by this bitmap
+     */
+    NightBitmap(int firstDay) {
+        this(firstDay, new long[HORIZON_DAYS / Long.SIZE]);
+    }
+
+    private NightBitmap(int firstDay, long[] words) {
+        this.firstDay = firstDay;
+        this.words = words;
+    }
+
+    int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Checks if all nights from the supplied check-in till the supplied check-out are within the horizon.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          true if this bitmap can answer for the supplied stay
+     */
+    boolean covers(int checkIn, int checkOut) {
+        return checkIn >= firstDay && checkOut <= firstDay + HORIZON_DAYS;
+    }
+
+    /**
+     * Returns a copy of this bitmap with the nights of the supplied stay marked as booked. Nights outside the
+     * horizon are ignored.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          nightBitmap including the supplied stay
+     */
+    NightBitmap with(int checkIn, int checkOut) {
+        return changed(checkIn, checkOut, true);
+    }
+
+    /**
+     * Returns a copy of this bitmap with the nights of the supplied stay marked as free. Nights outside the horizon
+     * are ignored.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          nightBitmap without the supplied stay
+     */
+    NightBitmap without(int checkIn, int checkOut) {
+        return changed(checkIn, checkOut, false);
+    }
+
+    private NightBitmap changed(int checkIn, int checkOut, boolean booked) {
+        long[] newWords = Arrays.copyOf(words, words.length);
+        int from = Math.max(checkIn - firstDay, 0);
+        int to = Math.min(checkOut - firstDay, HORIZON_DAYS);
+        for (int word = from >>> 6; from < to; word++) {
+            int wordEnd = Math.min((word + 1) << 6, to);
+            if (booked) {
+                newWords[word] |= mask(from, wordEnd);
+            } else {
+                newWords[word] &= ~mask(from, wordEnd);
+            }
+            from = wordEnd;
+        }
+        return new NightBitmap(firstDay, newWords);
+    }
+
+    /**
+     * Checks if none of the nights of the supplied stay is booked. The stay must be covered by this bitmap.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          true if all nights of the stay are free
+     */
+    boolean isClear(int checkIn, int checkOut) {
+        int from = checkIn - firstDay;
+        int to = checkOut - firstDay;
+        for (int word = from >>> 6; from < to; word++) {
+            int wordEnd = Math.min((word + 1) << 6, to);
+            if ((words[word] & mask(from, wordEnd)) != 0) {
+                return false;
+            }
+            from = wordEnd;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a mask with bits set for nights from the supplied offset till the supplied offset within one word.
+     */
+    private static long mask(int from, int to) {
+        int length = to - from;
+        long bits = length == Long.SIZE ? -1L : (1L << length) - 1;
+        return bits << (from & 63);
+    }
+}
@@ -0,0 +1,174 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Computes {@link OccupancyReport}s from all reservations recorded by a {@link ReservationService}.
+ * <p>Reservations are tallied by a parallel stream. Each worker counts into its own primitive arrays indexed by the
+ * night within the period, and the arrays of the workers are summed at the end. A stay adds one at its first night
+ * and subtracts one after its last night, so it costs the same however long it is; running sums of these changes
+ * give the number of rooms booked per night. Price bands are kept in maps holding only the bands which have rooms, so
+ * a high price or a narrow width costs no more than any other.</p>
+ * <p>The rooms are counted first, and only reservations of the counted rooms are tallied, so rooms recorded while
+ * the report is computed are left out of it altogether.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class OccupancyAnalytics {
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final ReservationService reservationService;
+
+    /**
+     * Constructor of this class.
+     *
+     * @param reservationService    reservationService object that handles rooms and reservations
+     */
+    public OccupancyAnalytics(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Computes the occupancy of the rooms for the nights from the first day of the period till the day before its
+     * end. Price bands are of the supplied width and start at zero.
+     *
+     * @param from                      localDate of the first night of the period
+     * @param to                        localDate of the day after the last night of the period
+     * @param priceBandWidth            double, difference between the lowest and highest price of a price band
+     * @return                          occupancyReport of the period
+     * @throws IllegalArgumentException if the period holds no night or the width of price bands is not positive
+     *                                  and finite
+     */
+    public OccupancyReport report(LocalDate from, LocalDate to, double priceBandWidth) {
+        if (! from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of the period should be before its end");
+        }
+        if (! (priceBandWidth > 0) || ! Double.isFinite(priceBandWidth)) {
+            throw new IllegalArgumentException("Width of price bands should be positive and finite");
+        }
+        int firstDay = EpochDays.of(from);
+        int days = EpochDays.of(to) - firstDay;
+
+        // Rooms are streamed in the order of their ids, so a counted room is found in the stock by its id
+        IRoom[] stock = reservationService.streamRooms().toArray(IRoom[]::new);
+        int rooms = stock.length;
+        int[] roomsByType = new int[ROOM_TYPES.length];
+        SortedMap<Long, Integer> roomsByBand = new TreeMap<>();
+        for (IRoom room: stock) {
+            // The service records only rooms of finite prices
+            assert Double.isFinite(room.getRoomPrice()) : room;
+            roomsByType[room.getRoomType().ordinal()]++;
+            roomsByBand.merge(bandOf(room, priceBandWidth), 1, Integer::sum);
+        }
+
+        Set<Long> bands = roomsByBand.keySet();
+        Tally tally = reservationService.streamReservations().parallel().collect(
+                () -> new Tally(firstDay, days, stock, bands, priceBandWidth), Tally::add, Tally::addAll);
+
+        List<OccupancyReport.Night> nights = new ArrayList<>(days);
+        int occupiedRooms = 0;
+        for (int day = 0; day < days; day++) {
+            occupiedRooms += tally.occupancyChanges[day];
+            nights.add(new OccupancyReport.Night(from.plusDays(day), occupiedRooms, share(occupiedRooms, rooms)));
+        }
+        Map<RoomType, Double> byRoomType = new EnumMap<>(RoomType.class);
+        for (RoomType roomType: ROOM_TYPES) {
+            int ordinal = roomType.ordinal();
+            if (roomsByType[ordinal] > 0) {
+                byRoomType.put(roomType, share(tally.nightsByType[ordinal], (long) roomsByType[ordinal] * days));
+            }
+        }
+        List<OccupancyReport.PriceBand> byPriceBand = new ArrayList<>();
+        for (Map.Entry<Long, Integer> band: roomsByBand.entrySet()) {
+            long number = band.getKey();
+            int bandRooms = band.getValue();
+            byPriceBand.add(new OccupancyReport.PriceBand(number * priceBandWidth, (number + 1) * priceBandWidth,
+                    bandRooms, share(tally.nightsByBand.get(number), (long) bandRooms * days)));
+        }
+        long bookedNights = Arrays.stream(tally.nightsByType).sum();
+
+        return new OccupancyReport(from, to, rooms, share(bookedNights, (long) rooms * days),
+                Collections.unmodifiableList(nights), Collections.unmodifiableMap(byRoomType),
+                Collections.unmodifiableList(byPriceBand), tally.stays,
+                tally.stays == 0 ? 0 : (double) tally.stayNights / tally.stays);
+    }
+
+    private static long bandOf(IRoom room, double priceBandWidth) {
+        return (long) Math.floor(room.getRoomPrice() / priceBandWidth);
+    }
+
+    private static double share(long part, long whole) {
+        return whole == 0 ? 0 : (double) part / whole;
+    }
+
+    /**
+     * Counts of a part of the reservations, in nights of the period.
+     */
+    private static final class Tally {
+
+        private final int firstDay;
+        private final int days;
+        private final double priceBandWidth;
+        private final IRoom[] stock;
+        private final int[] occupancyChanges;
+        private final long[] nightsByType;
+        private final Map<Long, Long> nightsByBand;
+        private long stays;
+        private long stayNights;
+
+        Tally(int firstDay, int days, IRoom[] stock, Set<Long> bands, double priceBandWidth) {
+            this.firstDay = firstDay;
+            this.days = days;
+            this.priceBandWidth = priceBandWidth;
+            this.stock = stock;
+            this.occupancyChanges = new int[days + 1];
+            this.nightsByType = new long[ROOM_TYPES.length];
+            this.nightsByBand = new HashMap<>((int) (bands.size() / 0.75F) + 1);
+            for (Long band: bands) {
+                nightsByBand.put(band, 0L);
+            }
+        }
+
+        void add(Reservation reservation) {
+            IRoom room = reservation.getRoom();
+            int roomId = room.getId();
+            // A room recorded after the stock was counted is left out
+            if (roomId < 0 || roomId >= stock.length || stock[roomId] != room) {
+                return;
+            }
+            int checkIn = reservation.getCheckInDay() - firstDay;
+            int checkOut = reservation.getCheckOutDay() - firstDay;
+            if (checkIn >= 0 && checkIn < days) {
+                stays++;
+                stayNights += checkOut - checkIn;
+            }
+            int start = Math.max(checkIn, 0);
+            int end = Math.min(checkOut, days);
+            if (start >= end) {
+                return;
+            }
+            occupancyChanges[start]++;
+            occupancyChanges[end]--;
+            nightsByType[room.getRoomType().ordinal()] += end - start;
+            nightsByBand.merge(bandOf(room, priceBandWidth), (long) (end - start), Long::sum);
+        }
+
+        void addAll(Tally other) {
+            for (int i = 0; i < occupancyChanges.length; i++) {
+                occupancyChanges[i] += other.occupancyChanges[i];
+            }
+            for (int i = 0; i < nightsByType.length; i++) {
+                nightsByType[i] += other.nightsByType[i];
+            }
+            other.nightsByBand.forEach((band, sum) -> nightsByBand.merge(band, sum, Long::sum));
+            stays += other.stays;
+            stayNights += other.stayNights;
+        }
+    }
+}
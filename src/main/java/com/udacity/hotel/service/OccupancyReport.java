@@ -0,0 +1,50 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Occupancy of the hotel over a period of nights, as computed by {@link OccupancyAnalytics}. Occupancy is the share
+ * of room-nights booked out of the room-nights available, between 0 and 1, for the rooms recorded when the report
+ * was made.
+ *
+ * @param from                  localDate of the first night of the period
+ * @param to                    localDate of the day after the last night of the period
+ * @param rooms                 int, number of rooms
+ * @param occupancy             double, occupancy of all rooms over the whole period
+ * @param nights                list of occupancy per night, in the order of the nights
+ * @param occupancyByRoomType   map of occupancy over the whole period per type of rooms, only for types with rooms
+ * @param occupancyByPriceBand  list of occupancy over the whole period per price band, only for bands with rooms,
+ *                              cheapest first
+ * @param stays                 long, number of stays with check-in within the period
+ * @param averageLengthOfStay   double, average number of nights of the stays, 0 if there are none
+ * @author Ivan V. Zykov
+ */
+public record OccupancyReport(LocalDate from, LocalDate to, int rooms, double occupancy, List<Night> nights,
+                              Map<RoomType, Double> occupancyByRoomType, List<PriceBand> occupancyByPriceBand,
+                              long stays, double averageLengthOfStay) {
+
+    /**
+     * Occupancy of a single night.
+     *
+     * @param date          localDate of the night
+     * @param occupiedRooms int, number of rooms booked for the night
+     * @param occupancy     double, share of rooms booked for the night
+     */
+    public record Night(LocalDate date, int occupiedRooms, double occupancy) {
+    }
+
+    /**
+     * Occupancy of rooms with prices from the lower bound, inclusive, up to the upper bound, exclusive.
+     *
+     * @param fromPrice double, lowest price of rooms in the band
+     * @param toPrice   double, price above the dearest room in the band
+     * @param rooms     int, number of rooms in the band
+     * @param occupancy double, occupancy of the rooms in the band over the whole period
+     */
+    public record PriceBand(double fromPrice, double toPrice, int rooms, double occupancy) {
+    }
+}
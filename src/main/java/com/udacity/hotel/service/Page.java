@@ -0,0 +1,52 @@
+package com.udacity.hotel.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * A page of elements read in the order they were recorded, together with the cursor to read the next page with.
+ * Elements are never removed, so paging with the returned cursors visits every element exactly once. The cursor
+ * after the last page stays valid and reads the elements recorded since, if any.
+ *
+ * @param items         list of elements of this page, unmodifiable
+ * @param nextCursor    int, cursor of the next page
+ * @param hasNext       boolean, whether more elements were recorded after this page when it was read
+ * @param <T>           type of the elements
+ * @author Ivan V. Zykov
+ */
+public record Page<T>(List<T> items, int nextCursor, boolean hasNext) {
+
+    /**
+     * Cursor of the first page.
+     */
+    public static final int FIRST = 0;
+
+    /**
+     * Copies a page out of elements addressed by their positions.
+     *
+     * @param elements                  intFunction returning the element at a position
+     * @param size                      int, number of elements to page through
+     * @param cursor                    int, position of the first element of the page
+     * @param limit                     int, maximum number of elements in the page
+     * @param <T>                       type of the elements
+     * @return                          page of elements
+     * @throws IllegalArgumentException if the cursor is negative or the limit is not positive
+     */
+    static <T> Page<T> slice(IntFunction<? extends T> elements, int size, int cursor, int limit) {
+        if (cursor < 0) {
+            throw new IllegalArgumentException("Cursor should not be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page should hold at least one element");
+        }
+        int start = Math.min(cursor, size);
+        int end = (int) Math.min(size, (long) start + limit);
+        List<T> items = new ArrayList<>(end - start);
+        for (int position = start; position < end; position++) {
+            items.add(elements.apply(position));
+        }
+        return new Page<>(Collections.unmodifiableList(items), end, end < size);
+    }
+}
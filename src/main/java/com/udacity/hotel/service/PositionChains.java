@@ -0,0 +1,83 @@
+package com.udacity.hotel.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lists of positions in a {@link ReservationStore} grouped by a dense int key, kept in primitive arrays only.
+ * <p>Every position links to the previous position added for the same key, and every key to its last position, so
+ * adding a position stores two ints and allocates no object per key or per position. Links are stored shifted by
+ * one, so that zero stands for no position. Adding is synchronized, reading is safe concurrently and sees a
+ * consistent prefix of each list.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+final class PositionChains {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_LINK = 0;
+
+    private volatile AtomicIntegerArray lastLinks;
+    private volatile int[] previousLinks;
+
+    PositionChains() {
+        this.lastLinks = new AtomicIntegerArray(INITIAL_CAPACITY);
+        this.previousLinks = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the supplied position at the end of the list of the supplied key. Each position should be added only
+     * once.
+     *
+     * @param key       int, non-negative key of the list
+     * @param position  int, non-negative position to add
+     */
+    synchronized void add(int key, int position) {
+        AtomicIntegerArray last = lastLinks;
+        if (key >= last.length()) {
+            AtomicIntegerArray grown = new AtomicIntegerArray(Math.max(key + 1, last.length() * 2));
+            for (int i = 0; i < last.length(); i++) {
+                grown.set(i, last.get(i));
+            }
+            last = grown;
+            lastLinks = grown;
+        }
+        int[] previous = previousLinks;
+        if (position >= previous.length) {
+            previous = Arrays.copyOf(previous, Math.max(position + 1, previous.length * 2));
+            previousLinks = previous;
+        }
+        previous[position] = last.get(key);
+        // Publishes the link above to readers which see the new last position
+        last.set(key, position + 1);
+    }
+
+    /**
+     * Returns the positions added for the supplied key before this call.
+     *
+     * @param key   int, non-negative key of the list
+     * @return      int array of positions in the order they were added
+     */
+    int[] positionsOf(int key) {
+        AtomicIntegerArray last = lastLinks;
+        if (key >= last.length()) {
+            return new int[0];
+        }
+        int link = last.get(key);
+        int[] previous = previousLinks;
+        int[] positions = new int[INITIAL_CAPACITY];
+        int count = 0;
+        while (link != NO_LINK) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = link - 1;
+            link = previous[link - 1];
+        }
+        int[] ordered = new int[count];
+        for (int i = 0; i < count; i++) {
+            ordered[i] = positions[count - 1 - i];
+        }
+        return ordered;
+    }
+}
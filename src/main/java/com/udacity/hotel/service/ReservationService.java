@@ -1,42 +1,159 @@
 package com.udacity.hotel.service;
 
+import com.udacity.hotel.metrics.MetricsRegistry;
+import com.udacity.hotel.metrics.Timer;
 import com.udacity.hotel.model.Customer;
 import com.udacity.hotel.model.IRoom;
 import com.udacity.hotel.model.Reservation;
 import com.udacity.hotel.model.ReservationFactory;
+import com.udacity.hotel.model.RoomType;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * A singleton service to keep track, record and retrieve {@link IRoom}s and {@link Reservation}s.
+ * <p>The service is safe to use from multiple threads. Bookings lock only the stripe of the booked room, so rooms
+ * in different stripes are booked in parallel, and searches never wait for booking locks. In
+ * {@link BookingMode#OPTIMISTIC} mode bookings take no stripe lock. Either way, recording a booking still synchronizes
+ * on the reservation store, the index of customers' reservations and the journal, and bookings of the same room are
+ * journaled and recorded in the order their calendar accepted them.</p>
+ * <p>Every recorded room is assigned a dense id, its position in the order of recording, and the calendars of rooms
+ * are kept in an array indexed by it. Reservations of customers are indexed by the ids assigned by
+ * {@link CustomerService}. A room or customer is looked up by its id only if it's the very object recorded under
+ * that id, otherwise by its number or email. Reservations refer to the recorded room and to the first object of
+ * their customer the service saw, whichever equal objects they were booked with.</p>
+ * <p>Reservations are kept in a {@link ReservationStore}, and lists of positions of each customer's reservations in
+ * primitive {@link PositionChains}, so a booking adds no long-lived object to the heap.</p>
  *
  * @author Ivan V. Zykov
  */
 public final class ReservationService {
 
-    private static ReservationService instance;
+    private static final int BOOKING_LOCK_STRIPES = 64;
+    private static final int SEARCH_CACHE_CAPACITY = 1024;
+    private static final int MAX_ALTERNATIVES = Long.SIZE - 1;
+    private static final int INITIAL_CUSTOMER_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
 
-    private final Set<Reservation> reservations;
+    private static volatile ReservationService instance;
+
+    private final ReservationStore reservations;
+    private final PositionChains reservationsByCustomer;
+    private final Map<String, CustomerSlot> customerSlots;
+    private final AtomicInteger nextCustomerSlot;
+    private final Object customerSlotsByIdLock;
+    private volatile CustomerSlot[] customerSlotsById;
     private final Map<String, IRoom> rooms;
+    private final Object roomsLock;
+    private final AppendOnlyList<IRoom> roomsInOrder;
+    private final RoomIndex roomIndex;
+    private final AppendOnlyList<RoomCalendar> roomCalendars;
+    private final Lock[] bookingLocks;
+    private final SearchCache searchCache;
     private final ReservationFactory reservationFactory;
+    private final Timer addRoomsTimer;
+    private final Timer reserveARoomTimer;
+    private final Timer reserveAllTimer;
+    private final Timer findRoomsTimer;
+    private final Timer findRoomsFilteredTimer;
+    private final Timer findAvailabilityTimer;
+    private final Timer getCustomersReservationTimer;
+    private volatile Journal journal;
+    private volatile BookingMode bookingMode;
 
-    private ReservationService(ReservationFactory reservationFactory) {
-        reservations = new HashSet<>();
-        rooms = new HashMap<>();
+    private ReservationService(ReservationFactory reservationFactory, ReservationStore reservationStore) {
+        reservations = reservationStore;
+        reservationsByCustomer = new PositionChains();
+        customerSlots = new ConcurrentHashMap<>();
+        nextCustomerSlot = new AtomicInteger();
+        customerSlotsByIdLock = new Object();
+        customerSlotsById = new CustomerSlot[INITIAL_CUSTOMER_CAPACITY];
+        rooms = new ConcurrentHashMap<>();
+        roomsLock = new Object();
+        roomsInOrder = new AppendOnlyList<>();
+        roomIndex = new RoomIndex();
+        roomCalendars = new AppendOnlyList<>();
+        bookingLocks = new Lock[BOOKING_LOCK_STRIPES];
+        for (int i = 0; i < BOOKING_LOCK_STRIPES; i++) {
+            bookingLocks[i] = new ReentrantLock();
+        }
+        searchCache = new SearchCache(SEARCH_CACHE_CAPACITY);
         this.reservationFactory = reservationFactory;
+        this.journal = Journal.NONE;
+        this.bookingMode = BookingMode.LOCKING;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        addRoomsTimer = metrics.timer("reservation_service_add_rooms");
+        reserveARoomTimer = metrics.timer("reservation_service_reserve_a_room");
+        reserveAllTimer = metrics.timer("reservation_service_reserve_all");
+        findRoomsTimer = metrics.timer("reservation_service_find_rooms");
+        findRoomsFilteredTimer = metrics.timer("reservation_service_find_rooms_filtered");
+        findAvailabilityTimer = metrics.timer("reservation_service_find_availability");
+        getCustomersReservationTimer = metrics.timer("reservation_service_get_customers_reservation");
     }
 
     /**
-     * Provides the unique instance of this singleton service.
+     * Provides the unique instance of this singleton service, keeping reservations on the heap if it's created by
+     * this call.
      *
      * @return  reservationService object of this service
      */
     public static ReservationService getInstance(ReservationFactory reservationFactory) {
-        if (instance == null) {
-            instance = new ReservationService(reservationFactory);
+        ReservationService result = instance;
+        if (result == null) {
+            result = getInstance(reservationFactory, new InMemoryReservationStore(reservationFactory));
+        }
+
+        return result;
+    }
+
+    /**
+     * Provides the unique instance of this singleton service, keeping reservations in the supplied store if it's
+     * created by this call.
+     *
+     * @param reservationFactory    reservationFactory to create reservations with
+     * @param reservationStore      reservationStore to keep reservations in
+     * @return                      reservationService object of this service
+     */
+    public static ReservationService getInstance(ReservationFactory reservationFactory,
+                                                 ReservationStore reservationStore) {
+        ReservationService result = instance;
+        if (result == null) {
+            synchronized (ReservationService.class) {
+                result = instance;
+                if (result == null) {
+                    result = new ReservationService(reservationFactory, reservationStore);
+                    instance = result;
+                }
+            }
         }
 
-        return instance;
+        return result;
+    }
+
+    /**
+     * Sets the journal which receives every room and reservation recorded from now on.
+     *
+     * @param journal   journal to report new rooms and reservations to
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets how bookings made from now on keep a room from being booked twice for the same night,
+     * {@link BookingMode#LOCKING} by default.
+     *
+     * @param bookingMode   bookingMode of the next bookings
+     */
+    public void setBookingMode(BookingMode bookingMode) {
+        this.bookingMode = bookingMode;
     }
 
     /**
@@ -48,6 +165,27 @@ public final class ReservationService {
         return rooms;
     }
 
+    /**
+     * Returns a page of the rooms in the order they were recorded.
+     *
+     * @param cursor                    int, {@link Page#FIRST} or the next cursor of the previous page
+     * @param limit                     int, maximum number of rooms in the page
+     * @return                          page of rooms
+     * @throws IllegalArgumentException if the cursor is negative or the limit is not positive
+     */
+    public Page<IRoom> getRooms(int cursor, int limit) {
+        return roomsInOrder.page(cursor, limit);
+    }
+
+    /**
+     * Returns a lazy stream of the rooms recorded before this call, in the order they were recorded.
+     *
+     * @return  stream of rooms
+     */
+    public Stream<IRoom> streamRooms() {
+        return roomsInOrder.stream();
+    }
+
     /**
      * Records the supplied room if a room with the same number was not recorded yet.
      *
@@ -55,12 +193,67 @@ public final class ReservationService {
      * @throws  IllegalArgumentException    if a room with the same ID already exists
      */
     public void addRoom(IRoom room) {
-        if (rooms.containsKey(room.getRoomNumber())) {
-            throw new IllegalArgumentException("Room number " + room.getRoomNumber() +
-                    " already exists");
-        } else {
-            rooms.put(room.getRoomNumber(), room);
+        addRooms(List.of(room));
+    }
+
+    /**
+     * Records all supplied rooms or, if any of them can't be recorded, none of them. The whole batch is checked
+     * before any room is recorded, and the rooms are indexed together, so adding many rooms at once is much faster
+     * than adding them one by one. Rooms recorded are assigned the next dense ids in the order of the collection.
+     *
+     * @param   newRooms                    collection of rooms to add
+     * @throws  IllegalArgumentException    if a room with the same ID already exists or is supplied twice, or the
+     *                                      price of a room is missing, not finite or negative
+     */
+    public void addRooms(Collection<? extends IRoom> newRooms) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            recordRooms(newRooms);
+            failed = false;
+        } finally {
+            addRoomsTimer.record(start, failed);
+        }
+    }
+
+    private void recordRooms(Collection<? extends IRoom> newRooms) {
+        for (IRoom room: newRooms) {
+            Double price = room.getRoomPrice();
+            if (price == null || ! Double.isFinite(price) || price < 0) {
+                throw new IllegalArgumentException("Price of room " + room.getRoomNumber()
+                        + " should be a finite non-negative number");
+            }
         }
+        Map<String, IRoom> batch = new HashMap<>((int) (newRooms.size() / 0.75F) + 1);
+        synchronized (roomsLock) {
+            for (IRoom room: newRooms) {
+                String roomNumber = room.getRoomNumber();
+                if (rooms.containsKey(roomNumber) || batch.putIfAbsent(roomNumber, room) != null) {
+                    throw new IllegalArgumentException("Room number " + roomNumber + " already exists");
+                }
+            }
+            // The rooms are journaled before anyone can book them
+            Journal currentJournal = journal;
+            currentJournal.record(() -> {
+                for (IRoom room: newRooms) {
+                    currentJournal.roomAdded(room);
+                }
+                // Calendars come first, so a room found by its id always has one
+                int today = EpochDays.today();
+                int id = roomsInOrder.size();
+                List<RoomCalendar> newCalendars = new ArrayList<>(newRooms.size());
+                for (IRoom room: newRooms) {
+                    room.assignId(id++);
+                    newCalendars.add(new RoomCalendar(today));
+                }
+                roomCalendars.appendAll(newCalendars);
+                rooms.putAll(batch);
+                roomsInOrder.appendAll(newRooms);
+                roomIndex.addAll(newRooms);
+            });
+        }
+        // The new rooms may be free for any of the cached stays
+        searchCache.invalidateAll();
     }
 
     /**
@@ -71,106 +264,525 @@ public final class ReservationService {
      * @throws  IllegalArgumentException    if there is no room with supplied ID
      */
     public IRoom getARoom(String roomId) {
-        if (rooms.containsKey(roomId)) {
-            return rooms.get(roomId);
-        } else {
+        IRoom room = rooms.get(roomId);
+        if (room == null) {
             throw new IllegalArgumentException("There is no room with number " +
                     roomId);
         }
+        return room;
+    }
+
+    /**
+     * Returns the room recorded with the supplied id, read from an array without hashing the room number.
+     *
+     * @param   roomId                      int, id of the room
+     * @return                              iRoom with the supplied id
+     * @throws  IllegalArgumentException    if there is no room with the supplied id
+     */
+    public IRoom getARoom(int roomId) {
+        if (roomId < 0 || roomId >= roomsInOrder.size()) {
+            throw new IllegalArgumentException("There is no room with id " + roomId);
+        }
+        return roomsInOrder.get(roomId);
     }
 
     /**
-     * Creates a new reservation and if the same reservation was not recorded yet, records it.
+     * Returns the id this service assigned to the supplied room. The id carried by the room is used if this service
+     * recorded that very object under it, otherwise the room is looked up by its number.
+     *
+     * @throws IllegalArgumentException if there is no room with the number of the supplied room
+     */
+    private int idOf(IRoom room) {
+        int id = room.getId();
+        if (id >= 0 && id < roomsInOrder.size() && roomsInOrder.get(id) == room) {
+            return id;
+        }
+        return getARoom(room.getRoomNumber()).getId();
+    }
+
+    /**
+     * Creates a new reservation and records it if the room is not reserved for any of the supplied nights yet. The
+     * conflict is looked up in the room's own calendar only. Holds the booking lock of the room's stripe, so that the
+     * same room can't be booked twice concurrently, unless bookings are {@link BookingMode#OPTIMISTIC}. Bookings of the
+     * room accepted by its calendar earlier are journaled and recorded before this one.
      *
      * @param customer      customer for whom the reservation is made
      * @param room          iRoom which is reserved
-     * @param checkInDate   date object of check-in
-     * @param checkOutDate  date object of check-out
+     * @param checkInDate   localDate of check-in
+     * @param checkOutDate  localDate of check-out
      * @return              reservation newly created
-     * @throws IllegalArgumentException if the supplied room is already reserved for exactly the same supplied days
+     * @throws IllegalArgumentException if check-out is not later than check-in, the supplied room was not recorded
+     *                                  or it is already reserved for any of the supplied days
      */
-    public Reservation reserveARoom(Customer customer, IRoom room, Date checkInDate,
-                                    Date checkOutDate) {
-        Reservation newReservation = reservationFactory.create(customer, room, checkInDate,
-                checkOutDate);
-        if (reservations.contains(newReservation)) {
-            throw new IllegalArgumentException("This room is already reserved for these " +
-                    "days");
+    public Reservation reserveARoom(Customer customer, IRoom room, LocalDate checkInDate,
+                                    LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Reservation newReservation = reserve(customer, room, checkInDate, checkOutDate);
+            failed = false;
+            return newReservation;
+        } finally {
+            reserveARoomTimer.record(start, failed);
+        }
+    }
+
+    private Reservation reserve(Customer customer, IRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
+        int checkIn = EpochDays.of(checkInDate);
+        int checkOut = EpochDays.of(checkOutDate);
+        if (checkOut <= checkIn) {
+            throw new IllegalArgumentException("Check-out date should be later than check-in date");
+        }
+        int roomId = idOf(room);
+        CustomerSlot customerSlot = customer == null ? null : recordedSlotOf(customer);
+        Reservation newReservation = reservationFactory.create(customerSlot == null ? null : customerSlot.customer(),
+                roomsInOrder.get(roomId), checkIn, checkOut);
+        int slot = customerSlot == null ? NO_SLOT : customerSlot.slot();
+
+        if (bookingMode == BookingMode.OPTIMISTIC) {
+            // The calendar alone refuses a conflicting stay, as it's swapped by compare-and-set
+            record(roomId, slot, newReservation);
+            return newReservation;
+        }
+        Lock bookingLock = bookingLocks[roomId & (BOOKING_LOCK_STRIPES - 1)];
+        bookingLock.lock();
+        try {
+            record(roomId, slot, newReservation);
+        } finally {
+            bookingLock.unlock();
         }
-        reservations.add(newReservation);
         return newReservation;
     }
 
+    private void record(int roomId, int slot, Reservation newReservation) {
+        int checkIn = newReservation.getCheckInDay();
+        int checkOut = newReservation.getCheckOutDay();
+        // The reservation is journaled once the calendar accepted it, but before anyone can find it
+        Journal currentJournal = journal;
+        currentJournal.record(() -> {
+            RoomCalendar calendar = roomCalendars.get(roomId);
+            int version = calendar.book(checkIn, checkOut);
+            if (version == RoomCalendar.CONFLICT) {
+                throw new IllegalArgumentException("This room is already reserved for these " +
+                        "days");
+            }
+            // Bookings of the room swapped in earlier are journaled first, even if no lock orders the bookers
+            calendar.awaitTurn(version);
+            boolean appended = false;
+            try {
+                currentJournal.roomReserved(newReservation);
+                int position = reservations.append(newReservation, slot);
+                appended = true;
+                if (slot != NO_SLOT) {
+                    reservationsByCustomer.add(slot, position);
+                }
+            } finally {
+                // A stay which is not recorded must not keep the room occupied
+                if (! appended) {
+                    calendar.release(checkIn, checkOut);
+                }
+                calendar.endTurn(version);
+            }
+        });
+        searchCache.invalidate(checkIn, checkOut);
+    }
+
     /**
-     * Finds rooms available for booking withing the supplied dates.
+     * Books the supplied requests as one batch. Each request has the outcome it would have if booked by
+     * {@link #reserveARoom} one by one in the order of the list. The calendar of each room is swapped once for all its
+     * stays, the whole batch is journaled within a single {@link Journal#record(Runnable)}, and cached searches are
+     * invalidated once. No stripe lock is taken, as the calendars refuse stays conflicting with bookings made
+     * concurrently. The future of every request is completed when this method returns normally.
      *
-     * @param checkInDate   date object of check-in
-     * @param checkOutDate  date object of check-out
-     * @return              collection of rooms available for the supplied dates
+     * @param batch list of booking requests
      */
-    public Collection<IRoom> findRooms(Date checkInDate, Date checkOutDate) {
-        // Copy all rooms
-        Map<String, IRoom> availableRooms = new HashMap<>(this.rooms);
+    void reserveAll(List<BookingRequest> batch) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            recordAll(batch);
+            failed = false;
+        } finally {
+            reserveAllTimer.record(start, failed);
+        }
+    }
 
-        // Compare with dates of existing reservations
-        for (Reservation aReservation: this.reservations) {
-            DatesCheckResult checkResult = checkDates(aReservation, checkInDate,
-                    checkOutDate);
-            boolean isCheckInOK = checkResult.isCheckInOK();
-            boolean isCheckOutOK = checkResult.isCheckOutOK();
-            if (! isCheckInOK || ! isCheckOutOK) {
-                // Remove the room from the list of available rooms
-                availableRooms.remove(aReservation.getRoom().getRoomNumber());
+    private void recordAll(List<BookingRequest> batch) {
+        Reservation[] newReservations = new Reservation[batch.size()];
+        int[] roomIds = new int[batch.size()];
+        int[] slots = new int[batch.size()];
+        // Rooms come in the order of their ids, so that batches waiting for their turns never wait for each other
+        SortedMap<Integer, List<Integer>> requestsByRoom = new TreeMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            BookingRequest request = batch.get(i);
+            try {
+                int checkIn = EpochDays.of(request.checkInDate());
+                int checkOut = EpochDays.of(request.checkOutDate());
+                if (checkOut <= checkIn) {
+                    throw new IllegalArgumentException("Check-out date should be later than check-in date");
+                }
+                int roomId = idOf(request.room());
+                CustomerSlot customerSlot = request.customer() == null ? null : recordedSlotOf(request.customer());
+                roomIds[i] = roomId;
+                slots[i] = customerSlot == null ? NO_SLOT : customerSlot.slot();
+                newReservations[i] = reservationFactory.create(customerSlot == null ? null : customerSlot.customer(),
+                        roomsInOrder.get(roomId), checkIn, checkOut);
+                requestsByRoom.computeIfAbsent(roomId, id -> new ArrayList<>()).add(i);
+            } catch (RuntimeException ex) {
+                request.result().completeExceptionally(ex);
             }
         }
 
-        return new ArrayList<>(availableRooms.values());
+        boolean[] booked = new boolean[batch.size()];
+        Journal currentJournal = journal;
+        currentJournal.record(() -> {
+            List<RoomCalendar> calendars = new ArrayList<>(requestsByRoom.size());
+            int[] versions = new int[requestsByRoom.size()];
+            int appended = 0;
+            try {
+                for (Map.Entry<Integer, List<Integer>> requestsOfRoom: requestsByRoom.entrySet()) {
+                    List<Integer> positions = requestsOfRoom.getValue();
+                    int[] checkIns = new int[positions.size()];
+                    int[] checkOuts = new int[positions.size()];
+                    boolean[] bookedOfRoom = new boolean[positions.size()];
+                    for (int i = 0; i < positions.size(); i++) {
+                        checkIns[i] = newReservations[positions.get(i)].getCheckInDay();
+                        checkOuts[i] = newReservations[positions.get(i)].getCheckOutDay();
+                    }
+                    RoomCalendar calendar = roomCalendars.get(requestsOfRoom.getKey());
+                    int version = calendar.bookAll(checkIns, checkOuts, bookedOfRoom);
+                    if (version == RoomCalendar.CONFLICT) {
+                        continue;
+                    }
+                    // Bookings of the room swapped in earlier are journaled first, as for a single booking
+                    calendar.awaitTurn(version);
+                    versions[calendars.size()] = version;
+                    calendars.add(calendar);
+                    for (int i = 0; i < positions.size(); i++) {
+                        booked[positions.get(i)] = bookedOfRoom[i];
+                    }
+                }
+                for (; appended < newReservations.length; appended++) {
+                    if (booked[appended]) {
+                        currentJournal.roomReserved(newReservations[appended]);
+                        int position = reservations.append(newReservations[appended], slots[appended]);
+                        if (slots[appended] != NO_SLOT) {
+                            reservationsByCustomer.add(slots[appended], position);
+                        }
+                    }
+                }
+            } finally {
+                // Stays not recorded because of a failure must not keep their rooms occupied
+                for (int i = appended; i < newReservations.length; i++) {
+                    if (booked[i]) {
+                        roomCalendars.get(roomIds[i]).release(newReservations[i].getCheckInDay(),
+                                newReservations[i].getCheckOutDay());
+                    }
+                }
+                for (int i = 0; i < calendars.size(); i++) {
+                    calendars.get(i).endTurn(versions[i]);
+                }
+            }
+        });
+
+        int[] checkIns = new int[newReservations.length];
+        int[] checkOuts = new int[newReservations.length];
+        int bookedCount = 0;
+        for (int i = 0; i < newReservations.length; i++) {
+            if (booked[i]) {
+                checkIns[bookedCount] = newReservations[i].getCheckInDay();
+                checkOuts[bookedCount++] = newReservations[i].getCheckOutDay();
+            }
+        }
+        searchCache.invalidate(checkIns, checkOuts, bookedCount);
+        for (int i = 0; i < newReservations.length; i++) {
+            if (booked[i]) {
+                batch.get(i).result().complete(newReservations[i]);
+            } else if (newReservations[i] != null) {
+                batch.get(i).result().completeExceptionally(new IllegalArgumentException("This room is already " +
+                        "reserved for these days"));
+            }
+        }
     }
 
     /**
-     * Checks if the supplied reservation conflicts with the supplied check-in and check-out dates.
+     * Returns the slot of the supplied customer's reservations, found by their id if they are the very object
+     * registered under it, otherwise by their email.
      *
-     * @param reservation   reservation to compare with the supplied dates
-     * @param checkIn       date object of check-in
-     * @param checkOut      date object of check-out
-     * @return              datesCheckResult object of a helper class containing a check result for each date
+     * @return  customerSlot of the customer or null if they have none yet
      */
-    DatesCheckResult checkDates(Reservation reservation, Date checkIn, Date checkOut) {
-        boolean isCheckInOK = checkIn.before(reservation.getCheckInDate()) ||
-                checkIn.compareTo(reservation.getCheckOutDate()) >= 0;
-        boolean isCheckOutOK = checkOut.compareTo(reservation.getCheckInDate()) <= 0 ||
-                checkOut.after(reservation.getCheckOutDate());
-        return new DatesCheckResult(isCheckInOK, isCheckOutOK);
+    private CustomerSlot slotOf(Customer customer) {
+        int id = customer.getId();
+        CustomerSlot[] byId = customerSlotsById;
+        if (id >= 0 && id < byId.length) {
+            CustomerSlot slot = byId[id];
+            if (slot != null && slot.customer() == customer) {
+                return slot;
+            }
+        }
+        return customerSlots.get(customer.getEmail());
     }
 
     /**
-     * Finds all reservations for the supplied customer.
+     * Returns the slot of the supplied customer's reservations, assigning one to them if they have none yet. A new
+     * slot keeps the supplied object as the customer of all reservations in it, and is indexed by their email and,
+     * if they have an id not taken by another customer object yet, by their id.
+     */
+    private CustomerSlot recordedSlotOf(Customer customer) {
+        CustomerSlot slot = slotOf(customer);
+        if (slot != null) {
+            return slot;
+        }
+        slot = customerSlots.computeIfAbsent(customer.getEmail(),
+                email -> new CustomerSlot(customer, nextCustomerSlot.getAndIncrement()));
+        int id = customer.getId();
+        if (id >= 0 && slot.customer() == customer) {
+            synchronized (customerSlotsByIdLock) {
+                CustomerSlot[] byId = customerSlotsById;
+                if (id >= byId.length) {
+                    byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+                }
+                if (byId[id] == null) {
+                    byId[id] = slot;
+                }
+                customerSlotsById = byId;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Finds rooms available for booking withing the supplied dates. Results of the recent searches are cached until a
+     * room is booked for any of their nights or a new room is added. Otherwise only the calendar of each room is
+     * consulted, so the search doesn't depend on the total number of reservations recorded. Calendars whose bitmap of
+     * booked nights doesn't start today are moved forward first.
+     *
+     * @param checkInDate   localDate of check-in
+     * @param checkOutDate  localDate of check-out
+     * @return              read-only collection of rooms available for the supplied dates
+     */
+    public Collection<IRoom> findRooms(LocalDate checkInDate, LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Collection<IRoom> result = findFreeRooms(checkInDate, checkOutDate);
+            failed = false;
+            return result;
+        } finally {
+            findRoomsTimer.record(start, failed);
+        }
+    }
+
+    private Collection<IRoom> findFreeRooms(LocalDate checkInDate, LocalDate checkOutDate) {
+        int checkIn = EpochDays.of(checkInDate);
+        int checkOut = EpochDays.of(checkOutDate);
+        List<IRoom> cachedRooms = searchCache.get(checkIn, checkOut);
+        if (cachedRooms != null) {
+            return cachedRooms;
+        }
+
+        long stamp = searchCache.stamp(checkIn, checkOut);
+        List<IRoom> result = Collections.unmodifiableList(freeRooms(this.rooms.values(), checkIn, checkOut));
+        searchCache.put(checkIn, checkOut, result, stamp);
+        return result;
+    }
+
+    /**
+     * Finds rooms of the supplied type and up to the supplied price which are available for booking within the
+     * supplied dates. Only the calendars of the rooms matching the filters are consulted, as they are looked up in
+     * the index of rooms by type and price.
+     *
+     * @param checkInDate   localDate of check-in
+     * @param checkOutDate  localDate of check-out
+     * @param roomType      roomType of the rooms or null for rooms of any type
+     * @param maxPrice      double, maximum price of the rooms or null for rooms of any price
+     * @return              collection of matching rooms available for the supplied dates, cheapest first
+     */
+    public Collection<IRoom> findRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType,
+                                       Double maxPrice) {
+        if (roomType == null && maxPrice == null) {
+            return findRooms(checkInDate, checkOutDate);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            IRoom[] candidates = roomIndex.candidates(roomType, maxPrice);
+            List<IRoom> result = freeRooms(Arrays.asList(candidates), EpochDays.of(checkInDate),
+                    EpochDays.of(checkOutDate));
+            failed = false;
+            return result;
+        } finally {
+            findRoomsFilteredTimer.record(start, failed);
+        }
+    }
+
+    /**
+     * Finds rooms available for booking within the supplied dates and within alternative dates, each shifted by the
+     * supplied number of days from the previous ones. All windows are checked in one pass over the rooms, reading
+     * the calendar of each room once, so the search costs little more than a search for the supplied dates only.
+     *
+     * @param checkInDate               localDate of check-in
+     * @param checkOutDate              localDate of check-out
+     * @param alternatives              int, number of alternative windows after the supplied dates, at most 63
+     * @param shiftDays                 int, days between check-ins of consecutive windows
+     * @return                          availability of rooms in the supplied dates and the alternative windows
+     * @throws IllegalArgumentException if the number of alternatives is out of range or the shift is not positive
+     */
+    public Availability findAvailability(LocalDate checkInDate, LocalDate checkOutDate, int alternatives,
+                                         int shiftDays) {
+        if (alternatives < 0 || alternatives > MAX_ALTERNATIVES) {
+            throw new IllegalArgumentException("Number of alternatives should be between 0 and " + MAX_ALTERNATIVES);
+        }
+        if (shiftDays <= 0) {
+            throw new IllegalArgumentException("Alternatives should be shifted by at least one day");
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Availability availability = findFreeWindows(EpochDays.of(checkInDate), EpochDays.of(checkOutDate),
+                    alternatives + 1, shiftDays);
+            failed = false;
+            return availability;
+        } finally {
+            findAvailabilityTimer.record(start, failed);
+        }
+    }
+
+    private Availability findFreeWindows(int checkIn, int checkOut, int windowCount, int shiftDays) {
+        List<List<IRoom>> freeRooms = new ArrayList<>(windowCount);
+        for (int i = 0; i < windowCount; i++) {
+            freeRooms.add(new ArrayList<>());
+        }
+        int today = EpochDays.today();
+        // Rooms in the order they were added, so every window lists them in the same order
+        int roomCount = roomsInOrder.size();
+        for (int r = 0; r < roomCount; r++) {
+            IRoom aRoom = roomsInOrder.get(r);
+            long free = calendarOf(r, today).freeWindows(checkIn, checkOut, shiftDays, windowCount);
+            for (; free != 0; free &= free - 1) {
+                freeRooms.get(Long.numberOfTrailingZeros(free)).add(aRoom);
+            }
+        }
+
+        List<Availability.Window> windows = new ArrayList<>(windowCount);
+        for (int i = 0; i < windowCount; i++) {
+            int shift = i * shiftDays;
+            windows.add(new Availability.Window(LocalDate.ofEpochDay(checkIn + shift),
+                    LocalDate.ofEpochDay(checkOut + shift), Collections.unmodifiableList(freeRooms.get(i))));
+        }
+        return new Availability(Collections.unmodifiableList(windows));
+    }
+
+    private List<IRoom> freeRooms(Collection<IRoom> candidates, int checkIn, int checkOut) {
+        int today = EpochDays.today();
+        List<IRoom> availableRooms = new ArrayList<>();
+        for (IRoom aRoom: candidates) {
+            if (calendarOf(idOf(aRoom), today).isFree(checkIn, checkOut)) {
+                availableRooms.add(aRoom);
+            }
+        }
+        return availableRooms;
+    }
+
+    /**
+     * Returns the calendar of the room with the supplied id with its horizon moved to today.
+     */
+    private RoomCalendar calendarOf(int roomId, int today) {
+        RoomCalendar calendar = roomCalendars.get(roomId);
+        if (calendar.getHorizonStart() != today) {
+            calendar.moveHorizon(today);
+        }
+        return calendar;
+    }
+
+    /**
+     * Returns the counters of the cache of room searches.
+     *
+     * @return  searchCacheStatistics with hits, misses, evictions and invalidations so far
+     */
+    public SearchCacheStatistics getSearchCacheStatistics() {
+        return searchCache.getStatistics();
+    }
+
+    /**
+     * Finds all reservations for the supplied customer. Reservations are looked up by the customer's email in the
+     * index of the customer's own reservations, so the search doesn't depend on the total number of reservations
+     * recorded.
      *
      * @param customer  customer for whom reservations are searched
      * @return          collection for reservations for the supplied customer
      */
     public Collection<Reservation> getCustomersReservation(Customer customer) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Collection<Reservation> customersReservations = reservationsOf(customer);
+            failed = false;
+            return customersReservations;
+        } finally {
+            getCustomersReservationTimer.record(start, failed);
+        }
+    }
 
-        List<Reservation> customersReservations = new ArrayList<>();
-        for (Reservation aReservation: this.reservations) {
-            if (aReservation.getCustomer().equals(customer)) {
-                customersReservations.add(aReservation);
-            }
+    private Collection<Reservation> reservationsOf(Customer customer) {
+        CustomerSlot slot = customer == null ? null : slotOf(customer);
+        if (slot == null) {
+            return new ArrayList<>();
+        }
+
+        int[] customersPositions = reservationsByCustomer.positionsOf(slot.slot());
+        List<Reservation> customersReservations = new ArrayList<>(customersPositions.length);
+        for (int position: customersPositions) {
+            customersReservations.add(reservations.get(position));
         }
 
         return customersReservations;
     }
 
+    /**
+     * Returns all reservations recorded so far. The returned set is a read-only view which doesn't copy the
+     * reservations, each iteration goes over the reservations recorded before it started.
+     *
+     * @return  set of all reservations
+     */
     public Set<Reservation> getAllReservations() {
-        return reservations;
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Reservation> iterator() {
+                return reservations.iterator();
+            }
+
+            @Override
+            public int size() {
+                return reservations.size();
+            }
+        };
+    }
+
+    /**
+     * Returns a page of the reservations in the order they were recorded.
+     *
+     * @param cursor                    int, {@link Page#FIRST} or the next cursor of the previous page
+     * @param limit                     int, maximum number of reservations in the page
+     * @return                          page of reservations
+     * @throws IllegalArgumentException if the cursor is negative or the limit is not positive
+     */
+    public Page<Reservation> getReservations(int cursor, int limit) {
+        return Page.slice(reservations::get, reservations.size(), cursor, limit);
     }
 
     /**
-     * Helper for representing results of  {@link ReservationService#checkDates(Reservation, Date, Date)}
-     * method.
+     * Returns a lazy stream of the reservations recorded before this call, in the order they were recorded.
      *
-     * @param isCheckInOK   boolean indicating if the check-in date conflicts with a reservation
-     * @param isCheckOutOK  boolean indicating if the check-out date conflicts with a reservation
+     * @return  stream of reservations
      */
-    record DatesCheckResult(boolean isCheckInOK, boolean isCheckOutOK) {}
+    public Stream<Reservation> streamReservations() {
+        return IntStream.range(0, reservations.size()).mapToObj(reservations::get);
+    }
+
+    /**
+     * Slot of a customer's reservations, together with the customer object all of them refer to.
+     */
+    private record CustomerSlot(Customer customer, int slot) {
+    }
 }
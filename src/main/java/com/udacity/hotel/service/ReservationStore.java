@@ -0,0 +1,70 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.Reservation;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Storage backend of {@link ReservationService} for {@link Reservation}s. Reservations are only ever appended and
+ * are addressed by their position in the order they were appended.
+ * <p>Implementations must allow reading concurrently with appending. Appending is called by one thread at a time
+ * for the same room, but possibly concurrently for different rooms.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public interface ReservationStore extends Iterable<Reservation> {
+
+    /**
+     * Appends the supplied reservation. Its room is the very object recorded by the service under the room's id, and
+     * its customer the very object every reservation of the customer refers to.
+     *
+     * @param reservation   reservation to store
+     * @param customerIndex int, dense index the service assigned to the customer of the reservation, the same for all
+     *                      of their reservations, or a negative number if the reservation has no customer
+     * @return              int, position of the stored reservation
+     */
+    int append(Reservation reservation, int customerIndex);
+
+    /**
+     * Returns the reservation stored at the supplied position.
+     *
+     * @param position  int, position of the reservation, less than {@link #size()}
+     * @return          reservation stored at the position
+     */
+    Reservation get(int position);
+
+    /**
+     * Returns the number of reservations stored so far.
+     *
+     * @return  int, number of reservations
+     */
+    int size();
+
+    /**
+     * Iterates over the reservations stored before this call in the order they were appended. Reservations
+     * appended while iterating are not included.
+     *
+     * @return  iterator over reservations
+     */
+    @Override
+    default Iterator<Reservation> iterator() {
+        int size = size();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Reservation next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+}
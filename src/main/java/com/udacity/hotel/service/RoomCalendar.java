@@ -0,0 +1,331 @@
+package com.udacity.hotel.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sorted interval index of the periods during which a single room is occupied.
+ * <p>Periods are stored as disjoint half-open intervals [check-in, check-out) of epoch days sorted by their start.
+ * Stays overlapping an existing period are refused, and stays touching one are merged with it. Nights within the
+ * current horizon are additionally kept in a {@link NightBitmap}, which answers most searches with a few word-wide
+ * operations. Stays outside the horizon are answered by a binary search for the latest period starting before the
+ * requested check-out.</p>
+ * <p>The index is an immutable snapshot swapped atomically on every change, so searches never wait for bookings
+ * and always see a consistent calendar.</p>
+ * <p>Every booking swapped in gets the next version of the calendar. Whoever booked a version publishes it, for
+ * example records and journals the reservation, between {@link #awaitTurn(int)} and {@link #endTurn(int)}, so the
+ * bookings of a room are published in the order they were swapped in even if nothing else orders the bookers.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+final class RoomCalendar {
+
+    /**
+     * Returned instead of a version if nothing was booked because of a conflict.
+     */
+    static final int CONFLICT = -1;
+
+    // Publishing a booking usually takes less than parking and unparking a thread would
+    private static final int TURN_SPINS = 128;
+
+    private final AtomicReference<Snapshot> snapshot;
+    private final AtomicInteger published;
+    private final ConcurrentLinkedQueue<Waiter> waiters;
+
+    /**
+     * Constructor of this class.
+     *
+     * @param horizonStart  int, epoch day of the first night kept in the bitmap
+     */
+    RoomCalendar(int horizonStart) {
+        this.snapshot = new AtomicReference<>(new Snapshot(new int[0], new int[0], new NightBitmap(horizonStart), 0));
+        this.published = new AtomicInteger();
+        this.waiters = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Marks the room as occupied from the supplied check-in till the supplied check-out unless it's already occupied
+     * on any of these nights. Finding a conflict takes a binary search or a few bitmap words, independent of how
+     * many other rooms or reservations exist. The caller must publish the version returned, see
+     * {@link #awaitTurn(int)}.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          int, version of the calendar with the stay booked, or {@link #CONFLICT} if the stay conflicts
+     *                  with an existing one
+     */
+    int book(int checkIn, int checkOut) {
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            if (checkIn >= checkOut) {
+                // An empty stay does not occupy the room, but still takes a version
+                next = current.withVersion(current.version() + 1);
+            } else if (current.isFree(checkIn, checkOut)) {
+                next = current.with(checkIn, checkOut, current.version() + 1);
+            } else {
+                return CONFLICT;
+            }
+        } while (! snapshot.compareAndSet(current, next));
+        return next.version();
+    }
+
+    /**
+     * Books the supplied stays in a single swap, as if each was booked by {@link #book(int, int)} in the order of the
+     * arrays. A stay conflicting with an existing one, or with an earlier stay of the arrays, is left out. All stays
+     * booked share one version, which the caller must publish.
+     *
+     * @param checkIns  int array of epoch days of check-in
+     * @param checkOuts int array of epoch days of check-out, as long as the array of check-ins
+     * @param booked    boolean array, as long as the array of check-ins, set to whether each stay was booked
+     * @return          int, version of the calendar with the stays booked, or {@link #CONFLICT} if none was
+     */
+    int bookAll(int[] checkIns, int[] checkOuts, boolean[] booked) {
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            int version = current.version() + 1;
+            boolean anyBooked = false;
+            next = current;
+            for (int i = 0; i < checkIns.length; i++) {
+                if (checkIns[i] >= checkOuts[i]) {
+                    booked[i] = true;
+                } else {
+                    booked[i] = next.isFree(checkIns[i], checkOuts[i]);
+                    if (booked[i]) {
+                        next = next.with(checkIns[i], checkOuts[i], version);
+                    }
+                }
+                anyBooked |= booked[i];
+            }
+            if (! anyBooked) {
+                return CONFLICT;
+            }
+            if (next == current) {
+                // Only empty stays, which don't occupy the room
+                next = current.withVersion(version);
+            }
+        } while (! snapshot.compareAndSet(current, next));
+        return next.version();
+    }
+
+    /**
+     * Frees the nights of a stay booked by {@link #book(int, int)} or {@link #bookAll(int[], int[], boolean[])}
+     * whose reservation could not be recorded. The version of the calendar is kept.
+     *
+     * @param checkIn   int, epoch day of check-in of the booked stay
+     * @param checkOut  int, epoch day of check-out of the booked stay
+     */
+    void release(int checkIn, int checkOut) {
+        if (checkIn >= checkOut) {
+            return;
+        }
+        Snapshot current;
+        do {
+            current = snapshot.get();
+        } while (! snapshot.compareAndSet(current, current.without(checkIn, checkOut)));
+    }
+
+    /**
+     * Waits until every version booked before the supplied one is published. Versions are published one by one, so
+     * the wait is usually short and spent spinning. A thread still waiting after a few spins parks until the
+     * publisher of the version before its own hands the turn over in {@link #endTurn(int)}. Interrupts don't end the
+     * wait, the interrupt status is restored when the turn comes.
+     *
+     * @param version   int, version returned by {@link #book(int, int)}
+     */
+    void awaitTurn(int version) {
+        for (int i = 0; i < TURN_SPINS; i++) {
+            if (published.get() == version - 1) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        // Registered before checking again, so the publisher either is seen here or sees this waiter
+        Waiter waiter = new Waiter(Thread.currentThread(), version);
+        waiters.add(waiter);
+        boolean interrupted = false;
+        try {
+            while (published.get() != version - 1) {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+        } finally {
+            waiters.remove(waiter);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Marks the supplied version published, letting the next one be published. Must be called once for every version
+     * booked, even if publishing it failed, or the bookings after it wait forever.
+     *
+     * @param version   int, version whose turn came in {@link #awaitTurn(int)}
+     */
+    void endTurn(int version) {
+        published.set(version);
+        for (Waiter waiter: waiters) {
+            if (waiter.version() == version + 1) {
+                LockSupport.unpark(waiter.thread());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks if the room is not occupied on any night between the supplied check-in and check-out.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          true if no booked period overlaps the supplied dates
+     */
+    boolean isFree(int checkIn, int checkOut) {
+        return snapshot.get().isFree(checkIn, checkOut);
+    }
+
+    /**
+     * Checks several windows of the same length at once, each shifted by the supplied number of days from the
+     * previous one. All windows are checked against the same state of the calendar.
+     *
+     * @param checkIn   int, epoch day of check-in of the first window
+     * @param checkOut  int, epoch day of check-out of the first window
+     * @param shiftDays int, days between check-ins of consecutive windows
+     * @param windows   int, number of windows, at most {@value Long#SIZE}
+     * @return          long with bit i set if the window i is free
+     */
+    long freeWindows(int checkIn, int checkOut, int shiftDays, int windows) {
+        Snapshot current = snapshot.get();
+        long free = 0;
+        for (int i = 0; i < windows; i++) {
+            int shift = i * shiftDays;
+            if (current.isFree(checkIn + shift, checkOut + shift)) {
+                free |= 1L << i;
+            }
+        }
+        return free;
+    }
+
+    int getHorizonStart() {
+        return snapshot.get().bookedNights().getFirstDay();
+    }
+
+    /**
+     * Rebuilds the bitmap of booked nights so that it starts at the supplied day. If the calendar is changed
+     * concurrently, the horizon is left as is and will be moved by a later call.
+     *
+     * @param horizonStart  int, epoch day of the first night to keep in the bitmap
+     */
+    void moveHorizon(int horizonStart) {
+        Snapshot current = snapshot.get();
+        snapshot.compareAndSet(current, current.movedTo(horizonStart));
+    }
+
+    /**
+     * Thread parked until the version before its own is published.
+     *
+     * @param thread    thread to unpark
+     * @param version   int, version the thread publishes
+     */
+    private record Waiter(Thread thread, int version) {
+    }
+
+    /**
+     * Immutable state of the calendar.
+     *
+     * @param starts        int array of epoch days when occupied periods start, in ascending order
+     * @param ends          int array of epoch days when occupied periods end, in ascending order
+     * @param bookedNights  nightBitmap of nights booked within the horizon
+     * @param version       int, number of bookings swapped in so far
+     */
+    private record Snapshot(int[] starts, int[] ends, NightBitmap bookedNights, int version) {
+
+        boolean isFree(int checkIn, int checkOut) {
+            if (bookedNights.covers(checkIn, checkOut)) {
+                return bookedNights.isClear(checkIn, checkOut);
+            }
+            int latestBefore = firstStartingFrom(checkOut) - 1;
+            return latestBefore < 0 || ends[latestBefore] <= checkIn;
+        }
+
+        Snapshot with(int checkIn, int checkOut, int newVersion) {
+            // Periods from first till last touch the new one and are merged with it
+            int first = firstEndingFrom(checkIn);
+            int last = firstStartingFrom(checkOut + 1);
+            int start = first < last ? Math.min(checkIn, starts[first]) : checkIn;
+            int end = first < last ? Math.max(checkOut, ends[last - 1]) : checkOut;
+
+            int[] newStarts = new int[starts.length - (last - first) + 1];
+            int[] newEnds = new int[newStarts.length];
+            System.arraycopy(starts, 0, newStarts, 0, first);
+            System.arraycopy(ends, 0, newEnds, 0, first);
+            newStarts[first] = start;
+            newEnds[first] = end;
+            System.arraycopy(starts, last, newStarts, first + 1, starts.length - last);
+            System.arraycopy(ends, last, newEnds, first + 1, ends.length - last);
+
+            return new Snapshot(newStarts, newEnds, bookedNights.with(checkIn, checkOut), newVersion);
+        }
+
+        Snapshot without(int checkIn, int checkOut) {
+            // The stay lies within a single period, which keeps the parts before and after it
+            int period = firstStartingFrom(checkIn + 1) - 1;
+            int start = starts[period];
+            int end = ends[period];
+            int kept = (start < checkIn ? 1 : 0) + (checkOut < end ? 1 : 0);
+
+            int[] newStarts = new int[starts.length - 1 + kept];
+            int[] newEnds = new int[newStarts.length];
+            System.arraycopy(starts, 0, newStarts, 0, period);
+            System.arraycopy(ends, 0, newEnds, 0, period);
+            int next = period;
+            if (start < checkIn) {
+                newStarts[next] = start;
+                newEnds[next++] = checkIn;
+            }
+            if (checkOut < end) {
+                newStarts[next] = checkOut;
+                newEnds[next++] = end;
+            }
+            System.arraycopy(starts, period + 1, newStarts, next, starts.length - period - 1);
+            System.arraycopy(ends, period + 1, newEnds, next, ends.length - period - 1);
+
+            return new Snapshot(newStarts, newEnds, bookedNights.without(checkIn, checkOut), version);
+        }
+
+        Snapshot withVersion(int newVersion) {
+            return new Snapshot(starts, ends, bookedNights, newVersion);
+        }
+
+        Snapshot movedTo(int horizonStart) {
+            NightBitmap moved = new NightBitmap(horizonStart);
+            int horizonEnd = horizonStart + NightBitmap.HORIZON_DAYS;
+            for (int i = firstEndingFrom(horizonStart + 1); i < starts.length && starts[i] < horizonEnd; i++) {
+                moved = moved.with(starts[i], ends[i]);
+            }
+            return new Snapshot(starts, ends, moved, version);
+        }
+
+        /**
+         * Returns the index of the first period starting on or after the supplied day.
+         */
+        private int firstStartingFrom(int day) {
+            int index = Arrays.binarySearch(starts, day);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        /**
+         * Returns the index of the first period ending on or after the supplied day.
+         */
+        private int firstEndingFrom(int day) {
+            int index = Arrays.binarySearch(ends, day);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.RoomType;
+
+import java.util.*;
+
+/**
+ * Index of rooms by their type and price, so that a filtered search only visits the rooms matching the filters.
+ * <p>Rooms of each type, and all rooms together, are kept in arrays sorted by price. The rooms up to a maximum price
+ * form a prefix of such an array, and its end is found by binary search. The arrays are immutable and replaced on
+ * every added batch of rooms, so reading is safe concurrently and never waits. Rooms are expected to be added much
+ * less often than searched for.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+final class RoomIndex {
+
+    private volatile PriceIndex allRooms;
+    private volatile Map<RoomType, PriceIndex> roomsByType;
+
+    RoomIndex() {
+        this.allRooms = PriceIndex.EMPTY;
+        this.roomsByType = new EnumMap<>(RoomType.class);
+    }
+
+    /**
+     * Adds the supplied room to the index.
+     *
+     * @param room  iRoom to add
+     */
+    void add(IRoom room) {
+        addAll(List.of(room));
+    }
+
+    /**
+     * Adds the supplied rooms to the index, rebuilding each array only once.
+     *
+     * @param rooms collection of rooms to add
+     */
+    synchronized void addAll(Collection<? extends IRoom> rooms) {
+        IRoom[] added = rooms.toArray(new IRoom[0]);
+        // Stable sort, so rooms of equal price stay in the order they were added
+        Arrays.sort(added, Comparator.comparingDouble(IRoom::getRoomPrice));
+
+        Map<RoomType, List<IRoom>> addedByType = new EnumMap<>(RoomType.class);
+        for (IRoom room: added) {
+            addedByType.computeIfAbsent(room.getRoomType(), roomType -> new ArrayList<>()).add(room);
+        }
+        Map<RoomType, PriceIndex> byType = new EnumMap<>(RoomType.class);
+        byType.putAll(roomsByType);
+        for (Map.Entry<RoomType, List<IRoom>> entry: addedByType.entrySet()) {
+            byType.put(entry.getKey(), byType.getOrDefault(entry.getKey(), PriceIndex.EMPTY)
+                    .merge(entry.getValue().toArray(new IRoom[0])));
+        }
+        roomsByType = byType;
+        allRooms = allRooms.merge(added);
+    }
+
+    /**
+     * Returns the rooms matching the supplied filters, cheapest first.
+     *
+     * @param roomType  roomType of the rooms or null for rooms of any type
+     * @param maxPrice  double, maximum price of the rooms or null for rooms of any price
+     * @return          array of matching rooms, not to be modified
+     */
+    IRoom[] candidates(RoomType roomType, Double maxPrice) {
+        PriceIndex index = roomType == null ? allRooms : roomsByType.getOrDefault(roomType, PriceIndex.EMPTY);
+        return maxPrice == null ? index.rooms : index.upTo(maxPrice);
+    }
+
+    /**
+     * Rooms sorted by price together with their prices.
+     */
+    private record PriceIndex(IRoom[] rooms, double[] prices) {
+
+        static final PriceIndex EMPTY = new PriceIndex(new IRoom[0], new double[0]);
+
+        /**
+         * Returns a new index with the supplied rooms, which are sorted by price, merged in after the rooms of
+         * equal price already indexed.
+         */
+        PriceIndex merge(IRoom[] sortedRooms) {
+            int length = rooms.length + sortedRooms.length;
+            IRoom[] newRooms = new IRoom[length];
+            double[] newPrices = new double[length];
+            int existing = 0;
+            int added = 0;
+            for (int i = 0; i < length; i++) {
+                if (added == sortedRooms.length ||
+                        existing < rooms.length && prices[existing] <= sortedRooms[added].getRoomPrice()) {
+                    newRooms[i] = rooms[existing];
+                    newPrices[i] = prices[existing++];
+                } else {
+                    newRooms[i] = sortedRooms[added++];
+                    newPrices[i] = newRooms[i].getRoomPrice();
+                }
+            }
+            return new PriceIndex(newRooms, newPrices);
+        }
+
+        IRoom[] upTo(double maxPrice) {
+            return Arrays.copyOf(rooms, endOf(maxPrice));
+        }
+
+        /**
+         * Returns the position after the last room not dearer than the supplied price.
+         */
+        private int endOf(double price) {
+            int low = 0;
+            int high = prices.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (prices[middle] <= price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.IRoom;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of the rooms found free for a stay, keyed by the epoch days of check-in and check-out. The least
+ * recently used stay is evicted once the cache is full.
+ * <p>Bookings don't touch the cached results. Instead, each night has a stamp, advanced whenever a room is booked for
+ * that night, and a stamp for all nights is advanced whenever rooms are added. Stamps are kept in a fixed array of
+ * atomic counters indexed by the epoch day modulo its size, so nights that share a counter only cost a spurious
+ * miss. A result is cached with the sum of the stamps of its nights taken before the rooms were searched, and is
+ * dropped when read if the sum has grown since, so a result computed concurrently with a booking is never served
+ * after it. A booking only increments the counters of its nights and never waits for a search.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+final class SearchCache {
+
+    private static final int NIGHT_STAMPS = 1024;
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Result> results;
+    private final AtomicLongArray nightStamps;
+    private final AtomicLong roomsStamp;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Constructor of this class.
+     *
+     * @param capacity  int, maximum number of stays to keep results for
+     */
+    SearchCache(int capacity) {
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(16, 0.75F, true);
+        this.nightStamps = new AtomicLongArray(NIGHT_STAMPS);
+        this.roomsStamp = new AtomicLong();
+    }
+
+    /**
+     * Returns the cached rooms free for the supplied stay and counts a hit, or counts a miss if there are none or
+     * they're outdated.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          list of rooms or null if the stay is not cached
+     */
+    List<IRoom> get(int checkIn, int checkOut) {
+        long current = stamp(checkIn, checkOut);
+        synchronized (this) {
+            long key = keyOf(checkIn, checkOut);
+            Result result = results.get(key);
+            if (result != null && result.stamp() < current) {
+                results.remove(key);
+                invalidations++;
+                result = null;
+            }
+            if (result == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return result.rooms();
+        }
+    }
+
+    /**
+     * Returns the stamp of the supplied stay to pass to {@link #put(int, int, List, long)} for a result computed
+     * after this call. The stamp grows whenever a room is booked for any night of the stay or rooms are added.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @return          long, current stamp of the stay
+     */
+    long stamp(int checkIn, int checkOut) {
+        long stamp = roomsStamp.get();
+        for (int day = checkIn; day < checkOut && day - checkIn < NIGHT_STAMPS; day++) {
+            stamp += nightStamps.get(day & (NIGHT_STAMPS - 1));
+        }
+        return stamp;
+    }
+
+    /**
+     * Caches the rooms free for the supplied stay unless any of its nights was booked or rooms were added since the
+     * supplied stamp was taken.
+     *
+     * @param checkIn   int, epoch day of check-in
+     * @param checkOut  int, epoch day of check-out
+     * @param rooms     list of rooms free for the stay, not modified afterwards
+     * @param stamp     long, stamp of the stay taken before the rooms were searched
+     */
+    void put(int checkIn, int checkOut, List<IRoom> rooms, long stamp) {
+        if (stamp != stamp(checkIn, checkOut)) {
+            return;
+        }
+        synchronized (this) {
+            results.put(keyOf(checkIn, checkOut), new Result(rooms, stamp));
+            if (results.size() > capacity) {
+                Iterator<Long> eldest = results.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Outdates the results of all cached stays which share a night with the supplied stay. Takes no lock, the results
+     * are dropped when they're read next.
+     *
+     * @param checkIn   int, epoch day of check-in of the booked stay
+     * @param checkOut  int, epoch day of check-out of the booked stay
+     */
+    void invalidate(int checkIn, int checkOut) {
+        for (int day = checkIn; day < checkOut && day - checkIn < NIGHT_STAMPS; day++) {
+            nightStamps.incrementAndGet(day & (NIGHT_STAMPS - 1));
+        }
+    }
+
+    /**
+     * Outdates the results of all cached stays which share a night with any of the supplied stays. The stamp of each
+     * night is advanced once however many of the stays include it. Takes no lock.
+     *
+     * @param checkIns  int array of epoch days of check-in of the booked stays
+     * @param checkOuts int array of epoch days of check-out of the booked stays
+     * @param count     int, number of stays at the start of the arrays
+     */
+    void invalidate(int[] checkIns, int[] checkOuts, int count) {
+        boolean[] booked = new boolean[NIGHT_STAMPS];
+        for (int i = 0; i < count; i++) {
+            for (int day = checkIns[i]; day < checkOuts[i] && day - checkIns[i] < NIGHT_STAMPS; day++) {
+                booked[day & (NIGHT_STAMPS - 1)] = true;
+            }
+        }
+        for (int stamp = 0; stamp < NIGHT_STAMPS; stamp++) {
+            if (booked[stamp]) {
+                nightStamps.incrementAndGet(stamp);
+            }
+        }
+    }
+
+    /**
+     * Drops the results of all cached stays.
+     */
+    void invalidateAll() {
+        roomsStamp.incrementAndGet();
+        synchronized (this) {
+            invalidations += results.size();
+            results.clear();
+        }
+    }
+
+    /**
+     * Returns the counters of this cache.
+     *
+     * @return  searchCacheStatistics with the counters at the time of this call
+     */
+    synchronized SearchCacheStatistics getStatistics() {
+        return new SearchCacheStatistics(hits, misses, evictions, invalidations, results.size());
+    }
+
+    private static long keyOf(int checkIn, int checkOut) {
+        return (long) checkIn << Integer.SIZE | (checkOut & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Rooms found free for a stay, together with the stamp of the stay taken before they were searched.
+     */
+    private record Result(List<IRoom> rooms, long stamp) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.udacity.hotel.service;
+
+/**
+ * Counters of the cache of room searches in {@link ReservationService}.
+ *
+ * @param hits          long, number of searches answered from the cache
+ * @param misses        long, number of searches which read the calendars
+ * @param evictions     long, number of results dropped because the cache was full
+ * @param invalidations long, number of results dropped because a room was booked or added
+ * @param size          int, number of results cached
+ * @author Ivan V. Zykov
+ */
+public record SearchCacheStatistics(long hits, long misses, long evictions, long invalidations, int size) {
+}
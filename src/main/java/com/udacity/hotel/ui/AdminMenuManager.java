@@ -45,6 +45,7 @@ public final class AdminMenuManager implements MenuManager {
                         consolePrinter.print("Returning to the main menu");
                         keepRunning = false;
                     }
+                    case 6 -> adminMenuService.showMetrics();
                     default -> consolePrinter.print("Please enter a number representing a menu option from above");
                 }
             } catch (NumberFormatException ex) {
@@ -1,6 +1,7 @@
 package com.udacity.hotel.ui;
 
 import com.udacity.hotel.api.AdminResource;
+import com.udacity.hotel.metrics.TimerSnapshot;
 import com.udacity.hotel.model.*;
 
 import java.util.*;
@@ -15,6 +16,7 @@ import java.util.*;
  *     <li>printing all {@link Reservation}s</li>
  *     <li>recording one or multiple new rooms with data provided by the console input</li>
  *     <li>navigating to the main menu</li>
+ *     <li>printing call counters and latencies of the timed operations</li>
  * </ul>
  *
  * @author Ivan V. Zykov
@@ -49,50 +51,61 @@ public class AdminMenuService extends MenuService {
         consolePrinter.print("3. See all Reservations");
         consolePrinter.print("4. Add a room");
         consolePrinter.print("5. Back to Main Menu");
+        consolePrinter.print("6. See performance metrics");
         consolePrinter.print("----------------------------------------");
         consolePrinter.print("Select a menu option");
     }
 
     /**
-     * Gets all customers using admin resource and if any present, prints them to the console.
+     * Gets all customers using admin resource and if any present, prints them to the console one by one.
      */
     public void showAllCustomers() {
-        Collection<Customer> allCustomers = adminResource.getAllCustomers();
-        if (allCustomers.isEmpty()) {
-            consolePrinter.print("There are no registered customers yet. You can add one in main menu");
-            return;
-        }
-        for (Customer aCustomer: allCustomers) {
-            consolePrinter.print(aCustomer);
-        }
+        printAll(adminResource.streamAllCustomers().iterator(),
+                "There are no registered customers yet. You can add one in main menu");
     }
 
     /**
-     * Gets all rooms using admin resource and if any present, prints them to the console.
+     * Gets all rooms using admin resource and if any present, prints them to the console one by one.
      */
     public void showAllRooms() {
-        Collection<IRoom> allRooms = adminResource.getAllRooms();
-        if (allRooms.isEmpty()) {
-            consolePrinter.print("There are no rooms yet. Please add some");
-            return;
-        }
-        for (IRoom aRoom: allRooms) {
-            consolePrinter.print(aRoom);
-        }
+        printAll(adminResource.streamAllRooms().iterator(), "There are no rooms yet. Please add some");
     }
 
     /**
-     * Gets all reservations using admin resource and if any present, prints them to the console.
+     * Gets all reservations using admin resource and if any present, prints them to the console one by one.
      */
     public void showAllReservations() {
-        Set<Reservation> allReservations = adminResource.getAllReservations();
-        if (allReservations.isEmpty()) {
-            consolePrinter.print("There are still no reservations");
+        printAll(adminResource.streamAllReservations().iterator(), "There are still no reservations");
+    }
+
+    /**
+     * Gets the metrics of the timed operations using admin resource and prints one line per operation, latencies in
+     * microseconds.
+     */
+    public void showMetrics() {
+        List<TimerSnapshot> metrics = adminResource.getMetrics();
+        if (metrics.isEmpty()) {
+            consolePrinter.print("No operations were timed yet");
             return;
         }
-        for (Reservation reservation: allReservations) {
-            consolePrinter.print(reservation);
+        for (TimerSnapshot timer: metrics) {
+            consolePrinter.print(String.format("%s: %d calls, %d failed, mean %.1f us, p50 %.1f us, p99 %.1f us, " +
+                    "max %.1f us", timer.name(), timer.calls(), timer.failures(), micros(timer.meanNanos()),
+                    micros(timer.p50Nanos()), micros(timer.p99Nanos()), micros(timer.maxNanos())));
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1e3D;
+    }
+
+    private <T> void printAll(Iterator<T> objects, String noneMessage) {
+        if (! objects.hasNext()) {
+            consolePrinter.print(noneMessage);
+            return;
         }
+        Iterable<T> remaining = () -> objects;
+        consolePrinter.printAll(remaining);
     }
 
     /**
@@ -0,0 +1,203 @@
+package com.udacity.hotel.ui;
+
+import com.udacity.hotel.api.AdminResource;
+import com.udacity.hotel.api.CustomerImportResult;
+import com.udacity.hotel.api.HotelResource;
+import com.udacity.hotel.model.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Executes commands read line by line, without menus and prompts, and prints one compact line per result.
+ * <p>Fields of a command are separated by whitespace, dates are written as {@code yyyy-MM-dd}. Empty lines and lines
+ * starting with {@code #} are skipped. Supported commands and their results:</p>
+ * <ul>
+ *     <li>{@code customer <email> <firstName> <lastName>} records a customer, prints {@code OK}</li>
+ *     <li>{@code room <number> <price> <SINGLE|DOUBLE>} records a room, prints {@code OK}</li>
+ *     <li>{@code import-customers <csvFile>} records the customers of the file, see
+ *     {@link AdminResource#importCustomers}, prints {@code IMPORTED <count>} followed by
+ *     {@code SKIPPED <lineOfFile> <message>} for every row not imported</li>
+ *     <li>{@code import-rooms <csvFile>} records all rooms of the file, see {@link AdminResource#importRooms},
+ *     prints {@code IMPORTED <count>}</li>
+ *     <li>{@code search <checkIn> <checkOut> [<SINGLE|DOUBLE|*> [<maxPrice>]]} prints
+ *     {@code ROOMS <count> <number>...} with the free rooms</li>
+ *     <li>{@code book <email> <roomNumber> <checkIn> <checkOut>} prints {@code BOOKED <roomNumber> <checkIn>
+ *     <checkOut>}</li>
+ *     <li>{@code reservations <email>} prints {@code RESERVATIONS <count>} followed by the reservations</li>
+ *     <li>{@code list customers|rooms|reservations} prints every recorded object followed by {@code END}</li>
+ * </ul>
+ * <p>Objects are printed as {@code CUSTOMER <email> <firstName> <lastName>}, {@code ROOM <number> <price> <type>}
+ * and {@code RESERVATION <email> <roomNumber> <checkIn> <checkOut>}. A failed command prints
+ * {@code ERROR <lineNumber> <message>} and the next commands are still executed.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class BatchCommandRunner {
+
+    private static final String ANY_ROOM_TYPE = "*";
+
+    private final HotelResource hotelResource;
+    private final AdminResource adminResource;
+    private final ConsolePrinter consolePrinter;
+
+    /**
+     * Constructor of this class.
+     *
+     * @param hotelResource     hotelResource object of the API to services with functionality for customers
+     * @param adminResource     adminResource object of the API to services with functionality for admin users
+     * @param consolePrinter    consolePrinter object that prints results
+     */
+    public BatchCommandRunner(HotelResource hotelResource, AdminResource adminResource,
+                              ConsolePrinter consolePrinter) {
+        this.hotelResource = hotelResource;
+        this.adminResource = adminResource;
+        this.consolePrinter = consolePrinter;
+    }
+
+    /**
+     * Executes every command read from the supplied reader until its end.
+     *
+     * @param reader        bufferedReader to read commands from
+     * @return              int, number of commands that failed
+     * @throws IOException  if the commands can't be read
+     */
+    public int run(BufferedReader reader) throws IOException {
+        int failures = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String command = line.strip();
+            if (command.isEmpty() || command.startsWith("#")) {
+                continue;
+            }
+            try {
+                execute(command.split("\\s+"));
+            } catch (RuntimeException ex) {
+                // Whatever a malformed line throws, the next commands are still executed
+                consolePrinter.print("ERROR " + lineNumber + " " + (ex.getMessage() == null ?
+                        ex.getClass().getSimpleName() : ex.getMessage()));
+                failures++;
+            }
+        }
+        consolePrinter.flush();
+        return failures;
+    }
+
+    private void execute(String[] fields) {
+        switch (fields[0].toLowerCase(Locale.ROOT)) {
+            case "customer" -> {
+                requireFields(fields, 4);
+                hotelResource.createACustomer(fields[1], fields[2], fields[3]);
+                consolePrinter.print("OK");
+            }
+            case "room" -> {
+                requireFields(fields, 4);
+                adminResource.addRoom(List.of(new Room(fields[1], Double.parseDouble(fields[2]),
+                        RoomType.valueOf(fields[3].toUpperCase(Locale.ROOT)))));
+                consolePrinter.print("OK");
+            }
+            case "import-customers" -> {
+                requireFields(fields, 2);
+                try (BufferedReader csv = Files.newBufferedReader(Path.of(fields[1]))) {
+                    CustomerImportResult result = adminResource.importCustomers(csv);
+                    consolePrinter.print("IMPORTED " + result.imported());
+                    for (CustomerImportResult.RowFailure failure: result.failures()) {
+                        consolePrinter.print("SKIPPED " + failure.line() + " " + failure.message());
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            case "import-rooms" -> {
+                requireFields(fields, 2);
+                try (BufferedReader csv = Files.newBufferedReader(Path.of(fields[1]))) {
+                    consolePrinter.print("IMPORTED " + adminResource.importRooms(csv));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            case "search" -> search(fields);
+            case "book" -> book(fields);
+            case "reservations" -> {
+                requireFields(fields, 2);
+                Collection<Reservation> reservations = hotelResource.getCustomersReservations(fields[1]);
+                consolePrinter.print("RESERVATIONS " + reservations.size());
+                for (Reservation reservation: reservations) {
+                    consolePrinter.print(format(reservation));
+                }
+            }
+            case "list" -> list(fields);
+            default -> throw new IllegalArgumentException("Unknown command " + fields[0]);
+        }
+    }
+
+    private void search(String[] fields) {
+        if (fields.length < 3 || fields.length > 5) {
+            throw new IllegalArgumentException("Expected: search <checkIn> <checkOut> [<roomType> [<maxPrice>]]");
+        }
+        LocalDate checkIn = LocalDate.parse(fields[1]);
+        LocalDate checkOut = LocalDate.parse(fields[2]);
+        RoomType roomType = fields.length < 4 || fields[3].equals(ANY_ROOM_TYPE) ? null :
+                RoomType.valueOf(fields[3].toUpperCase(Locale.ROOT));
+        Double maxPrice = fields.length < 5 ? null : Double.valueOf(fields[4]);
+        Collection<IRoom> rooms = roomType == null && maxPrice == null ?
+                hotelResource.findARoom(checkIn, checkOut) :
+                hotelResource.findARoom(checkIn, checkOut, roomType, maxPrice);
+
+        StringBuilder result = new StringBuilder("ROOMS ").append(rooms.size());
+        for (IRoom room: rooms) {
+            result.append(' ').append(room.getRoomNumber());
+        }
+        consolePrinter.print(result);
+    }
+
+    private void book(String[] fields) {
+        requireFields(fields, 5);
+        if (hotelResource.getCustomer(fields[1]) == null) {
+            throw new IllegalArgumentException("No customer with email " + fields[1]);
+        }
+        IRoom room = hotelResource.getRoom(fields[2]);
+        Reservation reservation = hotelResource.bookARoom(fields[1], room, LocalDate.parse(fields[3]),
+                LocalDate.parse(fields[4]));
+        consolePrinter.print("BOOKED " + room.getRoomNumber() + " " + reservation.getCheckInDate() + " " +
+                reservation.getCheckOutDate());
+    }
+
+    private void list(String[] fields) {
+        requireFields(fields, 2);
+        switch (fields[1].toLowerCase(Locale.ROOT)) {
+            case "customers" -> adminResource.streamAllCustomers().forEach(customer ->
+                    consolePrinter.print("CUSTOMER " + customer.getEmail() + " " + customer.getFirstName() + " " +
+                            customer.getLastName()));
+            case "rooms" -> adminResource.streamAllRooms().forEach(room ->
+                    consolePrinter.print("ROOM " + room.getRoomNumber() + " " + room.getRoomPrice() + " " +
+                            room.getRoomType()));
+            case "reservations" -> adminResource.streamAllReservations().forEach(reservation ->
+                    consolePrinter.print(format(reservation)));
+            default -> throw new IllegalArgumentException("Unknown list " + fields[1]);
+        }
+        consolePrinter.print("END");
+    }
+
+    private static String format(Reservation reservation) {
+        Customer customer = reservation.getCustomer();
+        return "RESERVATION " + (customer == null ? "-" : customer.getEmail()) + " " +
+                reservation.getRoom().getRoomNumber() + " " + reservation.getCheckInDate() + " " +
+                reservation.getCheckOutDate();
+    }
+
+    private static void requireFields(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException("Expected " + (count - 1) + " arguments for " + fields[0]);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.udacity.hotel.ui;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+/**
+ * Prints to the console through a large buffer, so that printing many objects takes few writes to the console.
+ * <p>Printed objects are shown only when the buffer is full or {@link #flush()} is called. To show prompts before
+ * waiting for an answer, the console input should be read through {@link #flushingBefore(InputStream)}, which
+ * flushes the buffer whenever the input is read. The printer is safe to use from multiple threads.</p>
+ *
+ * @author Ivan V. Zykov
+ */
+public final class BufferedConsolePrinter implements ConsolePrinter, Closeable {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+
+    /**
+     * Constructor of this class.
+     *
+     * @param output        outputStream to print to
+     * @param charset       charset to encode printed text with
+     * @param bufferSize    int, number of characters kept before writing them to the output
+     */
+    public BufferedConsolePrinter(OutputStream output, Charset charset, int bufferSize) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, charset), bufferSize);
+    }
+
+    /**
+     * Creates a printer which writes directly to the standard output, bypassing the line flushing of
+     * {@link System#out}.
+     *
+     * @return  bufferedConsolePrinter printing to the standard output
+     */
+    public static BufferedConsolePrinter ofStandardOutput() {
+        return new BufferedConsolePrinter(new FileOutputStream(FileDescriptor.out), Charset.defaultCharset(),
+                DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Adds supplied object to the buffer, followed by a line separator.
+     *
+     * @param text  object of generic type to print
+     * @param <T>   type of the object to print
+     */
+    @Override
+    public synchronized <T> void print(T text) {
+        try {
+            writer.write(String.valueOf(text));
+            writer.write(System.lineSeparator());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Adds every supplied object to the buffer, holding the lock of this printer only once.
+     *
+     * @param objects   iterable over objects to print
+     */
+    @Override
+    public synchronized void printAll(Iterable<?> objects) {
+        for (Object object: objects) {
+            print(object);
+        }
+    }
+
+    /**
+     * Writes the buffered objects to the console.
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Wraps the supplied input, so that this printer is flushed every time the input is read.
+     *
+     * @param input inputStream to read the console input from
+     * @return      inputStream reading the same input
+     */
+    public InputStream flushingBefore(InputStream input) {
+        return new FilterInputStream(input) {
+            @Override
+            public int read() throws IOException {
+                flush();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                flush();
+                return super.read(bytes, offset, length);
+            }
+        };
+    }
+
+    /**
+     * Flushes the buffered objects and closes the output.
+     *
+     * @throws IOException  if the output can't be written or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -12,4 +12,22 @@ public interface ConsolePrinter {
      * @param <T>   type of the object to print
      */
     <T> void print(T text);
+
+    /**
+     * Prints every supplied object to the console, one per line.
+     *
+     * @param objects   iterable over objects to print
+     */
+    default void printAll(Iterable<?> objects) {
+        for (Object object: objects) {
+            print(object);
+        }
+    }
+
+    /**
+     * Makes sure everything printed so far is shown on the console. Printers which don't buffer their output have
+     * nothing to do.
+     */
+    default void flush() {
+    }
 }
@@ -4,12 +4,15 @@ import com.udacity.hotel.api.HotelResource;
 import com.udacity.hotel.model.Customer;
 import com.udacity.hotel.model.IRoom;
 import com.udacity.hotel.model.Reservation;
+import com.udacity.hotel.service.Availability;
 
 import java.text.DateFormat;
 import java.text.ParseException;
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Optional;
 import java.util.Scanner;
 import java.util.regex.Pattern;
 
@@ -29,7 +32,10 @@ import java.util.regex.Pattern;
  */
 public class MainMenuService extends MenuService {
 
-    private final Date now;
+    private static final int ALTERNATIVES = 1;
+    private static final int SHIFT_DAYS = 7;
+
+    private final LocalDate today;
     private final HotelResource hotelResource;
     private final DateFormat simpleDateFormat;
     private final ConsolePrinter consolePrinter;
@@ -37,16 +43,16 @@ public class MainMenuService extends MenuService {
     /**
      * Constructor of this class.
      *
-     * @param now               date object of the current date
+     * @param today             localDate of the current date
      * @param hotelResource     hotelResource object of the API to services with functionality for regular users
      * @param scanner           scanner object that reads user's input
      * @param simpleDateFormat  simpleDateFormat object that helps to parse dates from user's input
      * @param consolePrinter    consolePrinter object that prints objects to the console
      */
-    public MainMenuService (Date now, HotelResource hotelResource, Scanner scanner, DateFormat simpleDateFormat,
-                            ConsolePrinter consolePrinter) {
+    public MainMenuService (LocalDate today, HotelResource hotelResource, Scanner scanner,
+                            DateFormat simpleDateFormat, ConsolePrinter consolePrinter) {
         super(scanner);
-        this.now = now;
+        this.today = today;
         this.hotelResource = hotelResource;
         this.simpleDateFormat = simpleDateFormat;
         this.consolePrinter = consolePrinter;
@@ -198,27 +204,32 @@ public class MainMenuService extends MenuService {
             // Read check-in date
             consolePrinter.print("Enter check-in date in format mm/dd/yyyy " +
                     "Example: 05/30/2022");
-            Date checkIn = readDate();
+            LocalDate checkIn = readDate();
 
             // Read check-out date
             consolePrinter.print("Enter check-out date in format mm/dd/yyyy " +
                     "Example: 05/30/2022");
-            Date checkOut = readDate();
+            LocalDate checkOut = readDate();
 
             // Check that check-in is before check-out
-            if (checkIn.after(checkOut)) {
+            if (checkIn.isAfter(checkOut)) {
                 consolePrinter.print("Your check-in date is later than checkout " +
                         "date. Please reenter dates");
                 continue;
             }
+            if (checkIn.isEqual(checkOut)) {
+                consolePrinter.print("Your stay should be at least one night. Please reenter dates");
+                continue;
+            }
 
             // Find available rooms
-            Collection<IRoom> availableRooms = findAvailableRooms(checkIn, checkOut);
-            if (availableRooms.isEmpty()) {
+            Optional<Availability.Window> window = findAvailableRooms(checkIn, checkOut);
+            if (window.isEmpty()) {
                 // Redirect back to main menu
                 keepFindingAndReservingARoom = false;
                 continue;
             }
+            Collection<IRoom> availableRooms = window.get().rooms();
 
             // Print available rooms for initial dates
             consolePrinter.print("Following rooms are available for booking:");
@@ -257,7 +268,7 @@ public class MainMenuService extends MenuService {
             // Book a room
             IRoom roomObjectToBook = hotelResource.getRoom(roomNumberToBook);
             Reservation newReservation = hotelResource.bookARoom(email, roomObjectToBook,
-                    checkIn, checkOut);
+                    window.get().checkIn(), window.get().checkOut());
 
             // Print reservation
             consolePrinter.print(newReservation);
@@ -267,20 +278,21 @@ public class MainMenuService extends MenuService {
         }
     }
 
-    private Date readDate() {
+    private LocalDate readDate() {
         boolean keepReadingDate = true;
-        Date date = null;
+        LocalDate date = null;
         while (keepReadingDate) {
             String input = scanner.nextLine();
             if (isValidDate(input)) {
                 try {
                     simpleDateFormat.setLenient(false);
-                    date = simpleDateFormat.parse(input);
+                    Date parsedDate = simpleDateFormat.parse(input);
+                    date = parsedDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
                 } catch (ParseException ex) {
                     consolePrinter.print("Try entering the date again");
                     continue;
                 }
-                if (! date.before(now)) {
+                if (! date.isBefore(today)) {
                     keepReadingDate = false;
                 } else {
                     consolePrinter.print("This date is in the past. Please reenter the date");
@@ -307,41 +319,33 @@ public class MainMenuService extends MenuService {
         return true;
     }
 
-    private Collection<IRoom> findAvailableRooms(Date checkIn, Date checkOut) {
-        Collection<IRoom> availableRooms = hotelResource.findARoom(checkIn,
-                checkOut);
+    /**
+     * Finds rooms for the supplied dates and, if none is free, for the dates shifted by a week. Both windows are
+     * searched for at once.
+     *
+     * @return  window with free rooms, empty if no room is free in either window
+     */
+    private Optional<Availability.Window> findAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
+        Availability availability = hotelResource.findAvailability(checkIn, checkOut, ALTERNATIVES, SHIFT_DAYS);
+        Optional<Availability.Window> window = availability.firstAvailable();
 
-        if (availableRooms.isEmpty()) {
+        if (window.isEmpty() || ! window.get().checkIn().equals(checkIn)) {
             consolePrinter.print("No rooms found for selected dates. Trying to find" +
                     " a room in the next 7 days");
 
-            // Shift dates
-            checkIn = shiftDate(checkIn);
-            checkOut = shiftDate(checkOut);
-
-            // Find rooms available for shifted dates
-            availableRooms = hotelResource.findARoom(checkIn, checkOut);
-
-            if (availableRooms.isEmpty()) {
+            if (window.isEmpty()) {
                 consolePrinter.print("No free rooms in the next 7 days found. Try " +
                         "different dates");
             } else {
                 // Print shifted dates and available rooms
-                consolePrinter.print("You can book following rooms from " + checkIn +
-                        " till " + checkOut + ":");
-                for (IRoom aRoom: availableRooms) {
+                consolePrinter.print("You can book following rooms from " + window.get().checkIn() +
+                        " till " + window.get().checkOut() + ":");
+                for (IRoom aRoom: window.get().rooms()) {
                     consolePrinter.print(aRoom);
                 }
             }
         }
-        return availableRooms;
-    }
-
-    private Date shiftDate(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.add(Calendar.DATE, 7);
-        return cal.getTime();
+        return window;
     }
 
     private boolean stopBooking() {
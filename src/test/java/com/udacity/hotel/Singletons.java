@@ -0,0 +1,27 @@
+package com.udacity.hotel;
+
+import java.lang.reflect.Field;
+
+/**
+ * Resets the lazily created singletons of the application so that every test starts with a fresh instance.
+ *
+ * @author Ivan V. Zykov
+ */
+public final class Singletons {
+
+    private Singletons() {
+    }
+
+    /**
+     * Forgets the instance held by a singleton class, the next {@code getInstance} call creates a new one.
+     *
+     * @param singletonClass class keeping its only instance in the static field {@code instance}
+     * @throws NoSuchFieldException   if the class has no such field
+     * @throws IllegalAccessException if the field can't be made accessible
+     */
+    public static void reset(Class<?> singletonClass) throws NoSuchFieldException, IllegalAccessException {
+        Field instance = singletonClass.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+}
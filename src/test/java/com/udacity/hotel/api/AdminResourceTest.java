@@ -1,13 +1,19 @@
 package com.udacity.hotel.api;
 
+import com.udacity.hotel.Singletons;
 import com.udacity.hotel.model.*;
 import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.OccupancyReport;
+import com.udacity.hotel.service.Page;
 import com.udacity.hotel.service.ReservationService;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,30 +25,19 @@ class AdminResourceTest {
     private IRoom room1;
     private IRoom room2;
 
-    private static CustomerService customerService;
-    private static ReservationService reservationService;
-
-    @BeforeAll
-    static void initAll() {
-        customerService = CustomerService.getInstance();
-        var reservationFactory = new ReservationFactory();
-        reservationService = ReservationService.getInstance(reservationFactory);
-    }
+    private CustomerService customerService;
+    private ReservationService reservationService;
 
     @BeforeEach
     void reset() throws NoSuchFieldException, IllegalAccessException {
         // Reset CustomerService singleton
-        Field customers = CustomerService.class.getDeclaredField("customers");
-        customers.setAccessible(true);
-        customers.set(customerService, new HashMap<>());
+        Singletons.reset(CustomerService.class);
+        customerService = CustomerService.getInstance();
 
         // Reset ReservationService singleton
-        Field reservations = ReservationService.class.getDeclaredField("reservations");
-        reservations.setAccessible(true);
-        reservations.set(reservationService, new HashSet<>());
-        Field rooms = ReservationService.class.getDeclaredField("rooms");
-        rooms.setAccessible(true);
-        rooms.set(reservationService, new HashMap<>());
+        Singletons.reset(ReservationService.class);
+        var reservationFactory = new ReservationFactory();
+        reservationService = ReservationService.getInstance(reservationFactory);
 
         // Instantiate SUT
         adminResource = new AdminResource(customerService, reservationService);
@@ -74,13 +69,107 @@ class AdminResourceTest {
         );
     }
 
+    @Test
+    void addRoom_duplicate_noneAdded() {
+        reservationService.addRoom(room2);
+
+        assertThrows(IllegalArgumentException.class, () -> adminResource.addRoom(List.of(room1, room2)));
+        assertEquals(List.of(room2), adminResource.streamAllRooms().toList());
+    }
+
+    @Test
+    void importRooms() throws IOException {
+        String csv = String.join("\n",
+                "number,price,type",
+                "1, 100.0, SINGLE",
+                "",
+                "# Suites",
+                "2,200,double");
+
+        int imported = adminResource.importRooms(new BufferedReader(new StringReader(csv)));
+
+        assertAll(
+                () -> assertEquals(2, imported),
+                () -> assertEquals(List.of(room1, room2), adminResource.streamAllRooms().toList())
+        );
+    }
+
+    @Test
+    void importRooms_badLine_noneAdded() {
+        String csv = String.join("\n",
+                "1,100.0,SINGLE",
+                "2,200.0,TRIPLE");
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> adminResource.importRooms(new BufferedReader(new StringReader(csv))));
+
+        assertAll(
+                () -> assertTrue(exception.getMessage().startsWith("Line 2: ")),
+                () -> assertTrue(reservationService.getRooms().isEmpty())
+        );
+    }
+
+    @Test
+    void importCustomers() throws IOException {
+        customerService.addCustomer("i@z.com", "I", "Z");
+        String csv = String.join("\n",
+                "email,firstName,lastName",
+                "j@r.com,J,R",
+                "i@z.com,I,Z",
+                "not-an-email,A,B",
+                "a@b.com,A",
+                "j@r.com,J,Other",
+                "c@d.com, C , D ");
+
+        CustomerImportResult result = adminResource.importCustomers(new BufferedReader(new StringReader(csv)));
+
+        assertAll(
+                () -> assertEquals(2, result.imported()),
+                () -> assertEquals(List.of(
+                        new CustomerImportResult.RowFailure(3, "Customer with this email is already registered."),
+                        new CustomerImportResult.RowFailure(4, "Email is of wrong format. Please correct your email."),
+                        new CustomerImportResult.RowFailure(5, "Row should have 3 fields"),
+                        new CustomerImportResult.RowFailure(6, "Customer with this email is already registered.")),
+                        result.failures()),
+                () -> assertEquals("C", customerService.getCustomer("c@d.com").getFirstName()),
+                () -> assertEquals("J", customerService.getCustomer("j@r.com").getFirstName())
+        );
+    }
+
     @Test
     void getAllRooms() {
         reservationService.addRoom(room1);
         reservationService.addRoom(room2);
 
-        List<IRoom> expected = List.of(room1, room2);
-        assertEquals(expected, adminResource.getAllRooms());
+        Collection<IRoom> allRooms = adminResource.getAllRooms();
+        assertAll(
+                () -> assertEquals(2, allRooms.size()),
+                () -> assertTrue(allRooms.containsAll(List.of(room1, room2))),
+                () -> assertThrows(UnsupportedOperationException.class, () -> allRooms.remove(room1))
+        );
+    }
+
+    @Test
+    void getAllRooms_paged() {
+        reservationService.addRoom(room1);
+        reservationService.addRoom(room2);
+
+        Page<IRoom> first = adminResource.getAllRooms(Page.FIRST, 1);
+        Page<IRoom> second = adminResource.getAllRooms(first.nextCursor(), 1);
+        assertAll(
+                () -> assertEquals(List.of(room1), first.items()),
+                () -> assertTrue(first.hasNext()),
+                () -> assertEquals(List.of(room2), second.items()),
+                () -> assertFalse(second.hasNext())
+        );
+    }
+
+    @Test
+    void streamAllRooms() {
+        reservationService.addRoom(room1);
+        reservationService.addRoom(room2);
+
+        assertEquals(List.of(room1, room2), adminResource.streamAllRooms().toList());
     }
 
     @Test
@@ -103,18 +192,76 @@ class AdminResourceTest {
         );
     }
 
+    @Test
+    void getAllCustomers_pagedAndStreamed() {
+        customerService.addCustomer("i@z.com", "I", "Z");
+        customerService.addCustomer("j@r.com", "J", "R");
+        var iZ = new Customer("I", "Z", "i@z.com");
+        var jR = new Customer("J", "R", "j@r.com");
+
+        Page<Customer> page = adminResource.getAllCustomers(Page.FIRST, 10);
+        assertAll(
+                () -> assertEquals(List.of(iZ, jR), page.items()),
+                () -> assertFalse(page.hasNext()),
+                () -> assertEquals(List.of(iZ, jR), adminResource.streamAllCustomers().toList())
+        );
+    }
+
     @Test
     void getAllReservations() {
         var customer = new Customer("I", "Z", "i@z.com");
-        Calendar cal = Calendar.getInstance();
         final int year = 2099;
-        final int month = Calendar.MAY;
-        cal.set(year, month, 20);
-        Date checkIn = cal.getTime();
-        cal.set(year, month, 27);
-        Date checkOut = cal.getTime();
+        final Month month = Month.MAY;
+        LocalDate checkIn = LocalDate.of(year, month, 20);
+        LocalDate checkOut = LocalDate.of(year, month, 27);
+        reservationService.addRoom(room1);
 
         Set<Reservation> expected = Set.of(reservationService.reserveARoom(customer, room1, checkIn, checkOut));
         assertEquals(expected, adminResource.getAllReservations());
     }
+
+    @Test
+    void getAllReservations_pagedAndStreamed() {
+        var customer = new Customer("I", "Z", "i@z.com");
+        LocalDate checkIn = LocalDate.of(2099, Month.MAY, 20);
+        reservationService.addRooms(List.of(room1, room2));
+        Reservation first = reservationService.reserveARoom(customer, room1, checkIn, checkIn.plusDays(1));
+        Reservation second = reservationService.reserveARoom(customer, room2, checkIn, checkIn.plusDays(1));
+        Reservation third = reservationService.reserveARoom(customer, room1, checkIn.plusDays(1),
+                checkIn.plusDays(2));
+
+        Page<Reservation> firstPage = adminResource.getAllReservations(Page.FIRST, 2);
+        Page<Reservation> secondPage = adminResource.getAllReservations(firstPage.nextCursor(), 2);
+        assertAll(
+                () -> assertEquals(List.of(first, second), firstPage.items()),
+                () -> assertEquals(List.of(third), secondPage.items()),
+                () -> assertFalse(secondPage.hasNext()),
+                () -> assertEquals(List.of(first, second, third), adminResource.streamAllReservations().toList())
+        );
+    }
+
+    @Test
+    void getAllReservations_invalidPage() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> adminResource.getAllReservations(-1, 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> adminResource.getAllReservations(Page.FIRST, 0))
+        );
+    }
+
+    @Test
+    void getOccupancyReport() {
+        reservationService.addRoom(room1);
+        var customer = new Customer("I", "Z", "i@z.com");
+        LocalDate from = LocalDate.of(2099, Month.MAY, 1);
+        reservationService.reserveARoom(customer, room1, from, from.plusDays(2));
+
+        OccupancyReport report = adminResource.getOccupancyReport(from, from.plusDays(4), 50.0D);
+
+        assertAll(
+                () -> assertEquals(0.5D, report.occupancy()),
+                () -> assertEquals(Map.of(RoomType.SINGLE, 0.5D), report.occupancyByRoomType()),
+                () -> assertEquals(1, report.stays())
+        );
+    }
 }
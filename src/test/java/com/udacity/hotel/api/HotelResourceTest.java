@@ -1,6 +1,8 @@
 package com.udacity.hotel.api;
 
 import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.Availability;
+import com.udacity.hotel.service.BookingPipeline;
 import com.udacity.hotel.service.CustomerService;
 import com.udacity.hotel.service.ReservationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,10 +11,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.Collection;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,8 +36,8 @@ class HotelResourceTest {
     private String email;
     private String roomNumber;
     private IRoom room;
-    private Date checkIn;
-    private Date checkOut;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
 
     @BeforeEach
     void init() {
@@ -43,13 +47,10 @@ class HotelResourceTest {
         email = "i@z.com";
         roomNumber = "101";
         room = new Room(roomNumber, 10.0D, RoomType.SINGLE);
-        Calendar cal = Calendar.getInstance();
         final int year = 2099;
-        final int month = Calendar.MAY;
-        cal.set(year, month, 20);
-        checkIn = cal.getTime();
-        cal.set(year, month, 27);
-        checkOut = cal.getTime();
+        final Month month = Month.MAY;
+        checkIn = LocalDate.of(year, month, 20);
+        checkOut = LocalDate.of(year, month, 27);
     }
 
     @Test
@@ -103,4 +104,55 @@ class HotelResourceTest {
         assertEquals(1, availableRooms.size());
         assertTrue(availableRooms.contains(room));
     }
+
+    @Test
+    void findARoom_filtered() {
+        when(reservationService.findRooms(checkIn, checkOut, RoomType.SINGLE, 50.0D)).thenReturn(List.of(room));
+        Collection<IRoom> availableRooms = hotelResource.findARoom(checkIn, checkOut, RoomType.SINGLE, 50.0D);
+        assertEquals(List.of(room), availableRooms);
+    }
+
+    @Test
+    void findAvailability() {
+        var availability = new Availability(List.of(new Availability.Window(checkIn, checkOut, List.of(room))));
+        when(reservationService.findAvailability(checkIn, checkOut, 0, 7)).thenReturn(availability);
+        assertEquals(availability, hotelResource.findAvailability(checkIn, checkOut, 0, 7));
+    }
+
+    @Test
+    void bookARoomAsync_withoutPipeline() throws Exception {
+        var customer = new Customer(firstName, lastName, email);
+        Reservation reservation = new ReservationFactory().create(customer, room, checkIn, checkOut);
+        when(customerService.getCustomer(email)).thenReturn(customer);
+        when(reservationService.reserveARoom(customer, room, checkIn, checkOut)).thenReturn(reservation);
+
+        assertEquals(reservation, hotelResource.bookARoomAsync(email, room, checkIn, checkOut).get());
+    }
+
+    @Test
+    void bookARoomAsync_withoutPipeline_failed() {
+        var customer = new Customer(firstName, lastName, email);
+        when(customerService.getCustomer(email)).thenReturn(customer);
+        var failure = new IllegalArgumentException("This room is already reserved for these days");
+        when(reservationService.reserveARoom(customer, room, checkIn, checkOut)).thenThrow(failure);
+
+        CompletableFuture<Reservation> reservation = hotelResource.bookARoomAsync(email, room, checkIn, checkOut);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, reservation::get);
+        assertSame(failure, exception.getCause());
+    }
+
+    @Test
+    void bookARoomAsync_withPipeline() {
+        var bookingPipeline = mock(BookingPipeline.class);
+        var customer = new Customer(firstName, lastName, email);
+        Reservation reservation = new ReservationFactory().create(customer, room, checkIn, checkOut);
+        when(customerService.getCustomer(email)).thenReturn(customer);
+        when(bookingPipeline.submit(customer, room, checkIn, checkOut))
+                .thenReturn(CompletableFuture.completedFuture(reservation));
+        var pipelinedResource = new HotelResource(customerService, reservationService, bookingPipeline);
+
+        assertEquals(reservation, pipelinedResource.bookARoomAsync(email, room, checkIn, checkOut).join());
+        verify(reservationService, never()).reserveARoom(any(), any(), any(), any());
+    }
 }
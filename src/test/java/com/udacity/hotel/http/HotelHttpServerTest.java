@@ -0,0 +1,175 @@
+package com.udacity.hotel.http;
+
+import com.udacity.hotel.Singletons;
+import com.udacity.hotel.api.AdminResource;
+import com.udacity.hotel.api.HotelResource;
+import com.udacity.hotel.model.ReservationFactory;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelHttpServerTest {
+
+    private HotelHttpServer hotelHttpServer;
+    private HttpClient httpClient;
+    private URI baseUri;
+
+    @BeforeEach
+    void init() throws NoSuchFieldException, IllegalAccessException, IOException {
+        Singletons.reset(CustomerService.class);
+        CustomerService customerService = CustomerService.getInstance();
+        Singletons.reset(ReservationService.class);
+        ReservationService reservationService = ReservationService.getInstance(new ReservationFactory());
+
+        hotelHttpServer = HotelHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                new HotelResource(customerService, reservationService),
+                new AdminResource(customerService, reservationService));
+        httpClient = HttpClient.newHttpClient();
+        baseUri = URI.create("http://localhost:" + hotelHttpServer.getAddress().getPort());
+    }
+
+    @AfterEach
+    void close() {
+        hotelHttpServer.close();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(baseUri.resolve(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void assertResponse(int status, String body, HttpResponse<String> response) {
+        assertAll(
+                () -> assertEquals(status, response.statusCode()),
+                () -> assertEquals(body, response.body())
+        );
+    }
+
+    @Test
+    void bookingFlow() throws IOException, InterruptedException {
+        assertResponse(201, "{\"number\":\"1\",\"price\":100.0,\"type\":\"SINGLE\",\"free\":false}",
+                post("/admin/rooms", "{\"number\":\"1\",\"price\":100,\"type\":\"single\"}"));
+        assertResponse(201, "{\"email\":\"i@z.com\",\"firstName\":\"I\",\"lastName\":\"Z\"}",
+                post("/customers", "{\"email\":\"i@z.com\",\"firstName\":\"I\",\"lastName\":\"Z\"}"));
+        assertResponse(200, "[{\"number\":\"1\",\"price\":100.0,\"type\":\"SINGLE\",\"free\":false}]",
+                get("/rooms?checkIn=2099-05-20&checkOut=2099-05-27&type=SINGLE&maxPrice=100"));
+
+        String reservation = "{\"email\":\"i@z.com\",\"room\":\"1\",\"checkIn\":\"2099-05-20\"," +
+                "\"checkOut\":\"2099-05-27\"}";
+        assertResponse(201, reservation, post("/reservations", reservation));
+        assertResponse(200, "[]", get("/rooms?checkIn=2099-05-20&checkOut=2099-05-27"));
+        assertResponse(200, "[" + reservation + "]", get("/customers/i%40z.com/reservations"));
+        assertResponse(200, "{\"items\":[" + reservation + "],\"nextCursor\":1,\"hasNext\":false}",
+                get("/admin/reservations?cursor=0&limit=10"));
+        assertResponse(400, "{\"error\":\"This room is already reserved for these days\"}",
+                post("/reservations", reservation));
+    }
+
+    @Test
+    void adminPages() throws IOException, InterruptedException {
+        post("/customers", "{\"email\":\"i@z.com\",\"firstName\":\"I\",\"lastName\":\"Z\"}");
+        post("/customers", "{\"email\":\"j@r.com\",\"firstName\":\"J\",\"lastName\":\"R\"}");
+
+        assertResponse(200, "{\"items\":[{\"email\":\"i@z.com\",\"firstName\":\"I\",\"lastName\":\"Z\"}]," +
+                "\"nextCursor\":1,\"hasNext\":true}", get("/admin/customers?limit=1"));
+        assertResponse(200, "{\"items\":[{\"email\":\"j@r.com\",\"firstName\":\"J\",\"lastName\":\"R\"}]," +
+                "\"nextCursor\":2,\"hasNext\":false}", get("/admin/customers?cursor=1&limit=1"));
+        assertResponse(200, "{\"items\":[],\"nextCursor\":0,\"hasNext\":false}", get("/admin/rooms"));
+    }
+
+    @Test
+    void metrics() throws IOException, InterruptedException {
+        get("/rooms?checkIn=2099-05-20&checkOut=2099-05-27");
+
+        HttpResponse<String> response = get("/admin/metrics");
+        assertAll(
+                () -> assertEquals(200, response.statusCode()),
+                () -> assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain")),
+                () -> assertTrue(response.body().contains("hotel_hotel_resource_find_a_room_calls_total "))
+        );
+    }
+
+    @Test
+    void errors() throws IOException, InterruptedException {
+        assertAll(
+                () -> assertEquals(404, get("/customers/nobody@z.com").statusCode()),
+                () -> assertEquals(404, get("/roomsX").statusCode()),
+                () -> assertEquals(404, get("/admin/guests").statusCode()),
+                () -> assertEquals(405, get("/reservations").statusCode()),
+                () -> assertResponse(400, "{\"error\":\"Missing checkOut\"}", get("/rooms?checkIn=2099-05-20")),
+                () -> assertResponse(400, "{\"error\":\"Malformed JSON at position 1\"}", post("/customers", "{")),
+                () -> assertResponse(400, "{\"error\":\"No customer with email i@z.com\"}", post("/reservations",
+                        "{\"email\":\"i@z.com\",\"room\":\"1\",\"checkIn\":\"2099-05-20\"," +
+                                "\"checkOut\":\"2099-05-27\"}")),
+                () -> assertEquals(400, get("/admin/rooms?limit=0").statusCode()),
+                () -> assertResponse(400, "{\"error\":\"Date +1000000-01-01 should be between 0001-01-01 and " +
+                        "9999-12-31\"}", get("/rooms?checkIn=%2B1000000-01-01&checkOut=%2B1000000-01-08")),
+                () -> assertEquals(400, get("/rooms?checkIn=-999999999-01-01&checkOut=2099-05-27").statusCode()),
+                () -> assertResponse(400, "{\"error\":\"Price of room 1 should be a finite non-negative number\"}",
+                        post("/admin/rooms", "{\"number\":\"1\",\"price\":-1,\"type\":\"single\"}")),
+                () -> assertEquals(400, post("/admin/rooms",
+                        "{\"number\":\"1\",\"price\":\"NaN\",\"type\":\"single\"}").statusCode())
+        );
+    }
+
+    @Test
+    void unknownPaths_notFound_knownPathsWithOtherMethod_notAllowed() throws IOException, InterruptedException {
+        post("/customers", "{\"email\":\"i@z.com\",\"firstName\":\"I\",\"lastName\":\"Z\"}");
+
+        assertAll(
+                () -> assertEquals(404, post("/customers/nobody@z.com", "{}").statusCode()),
+                () -> assertEquals(404, post("/customers/nobody@z.com/reservations", "{}").statusCode()),
+                () -> assertEquals(404, get("/customers/i@z.com/bookings").statusCode()),
+                () -> assertEquals(404, post("/admin/guests", "{}").statusCode()),
+                () -> assertEquals(405, get("/customers").statusCode()),
+                () -> assertEquals(405, post("/customers/i@z.com", "{}").statusCode()),
+                () -> assertEquals(405, post("/customers/i@z.com/reservations", "{}").statusCode()),
+                () -> assertEquals(405, post("/admin/customers", "{}").statusCode())
+        );
+    }
+
+    @Test
+    void roomType_turkishLocale_parsed() throws IOException, InterruptedException {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertAll(
+                    () -> assertEquals(201, post("/admin/rooms",
+                            "{\"number\":\"1\",\"price\":100,\"type\":\"single\"}").statusCode()),
+                    () -> assertEquals(200,
+                            get("/rooms?checkIn=2099-05-20&checkOut=2099-05-27&type=single").statusCode())
+            );
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void newRequestExecutor_runsTasks() throws Exception {
+        ExecutorService executor = HotelHttpServer.newRequestExecutor();
+        try {
+            assertEquals(1, executor.submit(() -> 1).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
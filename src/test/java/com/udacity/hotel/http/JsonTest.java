@@ -0,0 +1,49 @@
+package com.udacity.hotel.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void quote_escapes() {
+        assertAll(
+                () -> assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", Json.quote("a\"b\\c\nd\u0001")),
+                () -> assertEquals("null", Json.quote(null))
+        );
+    }
+
+    @Test
+    void array() {
+        assertAll(
+                () -> assertEquals("[]", Json.array(List.of(), Json::quote)),
+                () -> assertEquals("[\"a\",\"b\"]", Json.array(List.of("a", "b"), Json::quote))
+        );
+    }
+
+    @Test
+    void parseObject() {
+        Map<String, String> fields = Json.parseObject(
+                " { \"email\" : \"i@z.com\", \"price\":10.5, \"free\":true, \"note\":null, \"name\":\"I\\\"\\u0041\" } ");
+
+        assertEquals(Map.of("email", "i@z.com", "price", "10.5", "free", "true", "name", "I\"A"), fields);
+    }
+
+    @Test
+    void parseObject_empty() {
+        assertEquals(Map.of(), Json.parseObject("{}"));
+    }
+
+    @ParameterizedTest(name = "[{index}] JSON: {0}")
+    @ValueSource(strings = {"", "[]", "{", "{\"a\"}", "{\"a\":}", "{\"a\":1,}", "{\"a\":1} x", "{\"a\":\"b",
+            "{\"a\":{\"b\":1}}", "{\"a\":\"\\u12\"}"})
+    void parseObject_malformed(String json) {
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject(json));
+    }
+}
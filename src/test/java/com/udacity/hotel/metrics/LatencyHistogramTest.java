@@ -0,0 +1,43 @@
+package com.udacity.hotel.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @ParameterizedTest(name = "[{index}] Nanos: {0}")
+    @ValueSource(longs = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE})
+    void bucketOf_boundsHoldValueWithinPrecision(long nanos) {
+        int bucket = LatencyHistogram.bucketOf(nanos);
+        long upperBound = LatencyHistogram.upperBoundOf(bucket);
+
+        assertAll(
+                () -> assertTrue(upperBound >= nanos),
+                () -> assertTrue(upperBound - nanos <= nanos / LatencyHistogram.SUB_BUCKETS),
+                () -> assertTrue(bucket == 0 || LatencyHistogram.upperBoundOf(bucket - 1) < nanos)
+        );
+    }
+
+    @Test
+    void quantile_empty() {
+        assertEquals(0, new LatencyHistogram().quantile(0.99D));
+    }
+
+    @Test
+    void quantile() {
+        var histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+        histogram.record(-5);
+
+        assertAll(
+                () -> assertEquals(500_000, histogram.quantile(0.5D), 500_000 / LatencyHistogram.SUB_BUCKETS),
+                () -> assertEquals(990_000, histogram.quantile(0.99D), 990_000 / LatencyHistogram.SUB_BUCKETS),
+                () -> assertEquals(0, histogram.quantile(0.0D))
+        );
+    }
+}
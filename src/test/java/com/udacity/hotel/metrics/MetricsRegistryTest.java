@@ -0,0 +1,59 @@
+package com.udacity.hotel.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void getInstance() {
+        assertSame(MetricsRegistry.getInstance(), MetricsRegistry.getInstance());
+    }
+
+    @Test
+    void timer_sameForSameName() {
+        var metricsRegistry = new MetricsRegistry();
+
+        assertSame(metricsRegistry.timer("find_rooms"), metricsRegistry.timer("find_rooms"));
+    }
+
+    @Test
+    void snapshot_countsCallsAndFailures() {
+        var metricsRegistry = new MetricsRegistry();
+        Timer timer = metricsRegistry.timer("b_operation");
+        metricsRegistry.timer("a_operation");
+        long start = System.nanoTime();
+        timer.record(start, false);
+        timer.record(start, true);
+
+        List<TimerSnapshot> snapshots = metricsRegistry.snapshot();
+        TimerSnapshot snapshot = snapshots.get(1);
+        assertAll(
+                () -> assertEquals(List.of("a_operation", "b_operation"),
+                        snapshots.stream().map(TimerSnapshot::name).toList()),
+                () -> assertEquals(0, snapshots.get(0).meanNanos()),
+                () -> assertEquals(2, snapshot.calls()),
+                () -> assertEquals(1, snapshot.failures()),
+                () -> assertTrue(snapshot.maxNanos() >= snapshot.meanNanos()),
+                () -> assertTrue(snapshot.p99Nanos() >= snapshot.p50Nanos())
+        );
+    }
+
+    @Test
+    void dump() {
+        var metricsRegistry = new MetricsRegistry();
+        metricsRegistry.timer("find_rooms").record(System.nanoTime(), true);
+
+        String dump = metricsRegistry.dump();
+        assertAll(
+                () -> assertTrue(dump.contains("# TYPE hotel_find_rooms_calls_total counter\n")),
+                () -> assertTrue(dump.contains("hotel_find_rooms_calls_total 1\n")),
+                () -> assertTrue(dump.contains("hotel_find_rooms_failures_total 1\n")),
+                () -> assertTrue(dump.contains("hotel_find_rooms_seconds{quantile=\"0.99\"} ")),
+                () -> assertTrue(dump.contains("hotel_find_rooms_seconds_count 1\n"))
+        );
+    }
+}
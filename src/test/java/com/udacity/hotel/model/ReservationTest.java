@@ -6,8 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.Month;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,24 +16,20 @@ class ReservationTest {
 
     private Reservation reservation;
 
-    private static Calendar cal;
     private final static int YEAR = 2099;
-    private final static int MONTH = Calendar.MAY;
+    private final static Month MONTH = Month.MAY;
     private final static int IN_DATE = 20;
     private final static int OUT_DATE = 25;
-    private static Date checkIn;
-    private static Date checkOut;
+    private static LocalDate checkIn;
+    private static LocalDate checkOut;
     private ReservationFactory reservationFactory;
     private static Customer customer;
     private static IRoom room;
 
     @BeforeAll
     static void initAll() {
-        cal = Calendar.getInstance();
-        cal.set(YEAR, MONTH, IN_DATE);
-        checkIn = cal.getTime();
-        cal.set(YEAR, MONTH, OUT_DATE);
-        checkOut = cal.getTime();
+        checkIn = LocalDate.of(YEAR, MONTH, IN_DATE);
+        checkOut = LocalDate.of(YEAR, MONTH, OUT_DATE);
     }
 
     @BeforeEach
@@ -72,24 +68,32 @@ class ReservationTest {
 
     @Test
     void equals_checkInOther() {
-        cal.set(YEAR, MONTH, IN_DATE + 1);
-        Date checkInOther = cal.getTime();
+        LocalDate checkInOther = LocalDate.of(YEAR, MONTH, IN_DATE + 1);
         Reservation reservationOther = reservationFactory.create(customer, room, checkInOther, checkOut);
         assertNotEquals(reservation, reservationOther);
     }
 
     @Test
     void equals_checkOutOther() {
-        cal.set(YEAR, MONTH, OUT_DATE + 1);
-        Date checkOutOther = cal.getTime();
+        LocalDate checkOutOther = LocalDate.of(YEAR, MONTH, OUT_DATE + 1);
         Reservation reservationOther = reservationFactory.create(customer, room, checkIn, checkOutOther);
         assertNotEquals(reservation, reservationOther);
     }
 
     @Test
-    void equals_allNull() {
-        Reservation allNull1 = reservationFactory.create(customer, null, null, null);
-        Reservation allNull2 = reservationFactory.create(customer, null, null, null);
-        assertEquals(allNull1, allNull2);
+    void equals_roomNull() {
+        Reservation roomNull1 = reservationFactory.create(customer, null, checkIn, checkOut);
+        Reservation roomNull2 = reservationFactory.create(customer, null, checkIn, checkOut);
+        assertEquals(roomNull1, roomNull2);
+    }
+
+    @Test
+    void getCheckInDay_getCheckOutDay() {
+        assertAll(
+                () -> assertEquals(checkIn.toEpochDay(), reservation.getCheckInDay()),
+                () -> assertEquals(checkOut.toEpochDay(), reservation.getCheckOutDay()),
+                () -> assertEquals(checkIn, reservation.getCheckInDate()),
+                () -> assertEquals(checkOut, reservation.getCheckOutDate())
+        );
     }
 }
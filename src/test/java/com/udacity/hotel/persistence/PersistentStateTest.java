@@ -0,0 +1,163 @@
+package com.udacity.hotel.persistence;
+
+import com.udacity.hotel.Singletons;
+import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentStateTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CustomerService customerService;
+    private ReservationService reservationService;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    void init() throws NoSuchFieldException, IllegalAccessException {
+        resetServices();
+        checkIn = LocalDate.of(2099, Month.MAY, 20);
+        checkOut = LocalDate.of(2099, Month.MAY, 27);
+    }
+
+    private void resetServices() throws NoSuchFieldException, IllegalAccessException {
+        Singletons.reset(CustomerService.class);
+        customerService = CustomerService.getInstance();
+        Singletons.reset(ReservationService.class);
+        reservationService = ReservationService.getInstance(new ReservationFactory());
+    }
+
+    private PersistentState open() throws IOException {
+        return PersistentState.open(tempDir, Duration.ofMillis(10), Duration.ofHours(1), customerService,
+                reservationService);
+    }
+
+    private void assertRestored(Executable... executables) throws Exception {
+        resetServices();
+        PersistentState persistentState = open();
+        try {
+            assertAll(executables);
+        } finally {
+            persistentState.close();
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".wal")).count();
+        }
+    }
+
+    @Test
+    void takeSnapshot_restoredWithLaterChanges() throws Exception {
+        try (PersistentState persistentState = open()) {
+            customerService.addCustomer("i@z.com", "I", "Z");
+            reservationService.addRoom(new Room("1", 100.0D, RoomType.SINGLE));
+            reservationService.addRoom(new FreeRoom("2", RoomType.DOUBLE));
+            reservationService.reserveARoom(customerService.getCustomer("i@z.com"),
+                    reservationService.getARoom("1"), checkIn, checkOut);
+
+            persistentState.takeSnapshot();
+
+            // Changes after the snapshot are kept in the log only
+            customerService.addCustomer("j@r.com", "J", "R");
+            reservationService.reserveARoom(customerService.getCustomer("j@r.com"),
+                    reservationService.getARoom("2"), checkIn, checkOut);
+        }
+
+        assertRestored(
+                () -> assertTrue(Files.exists(tempDir.resolve(PersistentState.SNAPSHOT_FILE))),
+                () -> assertEquals(1, countSegments()),
+                () -> assertEquals(2, customerService.getAllCustomers().size()),
+                () -> assertEquals(100.0D, reservationService.getARoom("1").getRoomPrice()),
+                () -> assertTrue(reservationService.getARoom("2").isFree()),
+                () -> assertEquals(2, reservationService.getAllReservations().size()),
+                () -> assertTrue(reservationService.findRooms(checkIn, checkOut).isEmpty())
+        );
+    }
+
+    @Test
+    void takeSnapshot_whileBooking() throws Exception {
+        final int roomCount = 500;
+        try (PersistentState persistentState = open()) {
+            customerService.addCustomer("i@z.com", "I", "Z");
+            Customer customer = customerService.getCustomer("i@z.com");
+            for (int i = 0; i < roomCount; i++) {
+                reservationService.addRoom(new Room(String.valueOf(i), 10.0D, RoomType.SINGLE));
+            }
+            Thread booking = new Thread(() -> {
+                for (int i = 0; i < roomCount; i++) {
+                    reservationService.reserveARoom(customer, reservationService.getARoom(String.valueOf(i)),
+                            checkIn, checkOut);
+                }
+            });
+            booking.start();
+            persistentState.takeSnapshot();
+            persistentState.takeSnapshot();
+            booking.join();
+        }
+
+        assertRestored(
+                () -> assertEquals(roomCount, reservationService.getAllReservations().size()),
+                () -> assertTrue(reservationService.findRooms(checkIn, checkOut).isEmpty())
+        );
+    }
+
+    @Test
+    void takeSnapshot_orderAndIdsOfRoomsAndCustomersRestored() throws Exception {
+        List<String> roomNumbers;
+        List<Integer> roomIds;
+        List<String> emails;
+        List<Integer> customerIds;
+        try (PersistentState persistentState = open()) {
+            for (int i = 140; i > 0; i -= 7) {
+                reservationService.addRoom(new Room("r" + i, 10.0D, RoomType.SINGLE));
+                customerService.addCustomer("c" + i + "@z.com", "C", String.valueOf(i));
+            }
+            roomNumbers = reservationService.streamRooms().map(IRoom::getRoomNumber).toList();
+            roomIds = reservationService.streamRooms().map(IRoom::getId).toList();
+            emails = customerService.streamCustomers().map(Customer::getEmail).toList();
+            customerIds = customerService.streamCustomers().map(Customer::getId).toList();
+
+            persistentState.takeSnapshot();
+        }
+
+        assertRestored(
+                () -> assertEquals(roomNumbers, reservationService.streamRooms().map(IRoom::getRoomNumber)
+                        .toList()),
+                () -> assertEquals(roomIds, reservationService.streamRooms().map(IRoom::getId).toList()),
+                () -> assertEquals(emails, customerService.streamCustomers().map(Customer::getEmail).toList()),
+                () -> assertEquals(customerIds, customerService.streamCustomers().map(Customer::getId)
+                        .toList())
+        );
+    }
+
+    @Test
+    void takeSnapshot_reservationOfCustomerNotRegistered_fails() throws Exception {
+        try (PersistentState persistentState = open()) {
+            reservationService.addRoom(new Room("1", 100.0D, RoomType.SINGLE));
+            reservationService.reserveARoom(new Customer("I", "Z", "i@z.com"), reservationService.getARoom("1"),
+                    checkIn, checkOut);
+
+            IOException exception = assertThrows(IOException.class, persistentState::takeSnapshot);
+            assertTrue(exception.getMessage().contains("i@z.com"));
+        }
+    }
+}
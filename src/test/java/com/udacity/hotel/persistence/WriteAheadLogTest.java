@@ -0,0 +1,328 @@
+package com.udacity.hotel.persistence;
+
+import com.udacity.hotel.Singletons;
+import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path logFile;
+    private CustomerService customerService;
+    private ReservationService reservationService;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    void init() throws NoSuchFieldException, IllegalAccessException {
+        logFile = tempDir.resolve("journal-0000000001.wal");
+        resetServices();
+        checkIn = LocalDate.of(2099, Month.MAY, 20);
+        checkOut = LocalDate.of(2099, Month.MAY, 27);
+    }
+
+    private void resetServices() throws NoSuchFieldException, IllegalAccessException {
+        Singletons.reset(CustomerService.class);
+        customerService = CustomerService.getInstance();
+        Singletons.reset(ReservationService.class);
+        reservationService = ReservationService.getInstance(new ReservationFactory());
+    }
+
+    private WriteAheadLog openAndReplay() throws IOException {
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(tempDir, Duration.ofMillis(10));
+        writeAheadLog.replay(customerService, reservationService);
+        customerService.setJournal(writeAheadLog);
+        reservationService.setJournal(writeAheadLog);
+        return writeAheadLog;
+    }
+
+    private void recordAndClose(Runnable changes) throws IOException {
+        WriteAheadLog writeAheadLog = openAndReplay();
+        try {
+            changes.run();
+        } finally {
+            writeAheadLog.close();
+        }
+    }
+
+    private void assertReplayed(Executable... executables) throws Exception {
+        resetServices();
+        WriteAheadLog writeAheadLog = openAndReplay();
+        try {
+            assertAll(executables);
+        } finally {
+            writeAheadLog.close();
+        }
+    }
+
+    private void recordSomeChanges() {
+        customerService.addCustomer("i@z.com", "I", "Z");
+        reservationService.addRoom(new Room("1", 100.0D, RoomType.SINGLE));
+        reservationService.addRoom(new FreeRoom("2", RoomType.DOUBLE));
+        reservationService.reserveARoom(customerService.getCustomer("i@z.com"), reservationService.getARoom("2"),
+                checkIn, checkOut);
+    }
+
+    @Test
+    void replay_restoresRecordedChanges() throws Exception {
+        recordAndClose(this::recordSomeChanges);
+
+        assertReplayed(
+                () -> assertEquals(new Customer("I", "Z", "i@z.com"), customerService.getCustomer("i@z.com")),
+                () -> assertEquals(2, reservationService.getRooms().size()),
+                () -> assertEquals(100.0D, reservationService.getARoom("1").getRoomPrice()),
+                () -> assertTrue(reservationService.getARoom("2").isFree()),
+                () -> assertEquals(RoomType.DOUBLE, reservationService.getARoom("2").getRoomType()),
+                () -> assertEquals(1, reservationService.getAllReservations().size()),
+                () -> assertEquals(1, reservationService.findRooms(checkIn, checkOut).size())
+        );
+    }
+
+    @Test
+    void sync_writesRecordsBeforeClose() throws Exception {
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            long emptySize = Files.size(logFile);
+            customerService.addCustomer("i@z.com", "I", "Z");
+            writeAheadLog.sync();
+
+            assertTrue(Files.size(logFile) > emptySize);
+        }
+    }
+
+    @Test
+    void replay_skipsChangesAlreadyRecorded() throws Exception {
+        recordAndClose(this::recordSomeChanges);
+
+        // Replay on top of the same state
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(tempDir, Duration.ofMillis(10))) {
+            writeAheadLog.replay(customerService, reservationService);
+        }
+
+        assertAll(
+                () -> assertEquals(1, customerService.getAllCustomers().size()),
+                () -> assertEquals(2, reservationService.getRooms().size()),
+                () -> assertEquals(1, reservationService.getAllReservations().size())
+        );
+    }
+
+    @Test
+    void rollOver_replaysAllSegmentsUntilDeleted() throws Exception {
+        long newSegment;
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            customerService.addCustomer("i@z.com", "I", "Z");
+            newSegment = writeAheadLog.rollOver();
+            customerService.addCustomer("j@r.com", "J", "R");
+        }
+
+        resetServices();
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            assertAll(
+                    () -> assertEquals(2, newSegment),
+                    () -> assertEquals(2, customerService.getAllCustomers().size())
+            );
+            writeAheadLog.deleteSegmentsBefore(newSegment);
+        }
+
+        assertReplayed(
+                () -> assertFalse(Files.exists(logFile)),
+                () -> assertNull(customerService.getCustomer("i@z.com")),
+                () -> assertNotNull(customerService.getCustomer("j@r.com"))
+        );
+    }
+
+    @Test
+    void replay_manyRoomsAndReservationsWithoutCustomer_replayedOnceEach() throws Exception {
+        final int rooms = 500;
+        recordAndClose(() -> {
+            for (int i = 0; i < rooms; i++) {
+                reservationService.addRoom(new Room(String.valueOf(i), 100.0D, RoomType.SINGLE));
+            }
+            for (int i = 0; i < rooms; i++) {
+                reservationService.reserveARoom(null, reservationService.getARoom(String.valueOf(i)), checkIn,
+                        checkOut);
+            }
+            customerService.addCustomer("i@z.com", "I", "Z");
+            reservationService.addRoom(new Room("last", 100.0D, RoomType.SINGLE));
+        });
+
+        resetServices();
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            // Replaying on top of the same changes, as after restoring a snapshot, skips all of them
+            writeAheadLog.replay(customerService, reservationService);
+
+            assertAll(
+                    () -> assertEquals(rooms + 1, reservationService.getRooms().size()),
+                    () -> assertEquals(rooms, reservationService.getAllReservations().size()),
+                    () -> assertEquals(1, customerService.getAllCustomers().size())
+            );
+        }
+    }
+
+    @Test
+    void replay_tornTailCutOff() throws Exception {
+        recordAndClose(this::recordSomeChanges);
+        long validSize = Files.size(logFile);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2}));
+        }
+
+        resetServices();
+        WriteAheadLog writeAheadLog = openAndReplay();
+        try {
+            assertEquals(validSize, Files.size(logFile));
+            customerService.addCustomer("j@r.com", "J", "R");
+        } finally {
+            writeAheadLog.close();
+        }
+
+        assertReplayed(
+                () -> assertEquals(2, customerService.getAllCustomers().size()),
+                () -> assertEquals(1, reservationService.getAllReservations().size())
+        );
+    }
+
+    @Test
+    void replay_reservationOfCustomerNotRecorded_fails() throws Exception {
+        recordAndClose(() -> reservationService.addRoom(new Room("1", 100.0D, RoomType.SINGLE)));
+        var payload = new ByteArrayOutputStream();
+        var payloadData = new DataOutputStream(payload);
+        payloadData.writeByte(WriteAheadLog.ROOM_RESERVED);
+        payloadData.writeUTF("i@z.com");
+        payloadData.writeUTF("1");
+        payloadData.writeInt((int) checkIn.toEpochDay());
+        payloadData.writeInt((int) checkOut.toEpochDay());
+        appendRecord(payload.toByteArray());
+
+        resetServices();
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(tempDir, Duration.ofMillis(10))) {
+            IOException exception = assertThrows(IOException.class,
+                    () -> writeAheadLog.replay(customerService, reservationService));
+            assertTrue(exception.getMessage().contains("i@z.com"));
+        }
+    }
+
+    @Test
+    void replay_conflictingReservation_fails() throws Exception {
+        recordAndClose(this::recordSomeChanges);
+        var payload = new ByteArrayOutputStream();
+        var payloadData = new DataOutputStream(payload);
+        payloadData.writeByte(WriteAheadLog.ROOM_RESERVED);
+        payloadData.writeUTF("");
+        payloadData.writeUTF("2");
+        payloadData.writeInt((int) checkIn.toEpochDay() + 1);
+        payloadData.writeInt((int) checkOut.toEpochDay() + 1);
+        appendRecord(payload.toByteArray());
+
+        resetServices();
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(tempDir, Duration.ofMillis(10))) {
+            assertThrows(IOException.class, () -> writeAheadLog.replay(customerService, reservationService));
+        }
+    }
+
+    @Test
+    void record_afterSyncFailed_changeNotApplied() throws Exception {
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            recordSomeChanges();
+            Field syncFailure = WriteAheadLog.class.getDeclaredField("syncFailure");
+            syncFailure.setAccessible(true);
+            syncFailure.set(writeAheadLog, new IOException("Disk full"));
+            IRoom room = reservationService.getARoom("1");
+            Customer customer = customerService.getCustomer("i@z.com");
+
+            assertAll(
+                    () -> assertThrows(UncheckedIOException.class,
+                            () -> reservationService.reserveARoom(customer, room, checkIn, checkOut)),
+                    () -> assertThrows(UncheckedIOException.class,
+                            () -> customerService.addCustomer("j@r.com", "J", "R")),
+                    () -> assertEquals(1, reservationService.getAllReservations().size()),
+                    () -> assertTrue(reservationService.findRooms(checkIn, checkOut).contains(room)),
+                    () -> assertNull(customerService.getCustomer("j@r.com"))
+            );
+            syncFailure.set(writeAheadLog, null);
+        }
+    }
+
+    @Test
+    void record_concurrentChanges_appliedInParallel() throws Exception {
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            var secondApplied = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<Boolean> first = executor.submit(() -> {
+                var waited = new AtomicBoolean();
+                writeAheadLog.record(() -> {
+                    try {
+                        waited.set(secondApplied.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return waited.get();
+            });
+            writeAheadLog.record(secondApplied::countDown);
+            executor.shutdown();
+
+            assertTrue(first.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void rollOver_waitsForChangeBeingApplied() throws Exception {
+        try (WriteAheadLog writeAheadLog = openAndReplay()) {
+            var applying = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            Future<?> change = executor.submit(() -> writeAheadLog.record(() -> {
+                applying.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(applying.await(10, TimeUnit.SECONDS));
+            Future<Long> rollOver = executor.submit(writeAheadLog::rollOver);
+
+            assertThrows(TimeoutException.class, () -> rollOver.get(200, TimeUnit.MILLISECONDS));
+            release.countDown();
+            change.get(10, TimeUnit.SECONDS);
+            assertEquals(2L, rollOver.get(10, TimeUnit.SECONDS));
+            executor.shutdown();
+        }
+    }
+
+    private void appendRecord(byte[] payload) throws IOException {
+        var checksum = new CRC32();
+        checksum.update(payload);
+        try (var output = new DataOutputStream(Files.newOutputStream(logFile, StandardOpenOption.APPEND))) {
+            output.writeInt(payload.length);
+            output.write(payload);
+            output.writeInt((int) checksum.getValue());
+        }
+    }
+}
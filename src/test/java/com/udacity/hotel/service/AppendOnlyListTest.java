@@ -0,0 +1,77 @@
+package com.udacity.hotel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyListTest {
+
+    @Test
+    void append_growsBeyondInitialCapacity() {
+        var list = new AppendOnlyList<Integer>();
+        IntStream.range(0, 100).forEach(list::append);
+
+        assertAll(
+                () -> assertEquals(100, list.size()),
+                () -> assertEquals(0, list.get(0)),
+                () -> assertEquals(99, list.get(99))
+        );
+    }
+
+    @Test
+    void appendAll_afterAppend() {
+        var list = new AppendOnlyList<Integer>();
+        list.append(-1);
+        list.appendAll(IntStream.range(0, 40).boxed().toList());
+
+        assertAll(
+                () -> assertEquals(41, list.size()),
+                () -> assertEquals(-1, list.get(0)),
+                () -> assertEquals(39, list.get(40)),
+                () -> assertEquals(-1, list.stream().findFirst().orElseThrow())
+        );
+    }
+
+    @Test
+    void stream_ignoresElementsAppendedLater() {
+        var list = new AppendOnlyList<String>();
+        list.append("a");
+        list.append("b");
+        Stream<String> stream = list.stream();
+        list.append("c");
+
+        assertEquals(List.of("a", "b"), stream.toList());
+    }
+
+    @Test
+    void page_continuesWithElementsAppendedMeanwhile() {
+        var list = new AppendOnlyList<String>();
+        list.append("a");
+        list.append("b");
+        Page<String> first = list.page(Page.FIRST, 2);
+        list.append("c");
+        Page<String> second = list.page(first.nextCursor(), 2);
+
+        assertAll(
+                () -> assertEquals(List.of("a", "b"), first.items()),
+                () -> assertEquals(2, first.nextCursor()),
+                () -> assertFalse(first.hasNext()),
+                () -> assertEquals(List.of("c"), second.items()),
+                () -> assertFalse(second.hasNext())
+        );
+    }
+
+    @Test
+    void page_emptyList() {
+        Page<String> page = new AppendOnlyList<String>().page(Page.FIRST, 10);
+
+        assertAll(
+                () -> assertTrue(page.items().isEmpty()),
+                () -> assertFalse(page.hasNext())
+        );
+    }
+}
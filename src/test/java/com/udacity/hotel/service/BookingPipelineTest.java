@@ -0,0 +1,184 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.Singletons;
+import com.udacity.hotel.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingPipelineTest {
+
+    private ReservationService reservationService;
+    private BookingPipeline bookingPipeline;
+    private IRoom room;
+    private Customer customer;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    void init() throws NoSuchFieldException, IllegalAccessException {
+        // Reset the service which is a singleton
+        Singletons.reset(ReservationService.class);
+        reservationService = ReservationService.getInstance(new ReservationFactory());
+        bookingPipeline = BookingPipeline.start(reservationService, 4);
+        room = new Room("1", 10.0D, RoomType.SINGLE);
+        reservationService.addRoom(room);
+        customer = new Customer("I", "Z", "i@z.com");
+        checkIn = LocalDate.of(2099, Month.MAY, 20);
+        checkOut = LocalDate.of(2099, Month.MAY, 27);
+    }
+
+    @AfterEach
+    void close() {
+        bookingPipeline.close();
+    }
+
+    @Test
+    void submit_booksInOrderOfSubmitting() throws Exception {
+        CompletableFuture<Reservation> first = bookingPipeline.submit(customer, room, checkIn, checkOut);
+        CompletableFuture<Reservation> second = bookingPipeline.submit(customer, room, checkIn.plusDays(1),
+                checkOut);
+
+        assertEquals(checkIn, first.get(10, TimeUnit.SECONDS).getCheckInDate());
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> second.get(10, TimeUnit.SECONDS));
+        assertAll(
+                () -> assertInstanceOf(IllegalArgumentException.class, exception.getCause()),
+                () -> assertEquals("This room is already reserved for these days",
+                        exception.getCause().getMessage()),
+                () -> assertEquals(1, reservationService.getAllReservations().size())
+        );
+    }
+
+    @Test
+    void submit_manyThreads_eachNightBookedOnce() throws Exception {
+        final int threads = 8;
+        final int nights = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<CompletableFuture<Reservation>>>> submitted = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            submitted.add(executor.submit(() -> {
+                List<CompletableFuture<Reservation>> results = new ArrayList<>();
+                for (int night = 0; night < nights; night++) {
+                    results.add(bookingPipeline.submit(customer, room, checkIn.plusDays(night),
+                            checkIn.plusDays(night + 1)));
+                }
+                return results;
+            }));
+        }
+        executor.shutdown();
+
+        int booked = 0;
+        for (Future<List<CompletableFuture<Reservation>>> results: submitted) {
+            for (CompletableFuture<Reservation> result: results.get(10, TimeUnit.SECONDS)) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    booked++;
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+                }
+            }
+        }
+        assertAll(
+                () -> assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS)),
+                () -> assertEquals(nights, reservationService.getAllReservations().size())
+        );
+        assertEquals(nights, booked);
+    }
+
+    @Test
+    void close_booksRequestsSubmittedBefore() {
+        List<CompletableFuture<Reservation>> results = new ArrayList<>();
+        for (int night = 0; night < 20; night++) {
+            results.add(bookingPipeline.submit(customer, room, checkIn.plusDays(night), checkIn.plusDays(night + 1)));
+        }
+        bookingPipeline.close();
+
+        assertAll(
+                () -> assertTrue(results.stream().allMatch(result -> result.isDone() &&
+                        ! result.isCompletedExceptionally())),
+                () -> assertEquals(20, reservationService.getAllReservations().size())
+        );
+    }
+
+    @Test
+    void submit_afterClose_fails() {
+        bookingPipeline.close();
+
+        CompletableFuture<Reservation> result = bookingPipeline.submit(customer, room, checkIn, checkOut);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void submit_bookingThrowsError_pendingFailedAndPipelineClosed() throws Exception {
+        var recording = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        reservationService.setJournal(new Journal() {
+            @Override
+            public void record(Runnable change) {
+                recording.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new StackOverflowError();
+            }
+
+            @Override
+            public void customerAdded(Customer customer) {
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+            }
+        });
+        List<CompletableFuture<Reservation>> results = new CopyOnWriteArrayList<>();
+        results.add(bookingPipeline.submit(customer, room, checkIn, checkOut));
+        assertTrue(recording.await(10, TimeUnit.SECONDS));
+        // More requests than the ring buffer holds, so the submitter waits for space
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> submitting = executor.submit(() -> {
+            for (int night = 0; night < 10; night++) {
+                results.add(bookingPipeline.submit(customer, room, checkOut.plusDays(night),
+                        checkOut.plusDays(night + 1)));
+            }
+        });
+        release.countDown();
+        submitting.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        CompletableFuture<Reservation> afterFailure = bookingPipeline.submit(customer, room, checkIn, checkOut);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), bookingPipeline::close);
+
+        assertEquals(11, results.size());
+        for (CompletableFuture<Reservation> result: results) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertInstanceOf(StackOverflowError.class, exception.getCause().getCause());
+        }
+        ExecutionException exception = assertThrows(ExecutionException.class, afterFailure::get);
+        assertInstanceOf(StackOverflowError.class, exception.getCause().getCause());
+        assertTrue(reservationService.getAllReservations().isEmpty());
+    }
+
+    @Test
+    void start_invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> BookingPipeline.start(reservationService, 0));
+    }
+}
@@ -1,29 +1,26 @@
 package com.udacity.hotel.service;
 
+import com.udacity.hotel.Singletons;
 import com.udacity.hotel.model.Customer;
-import org.junit.jupiter.api.BeforeAll;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Reservation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CustomerServiceTest {
 
-    private static CustomerService customerService;
+    private CustomerService customerService;
 
     private String firstName;
     private String lastName;
     private String email;
 
-    @BeforeAll
-    static void initAll() {
-        customerService = CustomerService.getInstance();
-    }
-
     @BeforeEach
     void init() throws NoSuchFieldException, IllegalAccessException {
         firstName = "I";
@@ -31,9 +28,8 @@ class CustomerServiceTest {
         email = "i@z.com";
 
         // Reset the SUT which is a singleton
-        Field customers = CustomerService.class.getDeclaredField("customers");
-        customers.setAccessible(true);
-        customers.set(customerService, new HashMap<>());
+        Singletons.reset(CustomerService.class);
+        customerService = CustomerService.getInstance();
     }
 
     @Test
@@ -61,6 +57,30 @@ class CustomerServiceTest {
         assertEquals("Customer with this email is already registered.", exception.getMessage());
     }
 
+    @Test
+    void addCustomer_journaledBeforeVisible() {
+        List<Boolean> visibleWhenJournaled = new ArrayList<>();
+        customerService.setJournal(new Journal() {
+            @Override
+            public void customerAdded(Customer customer) {
+                visibleWhenJournaled.add(customerService.getCustomer(customer.getEmail()) != null);
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+            }
+        });
+
+        customerService.addCustomer(email, firstName, lastName);
+        customerService.addCustomers(List.of(new Customer("J", "R", "j@r.com")));
+
+        assertEquals(List.of(false, false), visibleWhenJournaled);
+    }
+
     @Test
     void getCustomer_notRegistered() {
         assertNull(customerService.getCustomer("a@b.com"));
@@ -82,4 +102,40 @@ class CustomerServiceTest {
                 () -> assertTrue(allCustomers.contains(jR))
         );
     }
+
+    @Test
+    void addCustomers_skipsRegisteredAndRepeatedEmails() {
+        customerService.addCustomer(email, firstName, lastName);
+        var iZ = new Customer(firstName, lastName, email);
+        var jR = new Customer("J", "R", "j@r.com");
+        var jROther = new Customer("Other", "R", "j@r.com");
+        var aB = new Customer("A", "B", "a@b.com");
+
+        int[] skipped = customerService.addCustomers(List.of(jR, iZ, jROther, aB));
+
+        assertAll(
+                () -> assertArrayEquals(new int[] {1, 2}, skipped),
+                () -> assertEquals("J", customerService.getCustomer("j@r.com").getFirstName()),
+                () -> assertEquals(List.of(iZ, jR, aB), customerService.streamCustomers().toList())
+        );
+    }
+
+    @Test
+    void addCustomers_assignsDenseIds() {
+        customerService.addCustomer(email, firstName, lastName);
+        var jR = new Customer("J", "R", "j@r.com");
+        var iZOther = new Customer("Other", "Z", email);
+        var aB = new Customer("A", "B", "a@b.com");
+        customerService.addCustomers(List.of(jR, iZOther, aB));
+
+        assertAll(
+                () -> assertEquals(0, customerService.getCustomer(email).getId()),
+                () -> assertEquals(1, jR.getId()),
+                () -> assertEquals(Customer.NO_ID, iZOther.getId()),
+                () -> assertEquals(2, aB.getId()),
+                () -> assertSame(aB, customerService.getCustomer(2)),
+                () -> assertThrows(IllegalArgumentException.class, () -> customerService.getCustomer(3)),
+                () -> assertThrows(IllegalArgumentException.class, () -> customerService.getCustomer(Customer.NO_ID))
+        );
+    }
 }
@@ -0,0 +1,64 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryReservationStoreTest {
+
+    private final ReservationFactory reservationFactory = new ReservationFactory();
+    private InMemoryReservationStore reservationStore;
+    private IRoom room;
+    private Customer customer;
+
+    @BeforeEach
+    void init() {
+        reservationStore = new InMemoryReservationStore(reservationFactory);
+        room = new Room("101", 10.0D, RoomType.SINGLE);
+        customer = new Customer("I", "Z", "i@z.com");
+    }
+
+    @Test
+    void append_get() {
+        var reservation = reservationFactory.create(customer, room, LocalDate.of(2030, 1, 10),
+                LocalDate.of(2030, 1, 15));
+        // Epoch days before 1970 are negative
+        var reservationFree = reservationFactory.create(null, new FreeRoom("102", RoomType.DOUBLE),
+                LocalDate.of(1969, 12, 30), LocalDate.of(1970, 1, 2));
+
+        assertEquals(0, reservationStore.append(reservation, 0));
+        assertEquals(1, reservationStore.append(reservationFree, -1));
+
+        assertAll(
+                () -> assertEquals(2, reservationStore.size()),
+                () -> assertEquals(reservation, reservationStore.get(0)),
+                () -> assertSame(customer, reservationStore.get(0).getCustomer()),
+                () -> assertSame(room, reservationStore.get(0).getRoom()),
+                () -> assertEquals(reservationFree, reservationStore.get(1)),
+                () -> assertEquals(LocalDate.of(1969, 12, 30), reservationStore.get(1).getCheckInDate()),
+                () -> assertNull(reservationStore.get(1).getCustomer())
+        );
+    }
+
+    @Test
+    void append_manyReservations_keptInOrder() {
+        List<Reservation> expected = new ArrayList<>();
+        LocalDate checkIn = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            var reservation = reservationFactory.create(customer, room, checkIn.plusDays(i),
+                    checkIn.plusDays(i + 1 + i % 7));
+            expected.add(reservation);
+            reservationStore.append(reservation, 0);
+        }
+
+        List<Reservation> stored = new ArrayList<>();
+        reservationStore.forEach(stored::add);
+        assertEquals(expected, stored);
+    }
+}
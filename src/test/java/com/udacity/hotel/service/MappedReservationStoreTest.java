@@ -0,0 +1,130 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedReservationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ReservationFactory reservationFactory = new ReservationFactory();
+    private MappedReservationStore reservationStore;
+    private IRoom room;
+    private Customer customer;
+
+    @BeforeEach
+    void init() throws IOException {
+        reservationStore = MappedReservationStore.create(tempDir.resolve("reservations.bin"),
+                reservationFactory);
+        room = new Room("101", 10.0D, RoomType.SINGLE);
+        room.assignId(0);
+        customer = new Customer("I", "Z", "i@z.com");
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        reservationStore.close();
+    }
+
+    @Test
+    void append_get() {
+        var reservation = reservationFactory.create(customer, room, dateOf(2030, 1, 10), dateOf(2030, 1, 15));
+        var freeRoom = new FreeRoom("102", RoomType.DOUBLE);
+        freeRoom.assignId(1);
+        var reservationFree = reservationFactory.create(null, freeRoom, dateOf(2030, 2, 1), dateOf(2030, 2, 3));
+
+        assertEquals(0, reservationStore.append(reservation, 0));
+        assertEquals(1, reservationStore.append(reservationFree, -1));
+
+        assertEquals(2, reservationStore.size());
+        assertEquals(reservation, reservationStore.get(0));
+        assertSame(customer, reservationStore.get(0).getCustomer());
+        assertSame(room, reservationStore.get(0).getRoom());
+        assertEquals(reservationFree, reservationStore.get(1));
+        assertNull(reservationStore.get(1).getCustomer());
+    }
+
+    @Test
+    void append_get_byRoomIdsAndCustomerIndexes() {
+        var otherRoom = new Room("102", 20.0D, RoomType.DOUBLE);
+        var otherCustomer = new Customer("A", "B", "a@b.com");
+        room.assignId(3);
+        otherRoom.assignId(0);
+        // Ids of customers are not used, only the indexes supplied
+        customer.assignId(0);
+        otherCustomer.assignId(0);
+        reservationStore.append(reservationFactory.create(customer, room, dateOf(2030, 1, 10), dateOf(2030, 1, 15)),
+                20);
+        reservationStore.append(reservationFactory.create(otherCustomer, otherRoom, dateOf(2030, 1, 10),
+                dateOf(2030, 1, 15)), 1);
+        reservationStore.append(reservationFactory.create(customer, otherRoom, dateOf(2030, 2, 10),
+                dateOf(2030, 2, 15)), 20);
+
+        assertAll(
+                () -> assertSame(customer, reservationStore.get(0).getCustomer()),
+                () -> assertSame(room, reservationStore.get(0).getRoom()),
+                () -> assertSame(otherCustomer, reservationStore.get(1).getCustomer()),
+                () -> assertSame(otherRoom, reservationStore.get(1).getRoom()),
+                () -> assertSame(customer, reservationStore.get(2).getCustomer()),
+                () -> assertSame(otherRoom, reservationStore.get(2).getRoom())
+        );
+    }
+
+    @Test
+    void iterator_excludesLaterAppends() {
+        reservationStore.append(reservationFactory.create(customer, room, dateOf(2030, 1, 10),
+                dateOf(2030, 1, 15)), 0);
+        Iterator<Reservation> iterator = reservationStore.iterator();
+        reservationStore.append(reservationFactory.create(customer, room, dateOf(2030, 1, 20),
+                dateOf(2030, 1, 25)), 0);
+
+        assertTrue(iterator.hasNext());
+        assertEquals(dateOf(2030, 1, 10), iterator.next().getCheckInDate());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void append_manyReservations_keptInOrder() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            customers.add(new Customer("C", "T", "c" + i + "@t.com"));
+        }
+        List<IRoom> rooms = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            var aRoom = new Room(String.valueOf(i), 10.0D, RoomType.SINGLE);
+            aRoom.assignId(i);
+            rooms.add(aRoom);
+        }
+        List<Reservation> expected = new ArrayList<>();
+        LocalDate checkIn = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            var reservation = reservationFactory.create(customers.get(i % 10), rooms.get(i % 50), checkIn.plusDays(i),
+                    checkIn.plusDays(i + 1));
+            expected.add(reservation);
+            reservationStore.append(reservation, i % 10);
+        }
+
+        List<Reservation> actual = new ArrayList<>();
+        for (Reservation reservation: reservationStore) {
+            actual.add(reservation);
+        }
+        assertEquals(expected, actual);
+    }
+
+    private static LocalDate dateOf(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+}
@@ -0,0 +1,89 @@
+package com.udacity.hotel.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NightBitmapTest {
+
+    private static final int FIRST_DAY = 500;
+
+    private NightBitmap nightBitmap;
+
+    @BeforeEach
+    void init() {
+        nightBitmap = new NightBitmap(FIRST_DAY);
+    }
+
+    @Test
+    void covers() {
+        int lastDay = FIRST_DAY + NightBitmap.HORIZON_DAYS;
+        assertAll(
+                () -> assertTrue(nightBitmap.covers(FIRST_DAY, lastDay)),
+                () -> assertFalse(nightBitmap.covers(FIRST_DAY - 1, FIRST_DAY + 1)),
+                () -> assertFalse(nightBitmap.covers(lastDay - 1, lastDay + 1))
+        );
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}-{1} booked, {2}-{3} clear: {4}")
+    @MethodSource("provide_stays")
+    void with_isClear(int bookedIn, int bookedOut, int checkIn, int checkOut, boolean isClear) {
+        NightBitmap booked = nightBitmap.with(FIRST_DAY + bookedIn, FIRST_DAY + bookedOut);
+
+        assertEquals(isClear, booked.isClear(FIRST_DAY + checkIn, FIRST_DAY + checkOut));
+    }
+
+    private static Stream<Arguments> provide_stays() {
+        return Stream.of(
+                // Within one word
+                Arguments.of(3, 8, 0, 3, true),
+                Arguments.of(3, 8, 8, 12, true),
+                Arguments.of(3, 8, 7, 9, false),
+                // Across word boundaries
+                Arguments.of(60, 70, 50, 60, true),
+                Arguments.of(60, 70, 70, 200, true),
+                Arguments.of(60, 70, 63, 64, false),
+                Arguments.of(60, 70, 64, 65, false),
+                Arguments.of(0, 128, 127, 128, false),
+                Arguments.of(0, 128, 128, 256, true),
+                Arguments.of(100, 101, 0, NightBitmap.HORIZON_DAYS, false)
+        );
+    }
+
+    @Test
+    void with_clippedToHorizon() {
+        NightBitmap booked = nightBitmap.with(FIRST_DAY - 10, FIRST_DAY + 2)
+                .with(FIRST_DAY + NightBitmap.HORIZON_DAYS - 1, FIRST_DAY + NightBitmap.HORIZON_DAYS + 10);
+
+        assertAll(
+                () -> assertFalse(booked.isClear(FIRST_DAY, FIRST_DAY + 1)),
+                () -> assertTrue(booked.isClear(FIRST_DAY + 2, FIRST_DAY + NightBitmap.HORIZON_DAYS - 1)),
+                () -> assertFalse(booked.isClear(FIRST_DAY + NightBitmap.HORIZON_DAYS - 1,
+                        FIRST_DAY + NightBitmap.HORIZON_DAYS))
+        );
+    }
+
+    @Test
+    void with_leavesOriginalUnchanged() {
+        nightBitmap.with(FIRST_DAY, FIRST_DAY + 10);
+
+        assertTrue(nightBitmap.isClear(FIRST_DAY, FIRST_DAY + 10));
+    }
+
+    @Test
+    void without_freesOnlySuppliedNights() {
+        NightBitmap released = nightBitmap.with(FIRST_DAY + 60, FIRST_DAY + 70).without(FIRST_DAY + 62, FIRST_DAY + 66);
+
+        assertAll(
+                () -> assertFalse(released.isClear(FIRST_DAY + 61, FIRST_DAY + 62)),
+                () -> assertTrue(released.isClear(FIRST_DAY + 62, FIRST_DAY + 66)),
+                () -> assertFalse(released.isClear(FIRST_DAY + 66, FIRST_DAY + 67))
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.Singletons;
+import com.udacity.hotel.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyAnalyticsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private ReservationService reservationService;
+    private OccupancyAnalytics occupancyAnalytics;
+    private Customer customer;
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    void init() throws NoSuchFieldException, IllegalAccessException {
+        // Reset the service which is a singleton
+        Singletons.reset(ReservationService.class);
+        reservationService = ReservationService.getInstance(new ReservationFactory());
+        occupancyAnalytics = new OccupancyAnalytics(reservationService);
+        customer = new Customer("I", "Z", "i@z.com");
+        from = LocalDate.of(2099, Month.MAY, 1);
+        to = LocalDate.of(2099, Month.MAY, 11);
+    }
+
+    private void reserve(IRoom room, Month checkInMonth, int checkInDay, int checkOutDay) {
+        reservationService.reserveARoom(customer, room, LocalDate.of(2099, checkInMonth, checkInDay),
+                LocalDate.of(2099, Month.MAY, checkOutDay));
+    }
+
+    @Test
+    void report() {
+        var single = new Room("1", 80.0D, RoomType.SINGLE);
+        var doubleDear = new Room("2", 150.0D, RoomType.DOUBLE);
+        var doubleCheap = new Room("3", 120.0D, RoomType.DOUBLE);
+        reservationService.addRooms(List.of(single, doubleDear, doubleCheap));
+        // Checked in before the period, two nights within it
+        reserve(single, Month.APRIL, 28, 3);
+        reserve(doubleDear, Month.MAY, 2, 5);
+        // Checked out after the period, two nights within it
+        reserve(doubleCheap, Month.MAY, 9, 14);
+        // Outside the period
+        reserve(single, Month.MAY, 20, 21);
+
+        OccupancyReport report = occupancyAnalytics.report(from, to, 100.0D);
+
+        int[] occupiedRooms = report.nights().stream().mapToInt(OccupancyReport.Night::occupiedRooms).toArray();
+        assertAll(
+                () -> assertEquals(3, report.rooms()),
+                () -> assertArrayEquals(new int[] {1, 2, 1, 1, 0, 0, 0, 0, 1, 1}, occupiedRooms),
+                () -> assertEquals(from.plusDays(1), report.nights().get(1).date()),
+                () -> assertEquals(2.0D / 3, report.nights().get(1).occupancy(), DELTA),
+                () -> assertEquals(7.0D / 30, report.occupancy(), DELTA),
+                () -> assertEquals(Map.of(RoomType.SINGLE, 0.2D, RoomType.DOUBLE, 0.25D),
+                        report.occupancyByRoomType()),
+                () -> assertEquals(List.of(new OccupancyReport.PriceBand(0.0D, 100.0D, 1, 0.2D),
+                        new OccupancyReport.PriceBand(100.0D, 200.0D, 2, 0.25D)), report.occupancyByPriceBand()),
+                () -> assertEquals(2, report.stays()),
+                () -> assertEquals(4.0D, report.averageLengthOfStay(), DELTA)
+        );
+    }
+
+    @Test
+    void report_noRooms() {
+        OccupancyReport report = occupancyAnalytics.report(from, to, 100.0D);
+
+        assertAll(
+                () -> assertEquals(10, report.nights().size()),
+                () -> assertEquals(0.0D, report.occupancy()),
+                () -> assertTrue(report.occupancyByRoomType().isEmpty()),
+                () -> assertTrue(report.occupancyByPriceBand().isEmpty()),
+                () -> assertEquals(0.0D, report.averageLengthOfStay())
+        );
+    }
+
+    @Test
+    void report_manyReservations_matchesNightlyCount() {
+        var random = new Random(42L);
+        int rooms = 50;
+        for (int i = 0; i < rooms; i++) {
+            reservationService.addRoom(new Room(String.valueOf(i), 10.0D * i, RoomType.values()[i % 2]));
+        }
+        LocalDate yearStart = LocalDate.of(2099, Month.JANUARY, 1);
+        int[] expected = new int[365];
+        for (int i = 0; i < rooms; i++) {
+            IRoom room = reservationService.getARoom(String.valueOf(i));
+            // Consecutive stays of random length, with random gaps
+            for (int checkIn = random.nextInt(5); checkIn < 400; ) {
+                int checkOut = checkIn + 1 + random.nextInt(7);
+                reservationService.reserveARoom(customer, room, yearStart.plusDays(checkIn),
+                        yearStart.plusDays(checkOut));
+                for (int night = checkIn; night < Math.min(checkOut, expected.length); night++) {
+                    expected[night]++;
+                }
+                checkIn = checkOut + random.nextInt(5);
+            }
+        }
+
+        OccupancyReport report = occupancyAnalytics.report(yearStart, yearStart.plusDays(365), 100.0D);
+
+        assertArrayEquals(expected,
+                report.nights().stream().mapToInt(OccupancyReport.Night::occupiedRooms).toArray());
+    }
+
+    @Test
+    void report_invalidArguments() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> occupancyAnalytics.report(to, from, 1.0D)),
+                () -> assertThrows(IllegalArgumentException.class, () -> occupancyAnalytics.report(from, from, 1.0D)),
+                () -> assertThrows(IllegalArgumentException.class, () -> occupancyAnalytics.report(from, to, 0.0D)),
+                () -> assertThrows(IllegalArgumentException.class, () -> occupancyAnalytics.report(from, to, -1.0D)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> occupancyAnalytics.report(from, to, Double.NaN)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> occupancyAnalytics.report(from, to, Double.POSITIVE_INFINITY))
+        );
+    }
+
+    @Test
+    void report_roomsAddedConcurrently_onlyCountedRoomsTallied() throws InterruptedException {
+        final int addedRooms = 2000;
+        var first = new Room("0", 100.0D, RoomType.SINGLE);
+        reservationService.addRoom(first);
+        reserve(first, Month.MAY, 1, 11);
+        // Every room is booked for the whole period right after it's added
+        Thread adding = new Thread(() -> {
+            for (int i = 1; i <= addedRooms; i++) {
+                var room = new Room(String.valueOf(i), 100.0D, RoomType.SINGLE);
+                reservationService.addRoom(room);
+                reserve(room, Month.MAY, 1, 11);
+            }
+        });
+        adding.start();
+
+        List<OccupancyReport> reports = new ArrayList<>();
+        while (adding.isAlive()) {
+            reports.add(occupancyAnalytics.report(from, to, 100.0D));
+        }
+        adding.join();
+
+        for (OccupancyReport report: reports) {
+            assertAll(
+                    () -> assertTrue(report.occupancy() <= 1.0D, () -> "Occupancy " + report.occupancy()),
+                    () -> assertTrue(report.nights().stream()
+                            .allMatch(night -> night.occupiedRooms() <= report.rooms())),
+                    () -> assertTrue(report.occupancyByPriceBand().stream()
+                            .allMatch(band -> band.occupancy() <= 1.0D))
+            );
+        }
+    }
+
+    @Test
+    void report_farApartPriceBands() {
+        var cheap = new Room("1", 50.0D, RoomType.SINGLE);
+        var dear = new Room("2", 1e12D, RoomType.DOUBLE);
+        reservationService.addRooms(List.of(cheap, dear));
+        reserve(dear, Month.MAY, 1, 6);
+
+        OccupancyReport report = occupancyAnalytics.report(from, to, 0.01D);
+
+        List<OccupancyReport.PriceBand> bands = report.occupancyByPriceBand();
+        assertAll(
+                () -> assertEquals(2, bands.size()),
+                () -> assertEquals(50.0D, bands.get(0).fromPrice(), DELTA),
+                () -> assertEquals(0.0D, bands.get(0).occupancy()),
+                () -> assertEquals(1e12D, bands.get(1).fromPrice(), 1.0D),
+                () -> assertEquals(0.5D, bands.get(1).occupancy(), DELTA)
+        );
+    }
+}
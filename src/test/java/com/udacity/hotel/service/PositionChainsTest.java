@@ -0,0 +1,50 @@
+package com.udacity.hotel.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionChainsTest {
+
+    @Test
+    void positionsOf_unknownKey() {
+        var positionChains = new PositionChains();
+
+        assertAll(
+                () -> assertArrayEquals(new int[0], positionChains.positionsOf(0)),
+                () -> assertArrayEquals(new int[0], positionChains.positionsOf(1000))
+        );
+    }
+
+    @Test
+    void add_positionsOf_keepsOrderPerKeyWhenGrowing() {
+        var positionChains = new PositionChains();
+        int[] even = new int[100];
+        int[] odd = new int[100];
+        for (int i = 0; i < 100; i++) {
+            even[i] = 2 * i;
+            odd[i] = 2 * i + 1;
+            positionChains.add(40, even[i]);
+            positionChains.add(3, odd[i]);
+        }
+
+        assertAll(
+                () -> assertArrayEquals(even, positionChains.positionsOf(40)),
+                () -> assertArrayEquals(odd, positionChains.positionsOf(3)),
+                () -> assertArrayEquals(new int[0], positionChains.positionsOf(4))
+        );
+    }
+
+    @Test
+    void positionsOf_isCopy() {
+        var positionChains = new PositionChains();
+        positionChains.add(0, 1);
+        int[] positions = positionChains.positionsOf(0);
+        positionChains.add(0, 2);
+
+        assertAll(
+                () -> assertArrayEquals(new int[] {1}, positions),
+                () -> assertArrayEquals(new int[] {1, 2}, positionChains.positionsOf(0))
+        );
+    }
+}
@@ -1,57 +1,52 @@
 package com.udacity.hotel.service;
 
+import com.udacity.hotel.Singletons;
 import com.udacity.hotel.model.*;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ReservationServiceTest {
 
-    private static ReservationService reservationService;
+    private ReservationService reservationService;
 
     private String numberRoom1;
     private IRoom room1;
-    private Calendar cal;
     private final int YEAR = 2099;
-    private final int MONTH = Calendar.MAY;
-    private Date checkIn;
-    private Date checkOut;
+    private final Month MONTH = Month.MAY;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
     private Customer customer;
 
-    @BeforeAll
-    static void initAll() {
-        var reservationFactory = new ReservationFactory();
-        reservationService = ReservationService.getInstance(reservationFactory);
-    }
-
     @BeforeEach
     void init() throws NoSuchFieldException, IllegalAccessException {
         // Reset the SUT which is a singleton
-        Field reservations = ReservationService.class.getDeclaredField("reservations");
-        reservations.setAccessible(true);
-        reservations.set(reservationService, new HashSet<>());
-        Field rooms = ReservationService.class.getDeclaredField("rooms");
-        rooms.setAccessible(true);
-        rooms.set(reservationService, new HashMap<>());
+        Singletons.reset(ReservationService.class);
+        var reservationFactory = new ReservationFactory();
+        reservationService = ReservationService.getInstance(reservationFactory);
 
         numberRoom1 = "1";
         room1 = new Room(numberRoom1, 10.0D, RoomType.SINGLE);
-        cal = Calendar.getInstance();
         final int DAY_IN = 20;
-        cal.set(YEAR, MONTH, DAY_IN);
-        checkIn = cal.getTime();
+        checkIn = LocalDate.of(YEAR, MONTH, DAY_IN);
         final int DAY_OUT = 27;
-        cal.set(YEAR, MONTH, DAY_OUT);
-        checkOut = cal.getTime();
+        checkOut = LocalDate.of(YEAR, MONTH, DAY_OUT);
         customer = new Customer("I", "Z", "i@z.com");
     }
 
@@ -82,6 +77,21 @@ class ReservationServiceTest {
         );
     }
 
+    @Test
+    void addRooms_assignsDenseIds() {
+        var room2 = new Room("2", 15.0D, RoomType.DOUBLE);
+        var room3 = new FreeRoom("3", RoomType.SINGLE);
+        reservationService.addRoom(room1);
+        reservationService.addRooms(List.of(room2, room3));
+
+        assertAll(
+                () -> assertEquals(List.of(0, 1, 2), List.of(room1.getId(), room2.getId(), room3.getId())),
+                () -> assertSame(room3, reservationService.getARoom(2)),
+                () -> assertThrows(IllegalArgumentException.class, () -> reservationService.getARoom(3)),
+                () -> assertThrows(IllegalArgumentException.class, () -> reservationService.getARoom(IRoom.NO_ID))
+        );
+    }
+
     @Test
     void addRoom_alreadyExists() {
         reservationService.addRoom(room1);
@@ -95,6 +105,167 @@ class ReservationServiceTest {
                 exception.getMessage());
     }
 
+    @ParameterizedTest
+    @CsvSource(value = {"NaN", "Infinity", "-1.0", "null"}, nullValues = "null")
+    void addRooms_invalidPrice_noneAdded(Double price) {
+        var room2 = new Room("2", price, RoomType.DOUBLE);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.addRooms(List.of(room1, room2)));
+
+        assertAll(
+                () -> assertEquals("Price of room 2 should be a finite non-negative number", exception.getMessage()),
+                () -> assertTrue(reservationService.getRooms().isEmpty())
+        );
+    }
+
+    @Test
+    void addRooms_ok() {
+        var room2 = new Room("2", 15.0D, RoomType.DOUBLE);
+        reservationService.addRooms(List.of(room1, room2));
+
+        assertAll(
+                () -> assertEquals(Map.of(numberRoom1, room1, "2", room2), reservationService.getRooms()),
+                () -> assertEquals(List.of(room1, room2), reservationService.streamRooms().toList())
+        );
+    }
+
+    @Test
+    void addRooms_duplicate_noneAdded() {
+        reservationService.addRoom(room1);
+        var room2 = new Room("2", 15.0D, RoomType.DOUBLE);
+        var room3 = new Room("3", 15.0D, RoomType.DOUBLE);
+
+        Exception existing = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.addRooms(List.of(room2, room1)));
+        Exception twice = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.addRooms(List.of(room2, room3, room2)));
+
+        assertAll(
+                () -> assertEquals("Room number " + numberRoom1 + " already exists", existing.getMessage()),
+                () -> assertEquals("Room number 2 already exists", twice.getMessage()),
+                () -> assertEquals(List.of(room1), reservationService.streamRooms().toList()),
+                () -> assertEquals(List.of(room1), reservationService.findRooms(checkIn, checkOut, null, null))
+        );
+    }
+
+    @Test
+    void addRoomAndReserveARoom_journaledBeforeVisible() {
+        List<Boolean> visibleWhenJournaled = new ArrayList<>();
+        reservationService.setJournal(new Journal() {
+            @Override
+            public void customerAdded(Customer customer) {
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+                visibleWhenJournaled.add(reservationService.getRooms().containsKey(room.getRoomNumber()));
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+                visibleWhenJournaled.add(! reservationService.getAllReservations().isEmpty());
+            }
+        });
+
+        reservationService.addRoom(room1);
+        reservationService.reserveARoom(customer, room1, checkIn, checkOut);
+
+        assertEquals(List.of(false, false), visibleWhenJournaled);
+    }
+
+    @Test
+    void reserveARoom_journalThrows_roomLeftFree() {
+        reservationService.addRoom(room1);
+        reservationService.reserveARoom(customer, room1, checkOut, checkOut.plusDays(1));
+        reservationService.setJournal(failingJournal(0));
+
+        assertThrows(UncheckedIOException.class,
+                () -> reservationService.reserveARoom(customer, room1, checkIn, checkOut));
+        reservationService.setJournal(Journal.NONE);
+
+        assertAll(
+                () -> assertEquals(1, reservationService.getAllReservations().size()),
+                () -> assertTrue(reservationService.findRooms(checkIn, checkOut).contains(room1)),
+                () -> assertFalse(reservationService.findRooms(checkOut, checkOut.plusDays(1)).contains(room1)),
+                () -> assertNotNull(reservationService.reserveARoom(customer, room1, checkIn, checkOut))
+        );
+    }
+
+    @Test
+    void reserveARoom_storeThrows_roomLeftFree() throws NoSuchFieldException, IllegalAccessException {
+        Singletons.reset(ReservationService.class);
+        var reservationFactory = new ReservationFactory();
+        var failing = new AtomicBoolean(true);
+        var stored = new InMemoryReservationStore(reservationFactory);
+        var store = new ReservationStore() {
+            @Override
+            public int append(Reservation reservation, int customerIndex) {
+                if (failing.get()) {
+                    throw new IllegalStateException("Reservation file can't be extended");
+                }
+                return stored.append(reservation, customerIndex);
+            }
+
+            @Override
+            public Reservation get(int position) {
+                return stored.get(position);
+            }
+
+            @Override
+            public int size() {
+                return stored.size();
+            }
+        };
+        reservationService = ReservationService.getInstance(reservationFactory, store);
+        reservationService.addRoom(room1);
+
+        assertThrows(IllegalStateException.class,
+                () -> reservationService.reserveARoom(customer, room1, checkIn, checkOut));
+        failing.set(false);
+
+        assertNotNull(reservationService.reserveARoom(customer, room1, checkIn, checkOut));
+    }
+
+    @Test
+    void reserveAll_journalThrows_staysNotRecordedLeftFree() {
+        var room2 = new Room("2", 10.0D, RoomType.SINGLE);
+        reservationService.addRooms(List.of(room1, room2));
+        reservationService.setJournal(failingJournal(1));
+        List<BookingRequest> batch = List.of(request(room1, checkIn, checkOut), request(room2, checkIn, checkOut));
+
+        assertThrows(UncheckedIOException.class, () -> reservationService.reserveAll(batch));
+        reservationService.setJournal(Journal.NONE);
+
+        assertAll(
+                () -> assertEquals(1, reservationService.getAllReservations().size()),
+                () -> assertEquals(List.of(room2), new ArrayList<>(reservationService.findRooms(checkIn, checkOut)))
+        );
+    }
+
+    /**
+     * Returns a journal which fails to report any reservation after the supplied number of them.
+     */
+    private static Journal failingJournal(int reservationsReported) {
+        var reported = new AtomicInteger();
+        return new Journal() {
+            @Override
+            public void customerAdded(Customer customer) {
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+                if (reported.getAndIncrement() >= reservationsReported) {
+                    throw new UncheckedIOException(new IOException("Disk full"));
+                }
+            }
+        };
+    }
+
     @Test
     void getARoom_ok() {
         reservationService.addRoom(room1);
@@ -131,6 +302,69 @@ class ReservationServiceTest {
         );
     }
 
+    @Test
+    void reserveARoom_equalRoomObject_sameCalendar() {
+        reservationService.addRoom(room1);
+        var room1Copy = new Room(numberRoom1, 10.0D, RoomType.SINGLE);
+        reservationService.reserveARoom(customer, room1Copy, checkIn, checkOut);
+
+        assertAll(
+                () -> assertEquals(IRoom.NO_ID, room1Copy.getId()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> reservationService.reserveARoom(customer, room1, checkIn, checkOut))
+        );
+    }
+
+    @Test
+    void reserveARoom_equalObjects_reservationRefersToRecordedOnes() {
+        reservationService.addRoom(room1);
+        var room1Copy = new Room(numberRoom1, 10.0D, RoomType.SINGLE);
+        var customerCopy = new Customer("I", "Z", customer.getEmail());
+        Reservation first = reservationService.reserveARoom(customer, room1Copy, checkIn, checkOut);
+        Reservation second = reservationService.reserveARoom(customerCopy, room1Copy, checkOut, checkOut.plusDays(1));
+        BookingRequest batched = request(room1Copy, checkOut.plusDays(1), checkOut.plusDays(2));
+        reservationService.reserveAll(List.of(batched));
+        Reservation third = batched.result().join();
+
+        assertAll(
+                () -> assertSame(room1, first.getRoom()),
+                () -> assertSame(customer, first.getCustomer()),
+                () -> assertSame(room1, second.getRoom()),
+                () -> assertSame(customer, second.getCustomer()),
+                () -> assertSame(room1, third.getRoom()),
+                () -> assertTrue(reservationService.getCustomersReservation(customerCopy).stream()
+                        .allMatch(reservation -> reservation.getCustomer() == customer))
+        );
+    }
+
+    @Test
+    void reserveARoom_notRecorded() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.reserveARoom(customer, room1, checkIn, checkOut));
+
+        assertEquals("There is no room with number " + numberRoom1, exception.getMessage());
+    }
+
+    @Test
+    void getCustomersReservation_registeredAndEqualCustomer() {
+        reservationService.addRoom(room1);
+        customer.assignId(0);
+        var customerOther = new Customer("J", "R", "j@r.com");
+        customerOther.assignId(1);
+        var customerSameEmail = new Customer("Ivan", "Zykov", customer.getEmail());
+        Reservation first = reservationService.reserveARoom(customer, room1, checkIn, checkOut);
+        Reservation second = reservationService.reserveARoom(customerSameEmail, room1, checkOut,
+                checkOut.plusDays(1));
+        Reservation other = reservationService.reserveARoom(customerOther, room1, checkIn.minusDays(1), checkIn);
+
+        assertAll(
+                () -> assertEquals(List.of(first, second), reservationService.getCustomersReservation(customer)),
+                () -> assertEquals(List.of(first, second),
+                        reservationService.getCustomersReservation(customerSameEmail)),
+                () -> assertEquals(List.of(other), reservationService.getCustomersReservation(customerOther))
+        );
+    }
+
     @Test
     void reserveARoom_exception_roomAlreadyReservedSameDates() {
         reservationService.addRoom(room1);
@@ -145,11 +379,312 @@ class ReservationServiceTest {
         assertEquals("This room is already reserved for these days", exception.getMessage());
     }
 
+    @Test
+    void reserveARoom_exception_checkOutNotAfterCheckIn() {
+        reservationService.addRoom(room1);
+
+        Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> reservationService.reserveARoom(customer, room1, checkOut, checkIn)
+        );
+
+        assertAll(
+                () -> assertEquals("Check-out date should be later than check-in date", exception.getMessage()),
+                () -> assertTrue(reservationService.getAllReservations().isEmpty())
+        );
+    }
+
+    @ParameterizedTest(name = "[{index}] 20-27 booked, {0}-{1} refused")
+    @MethodSource("provide_notAvailableDates")
+    void reserveARoom_exception_roomAlreadyReservedOverlappingDates(int checkInDay, int checkOutDay) {
+        reservationService.addRoom(room1);
+        reservationService.reserveARoom(customer, room1, checkIn, checkOut);
+
+        LocalDate checkInOverlapping = LocalDate.of(YEAR, MONTH, checkInDay);
+        LocalDate checkOutOverlapping = LocalDate.of(YEAR, MONTH, checkOutDay);
+        var customerOther = new Customer("J", "R", "j@r.com");
+        Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> reservationService.reserveARoom(customerOther, room1, checkInOverlapping, checkOutOverlapping)
+        );
+
+        assertAll(
+                () -> assertEquals("This room is already reserved for these days", exception.getMessage()),
+                () -> assertEquals(1, reservationService.getAllReservations().size())
+        );
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @EnumSource(BookingMode.class)
+    void reserveARoom_concurrentlySameRoom_onlyOneBooked(BookingMode bookingMode) throws InterruptedException {
+        reservationService.setBookingMode(bookingMode);
+        reservationService.addRoom(room1);
+        final int threads = 8;
+        var successes = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            var customerOfThread = new Customer("C", "T", "c" + i + "@t.com");
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    reservationService.reserveARoom(customerOfThread, room1, checkIn, checkOut);
+                    successes.incrementAndGet();
+                } catch (IllegalArgumentException | InterruptedException ex) {
+                    // Expected for all threads but one
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertAll(
+                () -> assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS)),
+                () -> assertEquals(1, successes.get()),
+                () -> assertEquals(1, reservationService.getAllReservations().size())
+        );
+    }
+
+    @Test
+    void reserveARoom_optimistic_concurrentOverlappingStays_neverOverlapBooked() throws InterruptedException {
+        reservationService.setBookingMode(BookingMode.OPTIMISTIC);
+        reservationService.addRoom(room1);
+        final int threads = 8;
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            var random = new Random(i);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 500; j++) {
+                        LocalDate stayIn = checkIn.plusDays(random.nextInt(200));
+                        try {
+                            reservationService.reserveARoom(customer, room1, stayIn,
+                                    stayIn.plusDays(1 + random.nextInt(5)));
+                        } catch (IllegalArgumentException ex) {
+                            // Overlaps a stay booked already
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<Reservation> booked = new ArrayList<>(reservationService.getAllReservations());
+        booked.sort(Comparator.comparingInt(Reservation::getCheckInDay));
+        for (int i = 1; i < booked.size(); i++) {
+            assertTrue(booked.get(i - 1).getCheckOutDay() <= booked.get(i).getCheckInDay());
+        }
+        assertEquals(booked.size(), reservationService.getCustomersReservation(customer).size());
+    }
+
+    @Test
+    void reserveARoom_optimistic_laterStayJournaledAfterEarlierOne() throws Exception {
+        reservationService.setBookingMode(BookingMode.OPTIMISTIC);
+        reservationService.addRoom(room1);
+        List<LocalDate> journaled = new CopyOnWriteArrayList<>();
+        var firstReporting = new CountDownLatch(1);
+        var firstReleased = new CountDownLatch(1);
+        reservationService.setJournal(new Journal() {
+            @Override
+            public void customerAdded(Customer customer) {
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+                if (reservation.getCheckInDate().equals(checkIn)) {
+                    firstReporting.countDown();
+                    try {
+                        firstReleased.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                journaled.add(reservation.getCheckInDate());
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<?> first = executor.submit(() -> reservationService.reserveARoom(customer, room1, checkIn, checkOut));
+        assertTrue(firstReporting.await(10, TimeUnit.SECONDS));
+        // Accepted by the calendar after the first stay, so it can't be journaled before it
+        Future<?> second = executor.submit(() -> reservationService.reserveARoom(customer, room1, checkOut,
+                checkOut.plusDays(1)));
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        firstReleased.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(List.of(checkIn, checkOut), journaled);
+    }
+
+    @Test
+    void reserveARoom_optimistic_concurrentBookings_journaledOneAtATimePerRoom() throws InterruptedException {
+        reservationService.setBookingMode(BookingMode.OPTIMISTIC);
+        var room2 = new Room("2", 10.0D, RoomType.SINGLE);
+        reservationService.addRooms(List.of(room1, room2));
+        Map<String, AtomicInteger> reporting = Map.of(numberRoom1, new AtomicInteger(), "2", new AtomicInteger());
+        var overlaps = new AtomicInteger();
+        reservationService.setJournal(new Journal() {
+            @Override
+            public void customerAdded(Customer customer) {
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+                AtomicInteger ofRoom = reporting.get(reservation.getRoom().getRoomNumber());
+                if (ofRoom.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                Thread.yield();
+                ofRoom.decrementAndGet();
+            }
+        });
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int firstDay = t * 100;
+            executor.execute(() -> {
+                for (int day = firstDay; day < firstDay + 100; day++) {
+                    IRoom room = day % 2 == 0 ? room1 : room2;
+                    reservationService.reserveARoom(customer, room, checkIn.plusDays(day), checkIn.plusDays(day + 1));
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertAll(
+                () -> assertEquals(0, overlaps.get()),
+                () -> assertEquals(threads * 100, reservationService.getAllReservations().size())
+        );
+    }
+
+    @Test
+    void reserveAll_bookedAsOneBatch() {
+        var room2 = new Room("2", 10.0D, RoomType.SINGLE);
+        reservationService.addRooms(List.of(room1, room2));
+        reservationService.reserveARoom(customer, room2, checkIn, checkOut);
+        var records = new AtomicInteger();
+        List<Reservation> journaled = new ArrayList<>();
+        reservationService.setJournal(new Journal() {
+            @Override
+            public void record(Runnable change) {
+                records.incrementAndGet();
+                change.run();
+            }
+
+            @Override
+            public void customerAdded(Customer customer) {
+            }
+
+            @Override
+            public void roomAdded(IRoom room) {
+            }
+
+            @Override
+            public void roomReserved(Reservation reservation) {
+                journaled.add(reservation);
+            }
+        });
+        List<BookingRequest> batch = List.of(
+                request(room2, checkOut, checkOut.plusDays(2)),
+                request(room1, checkIn, checkOut),
+                // Conflicts with a stay booked before and with one earlier in the batch
+                request(room2, checkIn, checkIn.plusDays(1)),
+                request(room1, checkIn.plusDays(1), checkIn.plusDays(2)),
+                request(room1, checkOut, checkIn),
+                request(new Room("3", 10.0D, RoomType.SINGLE), checkIn, checkOut));
+
+        reservationService.reserveAll(batch);
+
+        assertAll(
+                () -> assertEquals(1, records.get()),
+                () -> assertEquals(List.of(batch.get(0).result().join(), batch.get(1).result().join()), journaled),
+                () -> assertEquals(3, reservationService.getAllReservations().size()),
+                () -> assertEquals(3, reservationService.getCustomersReservation(customer).size()),
+                () -> assertTrue(batch.stream().skip(2)
+                        .allMatch(request -> request.result().isCompletedExceptionally())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> reservationService.reserveARoom(customer, room1, checkIn, checkIn.plusDays(1)))
+        );
+    }
+
+    private BookingRequest request(IRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
+        return new BookingRequest(customer, room, checkInDate, checkOutDate, new CompletableFuture<>());
+    }
+
+    @Test
+    void reserveARoom_concurrentlyDifferentRooms_allBookedWhileSearching() throws Exception {
+        final int threads = 8;
+        final int roomsPerThread = 100;
+        for (int i = 0; i < threads * roomsPerThread; i++) {
+            reservationService.addRoom(new Room(String.valueOf(i), 10.0D, RoomType.SINGLE));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> bookings = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int firstRoom = t * roomsPerThread;
+            bookings.add(executor.submit(() -> {
+                for (int i = firstRoom; i < firstRoom + roomsPerThread; i++) {
+                    reservationService.reserveARoom(customer, reservationService.getARoom(String.valueOf(i)),
+                            checkIn, checkOut);
+                }
+            }));
+        }
+        Future<?> searches = executor.submit(() -> {
+            for (int i = 0; i < 100; i++) {
+                reservationService.findRooms(checkIn, checkOut);
+            }
+        });
+        for (Future<?> booking: bookings) {
+            booking.get(10, TimeUnit.SECONDS);
+        }
+        searches.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertAll(
+                () -> assertEquals(threads * roomsPerThread, reservationService.getAllReservations().size()),
+                () -> assertTrue(reservationService.findRooms(checkIn, checkOut).isEmpty())
+        );
+    }
+
     @Test
     void findRooms_empty() {
         assertTrue(reservationService.findRooms(checkIn, checkOut).isEmpty());
     }
 
+    @Test
+    void findRooms_reserveARoom_datesOutOfRange() {
+        reservationService.addRoom(room1);
+        LocalDate farFuture = LocalDate.of(10000, Month.JANUARY, 1);
+        LocalDate farPast = LocalDate.of(0, Month.DECEMBER, 31);
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> reservationService.findRooms(checkIn, farFuture)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> reservationService.findRooms(LocalDate.MAX.minusDays(1), LocalDate.MAX)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> reservationService.reserveARoom(customer, room1, farPast, checkOut)),
+                () -> assertEquals(1, reservationService.findRooms(checkIn, checkOut).size())
+        );
+    }
+
     @Test
     void findRooms_noReservations_roomAvailable() {
         reservationService.addRoom(room1);
@@ -168,10 +703,8 @@ class ReservationServiceTest {
         reservationService.addRoom(room1);
         reservationService.reserveARoom(customer, room1, checkIn, checkOut);
 
-        cal.set(YEAR, MONTH, checkInDay);
-        Date checkInDesired = cal.getTime();
-        cal.set(YEAR, MONTH, checkOutDay);
-        Date checkOutDesired = cal.getTime();
+        LocalDate checkInDesired = LocalDate.of(YEAR, MONTH, checkInDay);
+        LocalDate checkOutDesired = LocalDate.of(YEAR, MONTH, checkOutDay);
         Collection<IRoom> availableRooms = reservationService.findRooms(checkInDesired, checkOutDesired);
 
         assertAll(
@@ -195,10 +728,8 @@ class ReservationServiceTest {
         reservationService.addRoom(room1);
         reservationService.reserveARoom(customer, room1, checkIn, checkOut);
 
-        cal.set(YEAR, MONTH, checkInDay);
-        Date checkInDesired = cal.getTime();
-        cal.set(YEAR, MONTH, checkOutDay);
-        Date checkOutDesired = cal.getTime();
+        LocalDate checkInDesired = LocalDate.of(YEAR, MONTH, checkInDay);
+        LocalDate checkOutDesired = LocalDate.of(YEAR, MONTH, checkOutDay);
         Collection<IRoom> availableRooms = reservationService.findRooms(checkInDesired, checkOutDesired);
 
         assertEquals(0, availableRooms.size());
@@ -210,10 +741,62 @@ class ReservationServiceTest {
                 Arguments.of(20, 21),
                 Arguments.of(22, 23),
                 Arguments.of(26, 27),
-                Arguments.of(26, 28)
+                Arguments.of(26, 28),
+                Arguments.of(19, 28)
+        );
+    }
+
+    @Test
+    void findRooms_bookedWithinNextMonth() {
+        reservationService.addRoom(room1);
+        LocalDate checkInSoon = LocalDate.now().plusDays(10);
+        LocalDate checkOutSoon = checkInSoon.plusDays(5);
+        reservationService.reserveARoom(customer, room1, checkInSoon, checkOutSoon);
+
+        LocalDate lastNight = checkOutSoon.minusDays(1);
+        LocalDate afterStay = lastNight.plusDays(3);
+
+        assertAll(
+                () -> assertTrue(reservationService.findRooms(lastNight, afterStay).isEmpty()),
+                () -> assertEquals(1, reservationService.findRooms(checkOutSoon, afterStay).size())
+        );
+    }
+
+    @Test
+    void findAvailability_alternativeWindows() {
+        reservationService.addRoom(room1);
+        var room2 = new Room("2", 20.0D, RoomType.DOUBLE);
+        reservationService.addRoom(room2);
+        reservationService.reserveARoom(customer, room1, checkIn, checkOut);
+        reservationService.reserveARoom(customer, room2, checkIn.plusDays(7), checkOut.plusDays(7));
+
+        Availability availability = reservationService.findAvailability(checkIn, checkOut, 2, 7);
+
+        assertAll(
+                () -> assertEquals(List.of(
+                        new Availability.Window(checkIn, checkOut, List.of(room2)),
+                        new Availability.Window(checkIn.plusDays(7), checkOut.plusDays(7), List.of(room1)),
+                        new Availability.Window(checkIn.plusDays(14), checkOut.plusDays(14), List.of(room1, room2))
+                ), availability.windows()),
+                () -> assertEquals(Optional.of(availability.windows().get(0)), availability.firstAvailable())
         );
     }
 
+    @Test
+    void findAvailability_noneFree() {
+        reservationService.addRoom(room1);
+        reservationService.reserveARoom(customer, room1, checkIn, checkOut.plusDays(7));
+
+        assertTrue(reservationService.findAvailability(checkIn, checkOut, 1, 7).firstAvailable().isEmpty());
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} alternatives shifted by {1} days")
+    @CsvSource({"-1, 7", "64, 7", "1, 0"})
+    void findAvailability_invalidArguments(int alternatives, int shiftDays) {
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.findAvailability(checkIn, checkOut, alternatives, shiftDays));
+    }
+
     @Test
     void getCustomersReservation() {
         // Check that initially empty
@@ -229,10 +812,8 @@ class ReservationServiceTest {
 
         // Add a reservation for a different customer
         var customerOther = new Customer("J", "R", "j@r.com");
-        cal.set(YEAR, MONTH, 5);
-        Date checkInTwo = cal.getTime();
-        cal.set(YEAR, MONTH, 6);
-        Date checkOutTwo = cal.getTime();
+        LocalDate checkInTwo = LocalDate.of(YEAR, MONTH, 5);
+        LocalDate checkOutTwo = LocalDate.of(YEAR, MONTH, 6);
         Reservation reservationTwo = reservationService.reserveARoom(customerOther, room1, checkInTwo, checkOutTwo);
         Set<Reservation> allReservations = reservationService.getAllReservations();
 
@@ -246,14 +827,87 @@ class ReservationServiceTest {
         assertTrue(customersReservations.contains(reservationOne));
 
         // Add another reservation for initial customer
-        cal.set(YEAR, MONTH, 15);
-        Date checkInTree = cal.getTime();
-        cal.set(YEAR, MONTH, 16);
-        Date checkOutTree = cal.getTime();
+        LocalDate checkInTree = LocalDate.of(YEAR, MONTH, 15);
+        LocalDate checkOutTree = LocalDate.of(YEAR, MONTH, 16);
         Reservation reservationThree = reservationService.reserveARoom(customer, room1, checkInTree, checkOutTree);
         customersReservations = reservationService.getCustomersReservation(customer);
 
         assertEquals(2, customersReservations.size());
         assertTrue(customersReservations.contains(reservationThree));
     }
+
+    @Test
+    void getCustomersReservation_sameEmail() {
+        reservationService.addRoom(room1);
+        Reservation reservation = reservationService.reserveARoom(customer, room1, checkIn, checkOut);
+        var customerSameEmail = new Customer("Ivan", "Zykov", customer.getEmail());
+
+        assertEquals(List.of(reservation), reservationService.getCustomersReservation(customerSameEmail));
+    }
+
+    @Test
+    void getCustomersReservation_noCustomer() {
+        reservationService.addRoom(room1);
+        reservationService.reserveARoom(null, room1, checkIn, checkOut);
+
+        assertAll(
+                () -> assertTrue(reservationService.getCustomersReservation(null).isEmpty()),
+                () -> assertTrue(reservationService.getCustomersReservation(customer).isEmpty())
+        );
+    }
+
+    @Test
+    void findRooms_cachedUntilBookedOrRoomAdded() {
+        reservationService.addRoom(room1);
+        LocalDate checkInOther = LocalDate.of(YEAR, MONTH, 1);
+        LocalDate checkOutOther = LocalDate.of(YEAR, MONTH, 3);
+        reservationService.findRooms(checkIn, checkOut);
+        reservationService.findRooms(checkInOther, checkOutOther);
+
+        // Booking the room for 20-27 drops only the search of these nights
+        reservationService.reserveARoom(customer, room1, checkIn, checkOut);
+        Collection<IRoom> roomsBooked = reservationService.findRooms(checkIn, checkOut);
+        Collection<IRoom> roomsOther = reservationService.findRooms(checkInOther, checkOutOther);
+        SearchCacheStatistics statisticsBooked = reservationService.getSearchCacheStatistics();
+
+        // Adding a room drops all searches
+        var room2 = new Room("2", 15.0D, RoomType.DOUBLE);
+        reservationService.addRoom(room2);
+        Collection<IRoom> roomsAdded = reservationService.findRooms(checkIn, checkOut);
+
+        assertAll(
+                () -> assertTrue(roomsBooked.isEmpty()),
+                () -> assertEquals(List.of(room1), roomsOther),
+                () -> assertEquals(new SearchCacheStatistics(1, 3, 0, 1, 2), statisticsBooked),
+                () -> assertEquals(List.of(room2), roomsAdded),
+                () -> assertEquals(3, reservationService.getSearchCacheStatistics().invalidations())
+        );
+    }
+
+    @ParameterizedTest(name = "[{index}] type {0}, up to {1}: rooms {2}")
+    @MethodSource("provide_filters")
+    void findRooms_filtered(RoomType roomType, Double maxPrice, List<String> roomNumbers) {
+        reservationService.addRoom(new Room("3", 30.0D, RoomType.DOUBLE));
+        reservationService.addRoom(room1);
+        reservationService.addRoom(new Room("2", 20.0D, RoomType.SINGLE));
+        reservationService.addRoom(new FreeRoom("4", RoomType.DOUBLE));
+        reservationService.reserveARoom(customer, reservationService.getARoom("2"), checkIn, checkOut);
+
+        List<String> found = new ArrayList<>();
+        for (IRoom aRoom: reservationService.findRooms(checkIn, checkOut, roomType, maxPrice)) {
+            found.add(aRoom.getRoomNumber());
+        }
+
+        assertEquals(roomNumbers, found);
+    }
+
+    private static Stream<Arguments> provide_filters() {
+        return Stream.of(
+                Arguments.of(RoomType.SINGLE, null, List.of("1")),
+                Arguments.of(RoomType.DOUBLE, null, List.of("4", "3")),
+                Arguments.of(null, 20.0D, List.of("4", "1")),
+                Arguments.of(RoomType.DOUBLE, 29.99D, List.of("4")),
+                Arguments.of(RoomType.SINGLE, 5.0D, List.of())
+        );
+    }
 }
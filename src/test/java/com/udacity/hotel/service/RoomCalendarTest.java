@@ -0,0 +1,239 @@
+package com.udacity.hotel.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomCalendarTest {
+
+    private static final int HORIZON_START = 1000;
+
+    private RoomCalendar roomCalendar;
+
+    @BeforeEach
+    void init() {
+        roomCalendar = new RoomCalendar(HORIZON_START);
+    }
+
+    @Test
+    void isFree_nothingBooked() {
+        assertTrue(roomCalendar.isFree(1, 31));
+    }
+
+    @ParameterizedTest(name = "[{index}] 10-15 and 20-27 booked, {0}-{1} free: {2}")
+    @MethodSource("provide_twoStays")
+    void isFree_twoStays_outsideHorizon(int checkIn, int checkOut, boolean isFree) {
+        roomCalendar.book(10, 15);
+        roomCalendar.book(20, 27);
+
+        assertEquals(isFree, roomCalendar.isFree(checkIn, checkOut));
+    }
+
+    @ParameterizedTest(name = "[{index}] 10-15 and 20-27 booked, {0}-{1} free: {2}")
+    @MethodSource("provide_twoStays")
+    void isFree_twoStays_withinHorizon(int checkIn, int checkOut, boolean isFree) {
+        roomCalendar.book(HORIZON_START + 10, HORIZON_START + 15);
+        roomCalendar.book(HORIZON_START + 20, HORIZON_START + 27);
+
+        assertEquals(isFree, roomCalendar.isFree(HORIZON_START + checkIn, HORIZON_START + checkOut));
+    }
+
+    private static Stream<Arguments> provide_twoStays() {
+        return Stream.of(
+                Arguments.of(5, 10, true),
+                Arguments.of(15, 20, true),
+                Arguments.of(27, 30, true),
+                Arguments.of(9, 11, false),
+                Arguments.of(14, 21, false),
+                Arguments.of(16, 21, false),
+                Arguments.of(21, 22, false),
+                Arguments.of(1, 30, false)
+        );
+    }
+
+    @Test
+    void freeWindows_twoStays() {
+        roomCalendar.book(HORIZON_START + 10, HORIZON_START + 15);
+        roomCalendar.book(HORIZON_START + 20, HORIZON_START + 27);
+
+        // Windows 3-8, 8-13, 13-18, 18-23, 23-28 and 28-33
+        assertEquals(0b100001L, roomCalendar.freeWindows(HORIZON_START + 3, HORIZON_START + 8, 5, 6));
+    }
+
+    @ParameterizedTest(name = "[{index}] 10-15 and 20-27 booked, {0}-{1} refused")
+    @MethodSource("provide_overlappingStays")
+    void book_overlappingStayRefused(int checkIn, int checkOut) {
+        roomCalendar.book(10, 15);
+        roomCalendar.book(20, 27);
+
+        assertAll(
+                () -> assertEquals(RoomCalendar.CONFLICT, roomCalendar.book(checkIn, checkOut)),
+                () -> assertTrue(roomCalendar.isFree(15, 20))
+        );
+    }
+
+    private static Stream<Arguments> provide_overlappingStays() {
+        return Stream.of(
+                Arguments.of(14, 21),
+                Arguments.of(9, 11),
+                Arguments.of(26, 28),
+                Arguments.of(21, 22),
+                Arguments.of(1, 30)
+        );
+    }
+
+    @Test
+    void book_touchingStaysMerged() {
+        assertAll(
+                () -> assertNotEquals(RoomCalendar.CONFLICT, roomCalendar.book(10, 15)),
+                () -> assertNotEquals(RoomCalendar.CONFLICT, roomCalendar.book(20, 27)),
+                () -> assertNotEquals(RoomCalendar.CONFLICT, roomCalendar.book(15, 20)),
+                () -> assertFalse(roomCalendar.isFree(14, 16)),
+                () -> assertFalse(roomCalendar.isFree(19, 21)),
+                () -> assertTrue(roomCalendar.isFree(27, 28)),
+                () -> assertTrue(roomCalendar.isFree(9, 10))
+        );
+    }
+
+    @Test
+    void book_emptyStayIgnored() {
+        roomCalendar.book(10, 10);
+
+        assertTrue(roomCalendar.isFree(9, 11));
+    }
+
+    @Test
+    void book_versionsConsecutive() {
+        assertAll(
+                () -> assertEquals(1, roomCalendar.book(10, 15)),
+                () -> assertEquals(RoomCalendar.CONFLICT, roomCalendar.book(12, 13)),
+                () -> assertEquals(2, roomCalendar.book(10, 10)),
+                () -> assertEquals(3, roomCalendar.book(20, 27))
+        );
+    }
+
+    @Test
+    void bookAll_conflictingStaysLeftOut_oneVersion() {
+        roomCalendar.book(10, 15);
+        boolean[] booked = new boolean[4];
+
+        int version = roomCalendar.bookAll(new int[] {12, 20, 22, 15}, new int[] {13, 25, 23, 20}, booked);
+
+        assertAll(
+                () -> assertEquals(2, version),
+                () -> assertArrayEquals(new boolean[] {false, true, false, true}, booked),
+                () -> assertFalse(roomCalendar.isFree(19, 21)),
+                () -> assertTrue(roomCalendar.isFree(25, 26))
+        );
+    }
+
+    @Test
+    void bookAll_allConflicting_noVersion() {
+        roomCalendar.book(10, 15);
+        boolean[] booked = new boolean[2];
+
+        assertAll(
+                () -> assertEquals(RoomCalendar.CONFLICT,
+                        roomCalendar.bookAll(new int[] {10, 14}, new int[] {11, 16}, booked)),
+                () -> assertArrayEquals(new boolean[] {false, false}, booked),
+                () -> assertEquals(2, roomCalendar.book(20, 21))
+        );
+    }
+
+    @Test
+    void release_freesOnlyReleasedStay() {
+        roomCalendar.book(HORIZON_START + 10, HORIZON_START + 15);
+        roomCalendar.book(HORIZON_START + 15, HORIZON_START + 20);
+        roomCalendar.book(30, 35);
+
+        roomCalendar.release(HORIZON_START + 15, HORIZON_START + 20);
+        roomCalendar.release(30, 35);
+
+        assertAll(
+                () -> assertFalse(roomCalendar.isFree(HORIZON_START + 14, HORIZON_START + 15)),
+                () -> assertTrue(roomCalendar.isFree(HORIZON_START + 15, HORIZON_START + 20)),
+                () -> assertTrue(roomCalendar.isFree(30, 35)),
+                () -> assertEquals(4, roomCalendar.book(HORIZON_START + 15, HORIZON_START + 20))
+        );
+    }
+
+    @Test
+    void awaitTurn_concurrentBookings_publishedInVersionOrder() throws InterruptedException {
+        final int threads = 8;
+        final int staysPerThread = 200;
+        List<Integer> publishedVersions = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int firstDay = t * staysPerThread;
+            executor.execute(() -> {
+                for (int day = firstDay; day < firstDay + staysPerThread; day++) {
+                    int version = roomCalendar.book(day, day + 1);
+                    roomCalendar.awaitTurn(version);
+                    try {
+                        // Unsynchronized on purpose, the turns alone order the publishers
+                        publishedVersions.add(version);
+                    } finally {
+                        roomCalendar.endTurn(version);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads * staysPerThread, publishedVersions.size());
+        for (int i = 0; i < publishedVersions.size(); i++) {
+            assertEquals(i + 1, publishedVersions.get(i));
+        }
+    }
+
+    @Test
+    void awaitTurn_slowPredecessor_waiterParkedUntilHandedOver() throws InterruptedException {
+        int first = roomCalendar.book(10, 12);
+        int second = roomCalendar.book(12, 14);
+        roomCalendar.awaitTurn(first);
+        var waiter = new Thread(() -> {
+            roomCalendar.awaitTurn(second);
+            roomCalendar.endTurn(second);
+        });
+        waiter.start();
+
+        // A waiter spinning or yielding would stay runnable
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, waiter.getState());
+
+        roomCalendar.endTurn(first);
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+    }
+
+    @Test
+    void moveHorizon_keepsStaysBookedBeyondOldHorizon() {
+        int farCheckIn = HORIZON_START + NightBitmap.HORIZON_DAYS + 5;
+        roomCalendar.book(HORIZON_START - 3, HORIZON_START + 2);
+        roomCalendar.book(farCheckIn, farCheckIn + 3);
+
+        roomCalendar.moveHorizon(HORIZON_START + 1);
+
+        assertAll(
+                () -> assertEquals(HORIZON_START + 1, roomCalendar.getHorizonStart()),
+                () -> assertFalse(roomCalendar.isFree(HORIZON_START + 1, HORIZON_START + 2)),
+                () -> assertTrue(roomCalendar.isFree(HORIZON_START + 2, farCheckIn)),
+                () -> assertFalse(roomCalendar.isFree(farCheckIn + 2, farCheckIn + 4))
+        );
+    }
+}
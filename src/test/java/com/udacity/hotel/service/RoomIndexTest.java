@@ -0,0 +1,91 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.FreeRoom;
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Room;
+import com.udacity.hotel.model.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomIndexTest {
+
+    private RoomIndex roomIndex;
+    private IRoom single10;
+    private IRoom single20;
+    private IRoom double15;
+    private IRoom doubleFree;
+
+    @BeforeEach
+    void init() {
+        roomIndex = new RoomIndex();
+        single20 = new Room("1", 20.0D, RoomType.SINGLE);
+        double15 = new Room("2", 15.0D, RoomType.DOUBLE);
+        single10 = new Room("3", 10.0D, RoomType.SINGLE);
+        doubleFree = new FreeRoom("4", RoomType.DOUBLE);
+        roomIndex.add(single20);
+        roomIndex.add(double15);
+        roomIndex.add(single10);
+        roomIndex.add(doubleFree);
+    }
+
+    @Test
+    void candidates_noFilters_allRoomsCheapestFirst() {
+        assertArrayEquals(new IRoom[] {doubleFree, single10, double15, single20}, roomIndex.candidates(null, null));
+    }
+
+    @Test
+    void candidates_byType() {
+        assertAll(
+                () -> assertArrayEquals(new IRoom[] {single10, single20},
+                        roomIndex.candidates(RoomType.SINGLE, null)),
+                () -> assertArrayEquals(new IRoom[] {doubleFree, double15},
+                        roomIndex.candidates(RoomType.DOUBLE, null))
+        );
+    }
+
+    @Test
+    void candidates_byMaxPrice_inclusive() {
+        assertAll(
+                () -> assertArrayEquals(new IRoom[] {doubleFree, single10, double15},
+                        roomIndex.candidates(null, 15.0D)),
+                () -> assertArrayEquals(new IRoom[] {single10}, roomIndex.candidates(RoomType.SINGLE, 19.0D)),
+                () -> assertArrayEquals(new IRoom[0], roomIndex.candidates(RoomType.SINGLE, 9.0D))
+        );
+    }
+
+    @Test
+    void candidates_samePrice_keptInOrderAdded() {
+        IRoom single10Other = new Room("5", 10.0D, RoomType.SINGLE);
+        roomIndex.add(single10Other);
+
+        assertArrayEquals(new IRoom[] {single10, single10Other}, roomIndex.candidates(RoomType.SINGLE, 10.0D));
+    }
+
+    @Test
+    void addAll_mergedByPriceAfterRoomsOfSamePrice() {
+        IRoom single15 = new Room("5", 15.0D, RoomType.SINGLE);
+        IRoom double10 = new Room("6", 10.0D, RoomType.DOUBLE);
+        IRoom single10Other = new Room("7", 10.0D, RoomType.SINGLE);
+        roomIndex.addAll(List.of(single15, double10, single10Other));
+
+        assertAll(
+                () -> assertArrayEquals(new IRoom[] {doubleFree, single10, double10, single10Other, double15, single15,
+                        single20}, roomIndex.candidates(null, null)),
+                () -> assertArrayEquals(new IRoom[] {single10, single10Other, single15, single20},
+                        roomIndex.candidates(RoomType.SINGLE, null)),
+                () -> assertArrayEquals(new IRoom[] {doubleFree, double10},
+                        roomIndex.candidates(RoomType.DOUBLE, 10.0D))
+        );
+    }
+
+    @Test
+    void candidates_typeWithoutRooms() {
+        var emptyIndex = new RoomIndex();
+
+        assertArrayEquals(new IRoom[0], emptyIndex.candidates(RoomType.SINGLE, 100.0D));
+    }
+}
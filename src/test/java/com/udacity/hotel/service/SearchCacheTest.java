@@ -0,0 +1,121 @@
+package com.udacity.hotel.service;
+
+import com.udacity.hotel.model.IRoom;
+import com.udacity.hotel.model.Room;
+import com.udacity.hotel.model.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheTest {
+
+    private SearchCache searchCache;
+    private List<IRoom> rooms;
+
+    @BeforeEach
+    void init() {
+        searchCache = new SearchCache(2);
+        rooms = List.of(new Room("1", 10.0D, RoomType.SINGLE));
+    }
+
+    @Test
+    void get_countsHitsAndMisses() {
+        assertNull(searchCache.get(10, 15));
+        searchCache.put(10, 15, rooms, searchCache.stamp(10, 15));
+
+        assertAll(
+                () -> assertSame(rooms, searchCache.get(10, 15)),
+                () -> assertEquals(new SearchCacheStatistics(1, 1, 0, 0, 1), searchCache.getStatistics())
+        );
+    }
+
+    @Test
+    void put_full_leastRecentlyUsedEvicted() {
+        searchCache.put(10, 15, rooms, searchCache.stamp(10, 15));
+        searchCache.put(20, 25, rooms, searchCache.stamp(20, 25));
+        searchCache.get(10, 15);
+        searchCache.put(30, 35, rooms, searchCache.stamp(30, 35));
+
+        assertAll(
+                () -> assertNotNull(searchCache.get(10, 15)),
+                () -> assertNull(searchCache.get(20, 25)),
+                () -> assertNotNull(searchCache.get(30, 35)),
+                () -> assertEquals(1, searchCache.getStatistics().evictions())
+        );
+    }
+
+    @ParameterizedTest(name = "[{index}] 10-15 cached, {0}-{1} booked, dropped: {2}")
+    @CsvSource({"5, 10, false", "15, 20, false", "5, 11, true", "14, 20, true", "11, 12, true", "1, 30, true"})
+    void invalidate_onlyOverlappingStays(int checkIn, int checkOut, boolean dropped) {
+        searchCache.put(10, 15, rooms, searchCache.stamp(10, 15));
+
+        searchCache.invalidate(checkIn, checkOut);
+
+        assertAll(
+                () -> assertEquals(dropped, searchCache.get(10, 15) == null),
+                () -> assertEquals(dropped ? 1 : 0, searchCache.getStatistics().invalidations())
+        );
+    }
+
+    @Test
+    void invalidate_batch_eachNightAdvancedOnce() {
+        long stamp = searchCache.stamp(10, 30);
+        searchCache.put(10, 15, rooms, searchCache.stamp(10, 15));
+        searchCache.put(30, 35, rooms, searchCache.stamp(30, 35));
+
+        searchCache.invalidate(new int[] {12, 13, 20, 40}, new int[] {14, 16, 21, 41}, 3);
+
+        assertAll(
+                () -> assertNull(searchCache.get(10, 15)),
+                () -> assertNotNull(searchCache.get(30, 35)),
+                // Nights 12 to 15 and 20 advanced once each, the stay beyond the count left out
+                () -> assertEquals(stamp + 5, searchCache.stamp(10, 30)),
+                () -> assertEquals(0, searchCache.stamp(40, 41))
+        );
+    }
+
+    @Test
+    void invalidateAll() {
+        searchCache.put(10, 15, rooms, searchCache.stamp(10, 15));
+        searchCache.put(20, 25, rooms, searchCache.stamp(20, 25));
+
+        searchCache.invalidateAll();
+
+        assertEquals(new SearchCacheStatistics(0, 0, 0, 2, 0), searchCache.getStatistics());
+    }
+
+    @Test
+    void put_invalidatedSinceStamp_notCached() {
+        long stamp = searchCache.stamp(10, 15);
+        searchCache.invalidate(11, 12);
+
+        searchCache.put(10, 15, rooms, stamp);
+
+        assertNull(searchCache.get(10, 15));
+    }
+
+    @Test
+    void put_otherNightsInvalidatedSinceStamp_cached() {
+        long stamp = searchCache.stamp(10, 15);
+        searchCache.invalidate(100, 101);
+
+        searchCache.put(10, 15, rooms, stamp);
+
+        assertSame(rooms, searchCache.get(10, 15));
+    }
+
+    @Test
+    void put_roomsAddedSinceStamp_notCached() {
+        long stamp = searchCache.stamp(10, 15);
+        searchCache.invalidateAll();
+
+        searchCache.put(10, 15, rooms, stamp);
+
+        assertNull(searchCache.get(10, 15));
+    }
+}
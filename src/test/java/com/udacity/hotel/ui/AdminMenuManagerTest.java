@@ -86,6 +86,17 @@ class AdminMenuManagerTest {
         verify(adminMenuService, times(1)).addARoom();
     }
 
+    @Test
+    void showMetrics() {
+        // Stub user's input
+        when(scanner.nextLine()).thenReturn("6", "5");
+
+        // Run this test
+        adminMenuManager.open();
+
+        verify(adminMenuService, times(1)).showMetrics();
+    }
+
     @Test
     void nonExistingMenuNumber() {
         // Stub user's input
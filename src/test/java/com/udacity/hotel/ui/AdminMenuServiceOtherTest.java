@@ -1,6 +1,7 @@
 package com.udacity.hotel.ui;
 
 import com.udacity.hotel.api.AdminResource;
+import com.udacity.hotel.metrics.TimerSnapshot;
 import com.udacity.hotel.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,7 +9,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.*;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.Mockito.*;
@@ -44,6 +48,7 @@ class AdminMenuServiceOtherTest {
                 () -> verify(consolePrinter, times(1)).print("3. See all Reservations"),
                 () -> verify(consolePrinter, times(1)).print("4. Add a room"),
                 () -> verify(consolePrinter, times(1)).print("5. Back to Main Menu"),
+                () -> verify(consolePrinter, times(1)).print("6. See performance metrics"),
                 () -> verify(consolePrinter, times(1)).print("Select a menu option")
         );
     }
@@ -51,7 +56,7 @@ class AdminMenuServiceOtherTest {
     @Test
     void showAllCustomers_empty() {
         // Stub adminResource
-        when(adminResource.getAllCustomers()).thenReturn(List.of());
+        when(adminResource.streamAllCustomers()).thenReturn(Stream.of());
 
         // Run this test
         adminMenuService.showAllCustomers();
@@ -64,7 +69,9 @@ class AdminMenuServiceOtherTest {
     void showAllCustomers_one() {
         // Stub adminResource
         var customer = new Customer("I", "Z", "i@z.com");
-        when(adminResource.getAllCustomers()).thenReturn(List.of(customer));
+        when(adminResource.streamAllCustomers()).thenReturn(Stream.of(customer));
+        // Print one by one through the default method
+        doCallRealMethod().when(consolePrinter).printAll(any());
 
         // Run this test
         adminMenuService.showAllCustomers();
@@ -75,7 +82,7 @@ class AdminMenuServiceOtherTest {
     @Test
     void showAllRooms_empty() {
         // Stub adminResource
-        when(adminResource.getAllRooms()).thenReturn(List.of());
+        when(adminResource.streamAllRooms()).thenReturn(Stream.of());
 
         // Run this test
         adminMenuService.showAllRooms();
@@ -87,7 +94,9 @@ class AdminMenuServiceOtherTest {
     void showAllRooms_one() {
         // Stub adminResource
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(adminResource.getAllRooms()).thenReturn(List.of(room));
+        when(adminResource.streamAllRooms()).thenReturn(Stream.of(room));
+        // Print one by one through the default method
+        doCallRealMethod().when(consolePrinter).printAll(any());
 
         // Run this test
         adminMenuService.showAllRooms();
@@ -98,7 +107,7 @@ class AdminMenuServiceOtherTest {
     @Test
     void showAllReservations_noReservations() {
         // Stub having no reservations
-        when(adminResource.getAllReservations()).thenReturn(Set.of());
+        when(adminResource.streamAllReservations()).thenReturn(Stream.of());
 
         // Run this test
         adminMenuService.showAllReservations();
@@ -111,23 +120,46 @@ class AdminMenuServiceOtherTest {
         // Create a reservation
         var room = new Room("1", 10.0D, RoomType.SINGLE);
         var customerI = new Customer("I", "Z", "i@z.com");
-        Calendar cal = Calendar.getInstance();
         int year = 2023;
-        int month = Calendar.MAY;
+        Month month = Month.MAY;
         int day = 20;
-        cal.set(year, month, day);
-        Date checkIn = cal.getTime();
-        cal.add(Calendar.DATE, 7);
-        Date checkOut = cal.getTime();
+        LocalDate checkIn = LocalDate.of(year, month, day);
+        LocalDate checkOut = checkIn.plusDays(7);
         var reservationFactory = new ReservationFactory();
         Reservation reservation = reservationFactory.create(customerI, room, checkIn, checkOut);
 
         // Stub having one reservation
-        when(adminResource.getAllReservations()).thenReturn(Set.of(reservation));
+        when(adminResource.streamAllReservations()).thenReturn(Stream.of(reservation));
+        // Print one by one through the default method
+        doCallRealMethod().when(consolePrinter).printAll(any());
 
         // Run this test
         adminMenuService.showAllReservations();
 
         verify(consolePrinter, times(1)).print(reservation);
     }
+
+    @Test
+    void showMetrics_none() {
+        // Stub having no timed operations
+        when(adminResource.getMetrics()).thenReturn(List.of());
+
+        // Run this test
+        adminMenuService.showMetrics();
+
+        verify(consolePrinter, times(1)).print("No operations were timed yet");
+    }
+
+    @Test
+    void showMetrics_one() {
+        // Stub one timed operation
+        when(adminResource.getMetrics()).thenReturn(List.of(new TimerSnapshot("find_rooms", 4, 1, 8_000, 3_500,
+                1_500, 3_000, 3_500)));
+
+        // Run this test
+        adminMenuService.showMetrics();
+
+        verify(consolePrinter, times(1)).print(String.format("find_rooms: 4 calls, 1 failed, mean %.1f us, " +
+                "p50 %.1f us, p99 %.1f us, max %.1f us", 2.0D, 1.5D, 3.5D, 3.5D));
+    }
 }
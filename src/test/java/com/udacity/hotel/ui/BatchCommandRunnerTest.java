@@ -0,0 +1,172 @@
+package com.udacity.hotel.ui;
+
+import com.udacity.hotel.Singletons;
+import com.udacity.hotel.api.AdminResource;
+import com.udacity.hotel.api.HotelResource;
+import com.udacity.hotel.model.ReservationFactory;
+import com.udacity.hotel.service.CustomerService;
+import com.udacity.hotel.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchCommandRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatchCommandRunner batchCommandRunner;
+    private ByteArrayOutputStream outContent;
+
+    @BeforeEach
+    void init() throws NoSuchFieldException, IllegalAccessException {
+        Singletons.reset(CustomerService.class);
+        CustomerService customerService = CustomerService.getInstance();
+        Singletons.reset(ReservationService.class);
+        ReservationService reservationService = ReservationService.getInstance(new ReservationFactory());
+
+        outContent = new ByteArrayOutputStream();
+        var consolePrinter = new BufferedConsolePrinter(outContent, StandardCharsets.UTF_8,
+                BufferedConsolePrinter.DEFAULT_BUFFER_SIZE);
+        batchCommandRunner = new BatchCommandRunner(new HotelResource(customerService, reservationService),
+                new AdminResource(customerService, reservationService), consolePrinter);
+    }
+
+    private int run(String... commands) throws IOException {
+        return batchCommandRunner.run(new BufferedReader(new StringReader(String.join("\n", commands))));
+    }
+
+    private List<String> printedLines() {
+        return outContent.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void run_allCommands() throws IOException {
+        int failures = run(
+                "# Set up the hotel",
+                "customer i@z.com I Z",
+                "room 1 100.0 SINGLE",
+                "room 2 50 double",
+                "",
+                "book i@z.com 1 2099-05-20 2099-05-27",
+                "search 2099-05-20 2099-05-27",
+                "search 2099-05-01 2099-05-02 * 60",
+                "reservations i@z.com",
+                "list customers",
+                "list rooms",
+                "list reservations");
+
+        assertAll(
+                () -> assertEquals(0, failures),
+                () -> assertEquals(List.of(
+                        "OK",
+                        "OK",
+                        "OK",
+                        "BOOKED 1 2099-05-20 2099-05-27",
+                        "ROOMS 1 2",
+                        "ROOMS 1 2",
+                        "RESERVATIONS 1",
+                        "RESERVATION i@z.com 1 2099-05-20 2099-05-27",
+                        "CUSTOMER i@z.com I Z",
+                        "END",
+                        "ROOM 1 100.0 SINGLE",
+                        "ROOM 2 50.0 DOUBLE",
+                        "END",
+                        "RESERVATION i@z.com 1 2099-05-20 2099-05-27",
+                        "END"), printedLines())
+        );
+    }
+
+    @Test
+    void run_importRooms() throws IOException {
+        Path csv = tempDir.resolve("rooms.csv");
+        Files.writeString(csv, "1,100.0,SINGLE\n2,50.0,DOUBLE\n");
+
+        int failures = run("import-rooms " + csv, "import-rooms " + tempDir.resolve("missing.csv"), "list rooms");
+
+        List<String> lines = printedLines();
+        assertAll(
+                () -> assertEquals(1, failures),
+                () -> assertEquals("IMPORTED 2", lines.get(0)),
+                () -> assertTrue(lines.get(1).startsWith("ERROR 2 ")),
+                () -> assertEquals(List.of("ROOM 1 100.0 SINGLE", "ROOM 2 50.0 DOUBLE", "END"), lines.subList(2, 5))
+        );
+    }
+
+    @Test
+    void run_importCustomers() throws IOException {
+        Path csv = tempDir.resolve("customers.csv");
+        Files.writeString(csv, "i@z.com,I,Z\nwrong,J,R\n");
+
+        int failures = run("import-customers " + csv);
+
+        assertAll(
+                () -> assertEquals(0, failures),
+                () -> assertEquals(List.of("IMPORTED 1",
+                        "SKIPPED 2 Email is of wrong format. Please correct your email."), printedLines())
+        );
+    }
+
+    @Test
+    void run_failedCommandsReported() throws IOException {
+        int failures = run(
+                "room 1 100.0 SINGLE",
+                "book nobody@z.com 1 2099-05-20 2099-05-27",
+                "customer i@z.com I Z",
+                "book i@z.com 2 2099-05-20 2099-05-27",
+                "book i@z.com 1 2099-05-27 2099-05-20",
+                "search 2099-05-20",
+                "room 2 cheap SINGLE",
+                "search 2099-13-01 2099-13-02",
+                "checkout",
+                "room 1 100.0 SINGLE");
+
+        List<String> lines = printedLines();
+        assertAll(
+                () -> assertEquals(8, failures),
+                () -> assertEquals(10, lines.size()),
+                () -> assertEquals("ERROR 2 No customer with email nobody@z.com", lines.get(1)),
+                () -> assertEquals("ERROR 4 There is no room with number 2", lines.get(3)),
+                () -> assertEquals("ERROR 5 Check-out date should be later than check-in date", lines.get(4)),
+                () -> assertTrue(lines.get(6).startsWith("ERROR 7 ")),
+                () -> assertTrue(lines.get(7).startsWith("ERROR 8 ")),
+                () -> assertEquals("ERROR 9 Unknown command checkout", lines.get(8)),
+                () -> assertEquals("ERROR 10 Room number 1 already exists", lines.get(9))
+        );
+    }
+
+    @Test
+    void run_unexpectedException_countedAndNextCommandsExecuted() throws IOException {
+        HotelResource hotelResource = mock(HotelResource.class);
+        when(hotelResource.findARoom(any(), any())).thenThrow(new NullPointerException())
+                .thenThrow(new ArithmeticException("/ by zero")).thenReturn(List.of());
+        var consolePrinter = new BufferedConsolePrinter(outContent, StandardCharsets.UTF_8,
+                BufferedConsolePrinter.DEFAULT_BUFFER_SIZE);
+        batchCommandRunner = new BatchCommandRunner(hotelResource, mock(AdminResource.class), consolePrinter);
+
+        int failures = run(
+                "search 2099-05-20 2099-05-27",
+                "search 2099-05-20 2099-05-27",
+                "search 2099-05-20 2099-05-27");
+
+        assertAll(
+                () -> assertEquals(2, failures),
+                () -> assertEquals(List.of("ERROR 1 NullPointerException", "ERROR 2 / by zero", "ROOMS 0"),
+                        printedLines())
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package com.udacity.hotel.ui;
+
+import com.udacity.hotel.model.Room;
+import com.udacity.hotel.model.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedConsolePrinterTest {
+
+    private ByteArrayOutputStream outContent;
+    private BufferedConsolePrinter consolePrinter;
+
+    @BeforeEach
+    void init() {
+        outContent = new ByteArrayOutputStream();
+        consolePrinter = new BufferedConsolePrinter(outContent, StandardCharsets.UTF_8,
+                BufferedConsolePrinter.DEFAULT_BUFFER_SIZE);
+    }
+
+    private String printed() {
+        return outContent.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void print_shownAfterFlush() {
+        var room = new Room("1", 10.0D, RoomType.SINGLE);
+        consolePrinter.print("Test string");
+        consolePrinter.print(room);
+
+        assertEquals("", printed());
+        consolePrinter.flush();
+        assertEquals("Test string" + System.lineSeparator() + room + System.lineSeparator(), printed());
+    }
+
+    @Test
+    void print_bufferFull() {
+        String text = "a".repeat(BufferedConsolePrinter.DEFAULT_BUFFER_SIZE * 2);
+        consolePrinter.print(text);
+
+        assertTrue(printed().length() >= BufferedConsolePrinter.DEFAULT_BUFFER_SIZE);
+    }
+
+    @Test
+    void printAll() {
+        consolePrinter.printAll(List.of("a", 1, "b"));
+        consolePrinter.flush();
+
+        String separator = System.lineSeparator();
+        assertEquals("a" + separator + "1" + separator + "b" + separator, printed());
+    }
+
+    @Test
+    void flushingBefore_flushesWhenInputIsRead() {
+        var scanner = new Scanner(consolePrinter.flushingBefore(
+                new ByteArrayInputStream("answer\n".getBytes(StandardCharsets.UTF_8))));
+        consolePrinter.print("Enter answer");
+
+        assertEquals("answer", scanner.nextLine());
+        assertEquals("Enter answer" + System.lineSeparator(), printed());
+    }
+
+    @Test
+    void flush_outputFails() {
+        var failingOutput = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Console closed");
+            }
+        };
+        consolePrinter = new BufferedConsolePrinter(failingOutput, StandardCharsets.UTF_8,
+                BufferedConsolePrinter.DEFAULT_BUFFER_SIZE);
+        consolePrinter.print("Lost");
+
+        assertThrows(UncheckedIOException.class, consolePrinter::flush);
+    }
+}
@@ -2,6 +2,7 @@ package com.udacity.hotel.ui;
 
 import com.udacity.hotel.api.HotelResource;
 import com.udacity.hotel.model.*;
+import com.udacity.hotel.service.Availability;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,6 +14,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -24,7 +28,9 @@ class MainMenuServiceFindAndReserveARoomTest {
 
     private MainMenuService mainMenuService;
 
-    private Date nowStubbed;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private LocalDate todayStubbed;
     private DateFormat dateFormat;
 
     @Mock
@@ -38,16 +44,33 @@ class MainMenuServiceFindAndReserveARoomTest {
     void init() {
         dateFormat = new SimpleDateFormat("MM/dd/yyyy");
         // Stub current date
-        Calendar cal = Calendar.getInstance();
-        cal.set(2022, Calendar.AUGUST, 8);
-        nowStubbed = cal.getTime();
-        mainMenuService = new MainMenuService(nowStubbed, hotelResource, scanner, dateFormat, consolePrinter);
+        todayStubbed = LocalDate.of(2022, Month.AUGUST, 8);
+        mainMenuService = new MainMenuService(todayStubbed, hotelResource, scanner, dateFormat, consolePrinter);
+        // No rooms are free unless a test stubs otherwise
+        lenient().when(hotelResource.findAvailability(any(), any(), eq(1), eq(7))).thenAnswer(invocation -> {
+            LocalDate checkIn = invocation.getArgument(0);
+            LocalDate checkOut = invocation.getArgument(1);
+            return availability(checkIn, checkOut, List.of(), List.of());
+        });
+    }
+
+    private void stubAvailability(LocalDate checkIn, LocalDate checkOut, List<IRoom> rooms,
+                                  List<IRoom> roomsNextSevenDays) {
+        when(hotelResource.findAvailability(checkIn, checkOut, 1, 7))
+                .thenReturn(availability(checkIn, checkOut, rooms, roomsNextSevenDays));
+    }
+
+    private static Availability availability(LocalDate checkIn, LocalDate checkOut, List<IRoom> rooms,
+                                             List<IRoom> roomsNextSevenDays) {
+        return new Availability(List.of(
+                new Availability.Window(checkIn, checkOut, rooms),
+                new Availability.Window(checkIn.plusDays(7), checkOut.plusDays(7), roomsNextSevenDays)));
     }
 
     @Test
     void findAndReserveARoom_invalidCheckIn() {
         // Stub user's input: invalid check-in date, rest is to terminate the execution
-        when(scanner.nextLine()).thenReturn("a", "05/30/2023");
+        when(scanner.nextLine()).thenReturn("a", "05/30/2023", "06/10/2023");
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -66,10 +89,12 @@ class MainMenuServiceFindAndReserveARoomTest {
         String dateString = "05/30/2023";
         when(scanner.nextLine()).thenReturn(dateString);
 
-        // Stub failing to parse input date and success afterwards
+        // Stub failing to parse input date and success afterwards, check-out a night later
         Date dateObj = null;
+        Date dateObjNext = null;
         try {
             dateObj = dateFormat.parse(dateString);
+            dateObjNext = dateFormat.parse("05/31/2023");
         } catch (ParseException ex) {
             fail("Parsing date string failed in this test.");
         }
@@ -78,13 +103,14 @@ class MainMenuServiceFindAndReserveARoomTest {
             when(dateFormatStubbed.parse(any()))
                     .thenReturn(null)
                     .thenThrow(new ParseException("test error", 0))
-                    .thenReturn(dateObj);
+                    .thenReturn(dateObj, dateObj)
+                    .thenReturn(dateObjNext);
         }
         catch (ParseException e) {/*obsolete*/}
 
         // Instantiate SUT with stubbed dateFormat
-        MainMenuService mainMenuService = new MainMenuService(nowStubbed, hotelResource, scanner, dateFormatStubbed,
-                consolePrinter);
+        MainMenuService mainMenuService = new MainMenuService(todayStubbed, hotelResource, scanner,
+                dateFormatStubbed, consolePrinter);
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -98,7 +124,7 @@ class MainMenuServiceFindAndReserveARoomTest {
     @Test
     void findAndReserveARoom_checkInIsInThePast() {
         // Stub user's input: check-in date is in the past, correct date to terminate the test
-        when(scanner.nextLine()).thenReturn("01/01/2019", "05/30/2023");
+        when(scanner.nextLine()).thenReturn("01/01/2019", "05/30/2023", "06/10/2023");
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -156,7 +182,7 @@ class MainMenuServiceFindAndReserveARoomTest {
         }
 
         // Instantiate SUT with stubbed dateFormat
-        var mainMenuService = new MainMenuService(nowStubbed, hotelResource, scanner, dateFormatStubbed,
+        var mainMenuService = new MainMenuService(todayStubbed, hotelResource, scanner, dateFormatStubbed,
                 consolePrinter);
 
         // Run this test
@@ -204,6 +230,22 @@ class MainMenuServiceFindAndReserveARoomTest {
         );
     }
 
+    @Test
+    void findAndReserveARoom_checkInEqualsCheckout() {
+        // Stub user's input: same check-in and check-out, afterwards, correct dates to terminate this test
+        when(scanner.nextLine()).thenReturn("05/30/2023", "05/30/2023", "05/30/2023", "06/10/2023");
+
+        // Run this test
+        mainMenuService.findAndReserveARoom();
+
+        assertAll(
+                () -> verify(consolePrinter, times(2)).print("Enter check-in date in format " +
+                        "mm/dd/yyyy Example: 05/30/2022"),
+                () -> verify(consolePrinter, times(1)).print("Your stay should be at least one night. " +
+                        "Please reenter dates")
+        );
+    }
+
     @Test
     void findAndReserveARoom_noRoomsOnTheDates_noRoomsNextSevenDays() {
         // Stub user's input
@@ -212,33 +254,11 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString);
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
-        // Stub finding no available rooms for initial dates
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of());
-
-        // Shift dates by 7 days
-        Calendar cal = Calendar.getInstance();
-        assertNotNull(checkInDate);
-        cal.setTime(checkInDate);
-        cal.add(Calendar.DATE, 7);
-        Date checkInDateNext = cal.getTime();
-
-        assertNotNull(checkOutDate);
-        cal.setTime(checkOutDate);
-        cal.add(Calendar.DATE, 7);
-        Date checkOutDateNext = cal.getTime();
-
-        // Stub no available rooms for the next seven days
-        when(hotelResource.findARoom(checkInDateNext, checkOutDateNext)).thenReturn(List.of());
+        // Stub finding no available rooms for initial dates and for the next seven days
+        stubAvailability(checkInDate, checkOutDate, List.of(), List.of());
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -259,34 +279,16 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "n");
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
-
-        // Stub finding no available rooms for initial dates
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of());
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Shift dates by 7 days
-        Calendar cal = Calendar.getInstance();
-        assertNotNull(checkInDate);
-        cal.setTime(checkInDate);
-        cal.add(Calendar.DATE, 7);
-        Date checkInDateNext = cal.getTime();
-
-        assertNotNull(checkOutDate);
-        cal.setTime(checkOutDate);
-        cal.add(Calendar.DATE, 7);
-        Date checkOutDateNext = cal.getTime();
-
-        // Stub available rooms for the next seven days
+        LocalDate checkInDateNext = checkInDate.plusDays(7);
+        LocalDate checkOutDateNext = checkOutDate.plusDays(7);
+
+        // Stub finding no available rooms for initial dates, but available rooms for the next seven days
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDateNext, checkOutDateNext)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(), List.of(room));
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -307,19 +309,12 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "n");
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -339,19 +334,12 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "a", "n");
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -371,19 +359,12 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "y", "n");
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         // Run this test
         mainMenuService.findAndReserveARoom();
@@ -403,19 +384,12 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "y", "a", "n");
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         //  Run this test
         mainMenuService.findAndReserveARoom();
@@ -435,19 +409,12 @@ class MainMenuServiceFindAndReserveARoomTest {
         when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "y", "y", email);
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         // Stub that customer is not registered
         when(hotelResource.getCustomer(email)).thenReturn(null);
@@ -473,19 +440,12 @@ class MainMenuServiceFindAndReserveARoomTest {
                 email, roomNumber, "1");
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         // Stub that customer exists
         var customer = new Customer("I", "Z", email);
@@ -519,19 +479,12 @@ class MainMenuServiceFindAndReserveARoomTest {
                 email, roomNumberToBook);
 
         // Prepare dates
-        Date checkInDate = null;
-        Date checkOutDate = null;
-        dateFormat.setLenient(false);
-        try {
-            checkInDate = dateFormat.parse(checkInString);
-            checkOutDate = dateFormat.parse(checkOutString);
-        } catch (ParseException e) {
-            fail("Parsing date string failed in this test.");
-        }
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
 
         // Stub finding available room
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        when(hotelResource.findARoom(checkInDate, checkOutDate)).thenReturn(List.of(room));
+        stubAvailability(checkInDate, checkOutDate, List.of(room), List.of());
 
         // Stub that customer exists
         var customer = new Customer("I", "Z", email);
@@ -550,4 +503,40 @@ class MainMenuServiceFindAndReserveARoomTest {
 
         verify(consolePrinter, times(1)).print(reservation);
     }
+
+    @Test
+    void findAndReserveARoom_successNextSevenDays() {
+        // Stub user's input
+        String checkInString = "05/30/2023";
+        String checkOutString = "06/10/2023";
+        String email = "i@z.com";
+        String roomNumberToBook = "1";
+        when(scanner.nextLine()).thenReturn(checkInString, checkOutString, "y", "y",
+                email, roomNumberToBook);
+
+        // Prepare dates shifted by 7 days
+        LocalDate checkInDate = LocalDate.parse(checkInString, DATE_FORMATTER);
+        LocalDate checkOutDate = LocalDate.parse(checkOutString, DATE_FORMATTER);
+        LocalDate checkInDateNext = checkInDate.plusDays(7);
+        LocalDate checkOutDateNext = checkOutDate.plusDays(7);
+
+        // Stub finding a room available only for the next seven days
+        var room = new Room("1", 10.0D, RoomType.SINGLE);
+        stubAvailability(checkInDate, checkOutDate, List.of(), List.of(room));
+
+        // Stub that customer exists and getting the room
+        var customer = new Customer("I", "Z", email);
+        when(hotelResource.getCustomer(email)).thenReturn(customer);
+        when(hotelResource.getRoom(roomNumberToBook)).thenReturn(room);
+
+        // Stub making a reservation for the shifted dates
+        var reservationFactory = new ReservationFactory();
+        Reservation reservation = reservationFactory.create(customer, room, checkInDateNext, checkOutDateNext);
+        when(hotelResource.bookARoom(email, room, checkInDateNext, checkOutDateNext)).thenReturn(reservation);
+
+        // Run this test
+        mainMenuService.findAndReserveARoom();
+
+        verify(consolePrinter, times(1)).print(reservation);
+    }
 }
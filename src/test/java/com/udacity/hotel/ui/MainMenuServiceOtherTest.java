@@ -7,8 +7,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.List;
 import java.util.Scanner;
 
@@ -119,11 +119,8 @@ class MainMenuServiceOtherTest {
 
         // Stub getting customer's reservation
         var room = new Room("1", 10.0D, RoomType.SINGLE);
-        Calendar cal = Calendar.getInstance();
-        cal.set(2099, Calendar.MAY, 20);
-        Date checkIn = cal.getTime();
-        cal.set(2099, Calendar.MAY, 21);
-        Date checkOut = cal.getTime();
+        LocalDate checkIn = LocalDate.of(2099, Month.MAY, 20);
+        LocalDate checkOut = LocalDate.of(2099, Month.MAY, 21);
         var reservationFactory = new ReservationFactory();
         Reservation reservation = reservationFactory.create(customer, room, checkIn, checkOut);
         when(hotelResource.getCustomersReservations(email)).thenReturn(List.of(reservation));